@@ -0,0 +1,162 @@
+package Bench;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JMH 방식(워밍업 반복 -> 측정 반복, 반복마다 정해진 시간 동안 연산 수행)을 따르는 작은 벤치마크 하네스.
+ * 처리량(ops/s)과 함께 JMH -prof gc에 해당하는 할당량(B/op, MB/s)과 GC 횟수/시간을 출력한다.
+ * 할당량은 com.sun.management.ThreadMXBean의 스레드별 할당 바이트로 측정하므로 연산은 호출 스레드에서만 할당해야 정확하다.
+ */
+public final class Harness {
+    /// 측정할 연산 - 반환값은 consume으로 넘겨 JIT가 제거하지 못하게 한다
+    public interface Operation {
+        Object run() throws Exception;
+    }
+
+    public static final class Result {
+        public final String name;
+        public final double opsPerSecond, errorOpsPerSecond;
+        public final double bytesPerOp, allocationMbPerSecond;
+        public final long gcCount, gcMillis;
+
+        Result(String name, double opsPerSecond, double errorOpsPerSecond, double bytesPerOp,
+               double allocationMbPerSecond, long gcCount, long gcMillis) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.errorOpsPerSecond = errorOpsPerSecond;
+            this.bytesPerOp = bytesPerOp;
+            this.allocationMbPerSecond = allocationMbPerSecond;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+    }
+
+    private static volatile Object sink;
+
+    private final int warmupIterations;
+    private final int measurementIterations;
+    private final long iterationNanos;
+    private final List<Result> results = new ArrayList<>();
+
+    public Harness(int warmupIterations, int measurementIterations, long iterationMillis) {
+        this.warmupIterations = warmupIterations;
+        this.measurementIterations = measurementIterations;
+        this.iterationNanos = iterationMillis * 1_000_000L;
+    }
+
+    /// 빠른 확인용(--quick) / 기본 설정
+    public static Harness fromArgs(String[] args) {
+        boolean quick = java.util.Arrays.asList(args).contains("--quick");
+        return quick ? new Harness(1, 2, 200) : new Harness(3, 5, 1000);
+    }
+
+    public static void consume(Object value) {
+        sink = value;
+    }
+
+    /// setup은 측정 밖에서 한 번 실행, operation은 반복 측정
+    public Result run(String name, Runnable setup, Operation operation) {
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));   // 파서/렌더러의 진행 로그 억제
+        try {
+            if (setup != null) setup.run();
+            for (int i = 0; i < warmupIterations; i++) {
+                runIteration(operation);
+            }
+
+            double[] rates = new double[measurementIterations];
+            long totalOps = 0, totalNanos = 0, totalBytes = 0;
+            long gcCountBefore = totalGcCount(), gcMillisBefore = totalGcMillis();
+            for (int i = 0; i < measurementIterations; i++) {
+                long[] iteration = runIteration(operation);
+                totalOps += iteration[0];
+                totalNanos += iteration[1];
+                totalBytes += iteration[2];
+                rates[i] = iteration[0] / (iteration[1] / 1e9);
+            }
+
+            Result result = new Result(name, mean(rates), confidence(rates),
+                    totalOps == 0 ? 0 : (double) totalBytes / totalOps,
+                    totalBytes / (1024.0 * 1024.0) / (totalNanos / 1e9),
+                    totalGcCount() - gcCountBefore, totalGcMillis() - gcMillisBefore);
+            results.add(result);
+            return result;
+        } catch (Exception e) {
+            System.err.println("벤치마크 실패: " + name + " - " + e);
+            return null;
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
+    // {연산 수, 경과 ns, 할당 바이트}
+    private long[] runIteration(Operation operation) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = allocatedBytes(threadId);
+        long start = System.nanoTime();
+        long ops = 0;
+        long elapsed;
+        do {
+            consume(operation.run());
+            ops++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < iterationNanos);
+        return new long[]{ops, elapsed, allocatedBytes(threadId) - bytesBefore};
+    }
+
+    private static long allocatedBytes(long threadId) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(threadId);
+        }
+        return 0;
+    }
+
+    private static long totalGcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long totalGcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, bean.getCollectionTime());
+        }
+        return millis;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) sum += value;
+        return sum / values.length;
+    }
+
+    // 99.9% 신뢰구간 반폭 근사 (JMH 출력의 ± 값과 같은 의미, 표본이 적으면 넓게 잡힘)
+    private static double confidence(double[] values) {
+        if (values.length < 2) return Double.NaN;
+        double mean = mean(values);
+        double variance = 0;
+        for (double value : values) variance += (value - mean) * (value - mean);
+        variance /= values.length - 1;
+        return 3.291 * Math.sqrt(variance / values.length);
+    }
+
+    /// JMH와 비슷한 형식의 결과 표 출력
+    public void printSummary() {
+        System.out.printf("%n%-48s %14s %12s %14s %12s %6s %8s%n",
+                "Benchmark", "ops/s", "± error", "B/op", "MB/s", "GCs", "GC ms");
+        for (Result r : results) {
+            System.out.printf("%-48s %14.3f %12.3f %14.1f %12.1f %6d %8d%n",
+                    r.name, r.opsPerSecond, r.errorOpsPerSecond, r.bytesPerOp, r.allocationMbPerSecond,
+                    r.gcCount, r.gcMillis);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package Character;
+
+import Bench.Harness;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+
+/**
+ * SpriteRenderer 경로 벤치마크 - 바지/머리카락 HSB 재색칠과 프레임 전환(loadFrames)
+ */
+public class SpriteBenchmarks {
+    private SpriteBenchmarks() {}
+
+    public static void run(Harness harness) {
+        SpriteRenderer sprite = new SpriteRenderer();
+
+        BufferedImage pantsFrame;
+        try {
+            pantsFrame = ImageIO.read(new File("resource/Characters/Farmer/pants.png")).getSubimage(0, 0, 16, 32);
+        } catch (Exception e) {
+            System.err.println("바지 스프라이트 시트를 읽을 수 없습니다: " + e.getMessage());
+            return;
+        }
+
+        harness.run("sprite.applyHSBColor", null, () -> sprite.applyHSBColor(pantsFrame, 0.65f, 0.7f, 0.78f));
+
+        // 걷기 애니메이션처럼 프레임 번호를 바꿔가며 로드 (같은 프레임 반복은 실제 사용과 다름)
+        int[] frame = {0};
+        harness.run("sprite.loadFrames", null, () -> {
+            int index = frame[0]++ % 4;
+            sprite.loadFrames(index, 6 + index, 0, index, 65);
+            return sprite;
+        });
+    }
+}
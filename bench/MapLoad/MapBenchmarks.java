@@ -0,0 +1,265 @@
+package MapLoad;
+
+import Bench.Harness;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * TmxParser / GrassRenderer 경로 벤치마크.
+ * 헤드리스 TmxParser를 사용하므로 java.awt.headless=true 환경(CI)에서도 실행된다.
+ */
+public class MapBenchmarks {
+    private static final int VIEW_WIDTH = 1200;
+    private static final int VIEW_HEIGHT = 780;
+    private static final int GRASS_GID = 87;
+    private static final int GRASS_AREA_TILES = 16;     // 잔디로 가득 찬 16x16 타일 영역
+    private static final int GRASS_BAKE_TILES = 128;    // 풀잎 배치 생성: 128x128 타일 잔디 맵
+    private static final int OBJECT_SPACING_TILES = 2;
+    private static final int SCROLL_STEP = 5;           // 카메라 스크롤: 플레이어 이동 속도와 같은 프레임당 5픽셀  // 배치 오브젝트 벤치마크: 2타일 간격으로 맵 전체에 배치
+
+    private MapBenchmarks() {}
+
+    /// resource/ 아래 모든 .tmx의 파싱(TmxReader)만 / loadTMX 전체 - 맵별 시간과 할당량
+    public static void loadAllMaps(Harness harness, TmxParser parser) {
+        File[] maps = new File("resource").listFiles((dir, name) -> name.endsWith(".tmx"));
+        if (maps == null) return;
+        Arrays.sort(maps);
+
+        for (File map : maps) {
+            harness.run("parseTMX." + map.getName(), null, () -> TmxReader.read(map));
+        }
+        File compiledDirectory = createTempDirectory("compiled-maps");
+        for (File map : maps) {
+            File compiled = new File(compiledDirectory, map.getName() + CompiledMap.EXTENSION);
+            harness.run("readCompiledMap." + map.getName(),
+                    () -> CompiledMap.write(compiled, map, readTmx(map)),
+                    () -> CompiledMap.read(compiled, map));
+        }
+        for (File map : maps) {
+            String path = "resource/" + map.getName();
+            harness.run("loadTMX." + map.getName(), null, () -> parser.loadTMX(path));
+        }
+    }
+
+    /// 화면 하나(1200x780) 렌더링 - 타일별 renderLayerTiles 경로와 청크 캐시 경로를 같은 카메라 위치에서 비교
+    public static void renderFrames(Harness harness, TmxParser parser, String mapPath) {
+        String mapName = new File(mapPath).getName();
+        int[][] cameraPositions = cameraPositions(parser, mapPath);
+        BufferedImage target = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = target.createGraphics();
+
+        for (boolean chunked : new boolean[]{false, true}) {
+            for (int[] position : cameraPositions) {
+                String name = String.format("frame.%s.%s@%d,%d", chunked ? "chunks" : "tiles", mapName, position[0], position[1]);
+                harness.run(name,
+                        () -> {
+                            parser.loadTMX(mapPath);
+                            parser.setStaticChunkCacheEnabled(chunked);
+                        },
+                        () -> {
+                            parser.renderRegion(g2d, position[0], position[1], VIEW_WIDTH, VIEW_HEIGHT, TmxParser.TILE_SCALE);
+                            return target;
+                        });
+            }
+        }
+        g2d.dispose();
+        parser.setStaticChunkCacheEnabled(true);
+    }
+
+    /// 플레이어가 대각선으로 걸을 때(프레임당 MOVE_SPEED) 카메라 모드 화면 - 스크롤 버퍼 경로와 청크를 매번 그리는 경로 비교
+    public static void scrollCamera(Harness harness, TmxParser parser, String mapPath) {
+        String mapName = new File(mapPath).getName();
+        BufferedImage target = CompatibleImages.create(VIEW_WIDTH, VIEW_HEIGHT, Transparency.OPAQUE);
+        Graphics2D g2d = target.createGraphics();
+
+        for (boolean scrollBlit : new boolean[]{true, false}) {
+            int[] step = {0};
+            harness.run(String.format("cameraScroll.%s.%s", scrollBlit ? "scrollBlit" : "chunks", mapName),
+                    () -> {
+                        parser.loadTMX(mapPath);
+                        parser.setScrollBlitEnabled(scrollBlit);
+                    },
+                    () -> {
+                        // 맵 가운데를 지나는 대각선을 왕복
+                        int span = Math.min(parser.getMapWidth() * parser.getTileWidth(),
+                                parser.getMapHeight() * parser.getTileHeight()) * TmxParser.TILE_SCALE;
+                        int distance = (step[0]++ * SCROLL_STEP) % (2 * span);
+                        int position = distance < span ? distance : 2 * span - distance;
+                        parser.renderCameraFrame(g2d, position, position);
+                        return target;
+                    });
+        }
+        g2d.dispose();
+        parser.setScrollBlitEnabled(false);
+    }
+
+    // 맵 좌상단 / 중앙 / 우하단
+    private static int[][] cameraPositions(TmxParser parser, String mapPath) {
+        parser.loadTMX(mapPath);
+        int maxX = Math.max(0, parser.getMapWidth() * parser.getTileWidth() * TmxParser.TILE_SCALE - VIEW_WIDTH);
+        int maxY = Math.max(0, parser.getMapHeight() * parser.getTileHeight() * TmxParser.TILE_SCALE - VIEW_HEIGHT);
+        return new int[][]{{0, 0}, {maxX / 2, maxY / 2}, {maxX, maxY}};
+    }
+
+    /// 잔디로 가득 찬 영역의 renderGrassTile - 위치 캐시가 찬 상태(warm)와 매번 새로 생성하는 상태(cold), 맵 전체 배치 생성
+    public static void renderGrass(Harness harness) {
+        TmxParser.PathTileCustomization customization = new TmxParser.PathTileCustomization(
+                "resource/TerrainFeatures/grass.png", 0, 15, 20,
+                TmxParser.PathTileCustomization.RenderMode.ASPECT_FILL, 0, 0, 0, true, false);
+
+        Map<String, BufferedImage> images = new HashMap<>();
+        try {
+            images.put(customization.imagePath,
+                    CompatibleImages.toCompatible(javax.imageio.ImageIO.read(new File(customization.imagePath))));
+        } catch (Exception e) {
+            System.err.println("잔디 이미지를 읽을 수 없습니다: " + e.getMessage());
+            return;
+        }
+
+        GrassRenderer grassRenderer = new GrassRenderer(images, new ScaledImageCache());
+        grassRenderer.preExtractGrassTiles(customization.imagePath, customization);
+
+        int tileSize = 16 * TmxParser.TILE_SCALE;
+        BufferedImage target = CompatibleImages.create(GRASS_AREA_TILES * tileSize, GRASS_AREA_TILES * tileSize,
+                Transparency.TRANSLUCENT);
+        Graphics2D g2d = target.createGraphics();
+
+        harness.run("grass.renderGrassTile.warm", null, () -> {
+            renderGrassArea(grassRenderer, g2d, customization, tileSize);
+            return target;
+        });
+        harness.run("grass.renderGrassTile.cold", null, () -> {
+            grassRenderer.clearCache();      // 잘라둔 잔디 타일까지 비우므로 다시 추출
+            grassRenderer.preExtractGrassTiles(customization.imagePath, customization);
+            renderGrassArea(grassRenderer, g2d, customization, tileSize);
+            return target;
+        });
+        g2d.dispose();
+
+        // 맵을 불러올 때 하는 풀잎 배치 생성 - 잔디로 가득 찬 128x128 타일 맵
+        int[] grassGids = new int[GRASS_BAKE_TILES * GRASS_BAKE_TILES];
+        Arrays.fill(grassGids, GRASS_GID);
+        GrassField field = new GrassField();
+        harness.run("grass.bakeField." + GRASS_BAKE_TILES + "x" + GRASS_BAKE_TILES, null, () -> {
+            field.bake(grassGids, GRASS_BAKE_TILES, GRASS_BAKE_TILES, tileSize, tileSize, 0);
+            return field;
+        });
+    }
+
+    private static void renderGrassArea(GrassRenderer grassRenderer, Graphics2D g2d,
+                                        TmxParser.PathTileCustomization customization, int tileSize) {
+        for (int tileY = 0; tileY < GRASS_AREA_TILES; tileY++) {
+            for (int tileX = 0; tileX < GRASS_AREA_TILES; tileX++) {
+                grassRenderer.renderGrassTile(g2d, tileX * tileSize, tileY * tileSize, tileSize, tileSize,
+                        GRASS_GID, tileX, tileY, customization, 1);
+            }
+        }
+    }
+
+    /// 배치 오브젝트가 맵 전체에 수천 개 있을 때 화면 하나 렌더링 - 화면 밖 오브젝트 수와 무관해야 한다
+    public static void renderManyObjects(Harness harness, String mapPath) {
+        TmxParser parser = TmxParser.createHeadless();
+        parser.loadTMX(mapPath);
+        int placed = 0;
+        for (int tileY = 1; tileY < parser.getMapHeight(); tileY += OBJECT_SPACING_TILES) {
+            for (int tileX = 0; tileX < parser.getMapWidth(); tileX += OBJECT_SPACING_TILES) {
+                parser.addObjectAtPosition(tileX, tileY, "resource/Buildings/Mailbox.png", 0, 16, 32,
+                        TmxParser.PathTileCustomization.RenderMode.ORIGINAL_SIZE, 0, 0, 0);
+                placed++;
+            }
+        }
+
+        String mapName = new File(mapPath).getName();
+        BufferedImage target = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = target.createGraphics();
+        for (int[] position : cameraPositions(parser, mapPath)) {
+            harness.run(String.format("objects.%d.%s@%d,%d", placed, mapName, position[0], position[1]), null, () -> {
+                parser.renderRegion(g2d, position[0], position[1], VIEW_WIDTH, VIEW_HEIGHT, TmxParser.TILE_SCALE);
+                return target;
+            });
+        }
+        g2d.dispose();
+    }
+
+    /// switchToMap 왕복 지연 - 준비된 맵 캐시를 비우고 TMX 파싱 / 컴파일된 맵(.tmxb) 읽기, 미리 준비된 맵으로 교체만
+    public static void switchMaps(Harness harness, TmxParser parser, String fromMap, String toMap) {
+        String pair = new File(fromMap).getName() + "<->" + new File(toMap).getName();
+        File compiledDirectory = createTempDirectory("compiled-maps");
+        for (String mode : new String[]{"", "compiled.", "cached."}) {
+            boolean cold = !mode.equals("cached.");
+            boolean[] towardTarget = {true};
+            harness.run("switchToMap." + mode + pair,
+                    () -> {
+                        parser.setMapCacheDirectory(mode.equals("compiled.") ? compiledDirectory : null);
+                        parser.loadTMX(toMap);      // 컴파일된 맵을 만들어 두고 양쪽을 캐시에 넣도록 한 번씩
+                        parser.loadTMX(fromMap);
+                    },
+                    () -> {
+                        if (cold) parser.clearPreparedMaps();
+                        parser.switchToMap(towardTarget[0] ? toMap : fromMap, 3, 6);
+                        towardTarget[0] = !towardTarget[0];
+                        return parser;
+                    });
+        }
+        parser.setMapCacheDirectory(null);
+
+        // 미리 준비된 맵으로 교체한 직후의 첫 화면 - 새 맵 기준으로 청크를 굽고 타일을 확대하는 비용까지 포함
+        BufferedImage target = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = target.createGraphics();
+        boolean[] towardTarget = {true};
+        harness.run("switchToMap.firstFrame." + pair,
+                () -> {
+                    parser.loadTMX(toMap);
+                    parser.loadTMX(fromMap);
+                },
+                () -> {
+                    parser.switchToMap(towardTarget[0] ? toMap : fromMap, 3, 6);
+                    towardTarget[0] = !towardTarget[0];
+                    parser.renderRegion(g2d, 0, 0, VIEW_WIDTH, VIEW_HEIGHT, TmxParser.TILE_SCALE);
+                    return target;
+                });
+        g2d.dispose();
+    }
+
+    /// 첫 프레임까지 (헤드리스 TmxParser 생성 + 설정 + loadTMX + 화면 하나) - PNG를 처음 쓸 때 디코딩 / 시작할 때 모두 디코딩
+    /// 미리 디코딩은 병렬 스트림에서 하므로 그 할당은 B/op에 잡히지 않는다 (시간만 비교)
+    public static void timeToFirstFrame(Harness harness, Consumer<TmxParser> setup, String mapPath) {
+        String mapName = new File(mapPath).getName();
+        for (boolean preload : new boolean[]{false, true}) {
+            harness.run("firstFrame." + (preload ? "preload." : "lazy.") + mapName, null, () -> {
+                TmxParser parser = TmxParser.createHeadless();
+                if (preload) parser.preloadAllImages();
+                setup.accept(parser);
+                parser.loadTMX(mapPath);
+                return parser.renderRegion(0, 0, VIEW_WIDTH, VIEW_HEIGHT, TmxParser.TILE_SCALE);
+            });
+        }
+    }
+
+    private static File createTempDirectory(String prefix) {
+        try {
+            File directory = Files.createTempDirectory(prefix).toFile();
+            directory.deleteOnExit();
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static TmxReader readTmx(File map) {
+        try {
+            return TmxReader.read(map);
+        } catch (Exception e) {
+            throw new IllegalStateException("TMX를 읽을 수 없습니다: " + map, e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+import Bench.Harness;
+import Character.SpriteBenchmarks;
+import MapLoad.MapBenchmarks;
+import MapLoad.TmxParser;
+
+/**
+ * 전체 벤치마크 실행 진입점 (프로젝트 루트에서 실행해야 resource/를 찾는다)
+ * 사용법: RunBenchmarks [--quick] [load|frame|scroll|objects|grass|sprite|switch|startup ...]
+ * 그룹을 생략하면 전부 실행, --quick이면 워밍업/측정 반복을 줄여 빠르게 확인만 한다
+ */
+public class RunBenchmarks {
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        java.util.List<String> groups = java.util.Arrays.stream(args)
+                .filter(arg -> !arg.startsWith("--"))
+                .collect(java.util.stream.Collectors.toList());
+        Harness harness = Harness.fromArgs(args);
+
+        TmxParser parser = TmxParser.createHeadless();
+        Main.setupObjects(parser);
+        Main.setupPathCustomizations(parser);
+
+        if (groups.isEmpty() || groups.contains("load")) {
+            MapBenchmarks.loadAllMaps(harness, parser);
+        }
+        if (groups.isEmpty() || groups.contains("frame")) {
+            MapBenchmarks.renderFrames(harness, parser, "resource/Farm.tmx");
+            MapBenchmarks.renderFrames(harness, parser, "resource/Forest.tmx");
+        }
+        if (groups.isEmpty() || groups.contains("scroll")) {
+            MapBenchmarks.scrollCamera(harness, parser, "resource/Farm.tmx");
+            MapBenchmarks.scrollCamera(harness, parser, "resource/Forest.tmx");
+        }
+        if (groups.isEmpty() || groups.contains("objects")) {
+            MapBenchmarks.renderManyObjects(harness, "resource/Farm.tmx");
+        }
+        if (groups.isEmpty() || groups.contains("grass")) {
+            MapBenchmarks.renderGrass(harness);
+        }
+        if (groups.isEmpty() || groups.contains("sprite")) {
+            SpriteBenchmarks.run(harness);
+        }
+        if (groups.isEmpty() || groups.contains("switch")) {
+            MapBenchmarks.switchMaps(harness, parser, "resource/Farm.tmx", "resource/FarmHouse.tmx");
+            MapBenchmarks.switchMaps(harness, parser, "resource/Farm.tmx", "resource/Forest.tmx");
+        }
+
+        if (groups.isEmpty() || groups.contains("startup")) {
+            MapBenchmarks.timeToFirstFrame(harness, viewer -> {
+                Main.setupObjects(viewer);
+                Main.setupPathCustomizations(viewer);
+            }, "resource/Farm.tmx");
+        }
+
+        harness.printSummary();
+        System.exit(0);
+    }
+}
@@ -1,5 +1,7 @@
 package Character;
 
+import MapLoad.CompatibleImages;
+
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import javax.imageio.ImageIO;
@@ -8,6 +10,11 @@ import java.io.File;
 import java.io.IOException;
 
 public class SpriteRenderer {
+    /// 레이어 이미지 하나를 (x, y)에 width x height로 그리는 대상 (Java2D 또는 소프트웨어 렌더러)
+    public interface LayerSink {
+        void draw(BufferedImage image, int x, int y, int width, int height);
+    }
+
     /** ========== 스프라이트 이미지 관련 ========== **/
     private BufferedImage spriteSheet;          /// 전체 스프라이트 시트 이미지 -> farmer
     private BufferedImage spriteSheetShirt;     /// 전체 스프라이트 시트 이미지 -> Shirt
@@ -100,10 +107,11 @@ public class SpriteRenderer {
     /// 스프라이트 시트 이미지 파일 로드
     private void loadSpriteSheet() {
         try {
-            spriteSheet = ImageIO.read(new File("resource/Characters/Farmer/farmer_base.png"));
-            spriteSheetShirt = ImageIO.read(new File("resource/Characters/Farmer/shirts.png"));
-            spriteSheetPants = ImageIO.read(new File("resource/Characters/Farmer/pants.png"));
-            spriteSheetHair = ImageIO.read(new File("resource/Characters/Farmer/hairstyles.png"));
+            // 화면 호환 형식으로 변환해 두어야 매 프레임 복사 시 형식 변환 루프를 타지 않는다
+            spriteSheet = CompatibleImages.toCompatible(ImageIO.read(new File("resource/Characters/Farmer/farmer_base.png")));
+            spriteSheetShirt = CompatibleImages.toCompatible(ImageIO.read(new File("resource/Characters/Farmer/shirts.png")));
+            spriteSheetPants = CompatibleImages.toCompatible(ImageIO.read(new File("resource/Characters/Farmer/pants.png")));
+            spriteSheetHair = CompatibleImages.toCompatible(ImageIO.read(new File("resource/Characters/Farmer/hairstyles.png")));
         } catch (IOException e) {
             System.err.println("스프라이트 시트를 로드할 수 없습니다: " + e.getMessage());
         }
@@ -148,7 +156,7 @@ public class SpriteRenderer {
     }
 
     /// 기본 프레임 로드 메서드
-    private void loadFrames(int baseFrameNum, int armFrameNum, int shirtFrameNum, int pantsFrameNum, int hairFrameNum) {
+    void loadFrames(int baseFrameNum, int armFrameNum, int shirtFrameNum, int pantsFrameNum, int hairFrameNum) {
         loadFrames(baseFrameNum, armFrameNum, shirtFrameNum, pantsFrameNum, hairFrameNum, false);
     }
 
@@ -270,7 +278,7 @@ public class SpriteRenderer {
 
     /// 이미지를 좌우 반전시키는 메서드
     private BufferedImage flipImageHorizontally(BufferedImage image) {
-        BufferedImage flipped = new BufferedImage(image.getWidth(), image.getHeight(), image.getType());
+        BufferedImage flipped = CompatibleImages.create(image.getWidth(), image.getHeight(), image.getTransparency());
         Graphics2D g2d = flipped.createGraphics();
         g2d.drawImage(image, image.getWidth(), 0, -image.getWidth(), image.getHeight(), null);
         g2d.dispose();
@@ -278,7 +286,7 @@ public class SpriteRenderer {
     }
 
     /// HSB 색상을 적용하여 이미지를 색칠하는 메서드
-    private BufferedImage applyHSBColor(BufferedImage originalImage, float hue, float saturation, float brightness) {
+    BufferedImage applyHSBColor(BufferedImage originalImage, float hue, float saturation, float brightness) {
         if (originalImage == null) return null;
 
         BufferedImage coloredImage = new BufferedImage(originalImage.getWidth(), originalImage.getHeight(), BufferedImage.TYPE_INT_ARGB);
@@ -518,46 +526,58 @@ public class SpriteRenderer {
 
     /// 화면에 스프라이트 렌더링 (몸체 + 바지 + 셔츠 + 팔 + 머리카락을 레이어로 그리기)
     public void render(Graphics2D g2d) {
+        render(g2d, SCALE);
+    }
+
+    /// 지정한 픽셀 배율로 렌더링 (원본 해상도 프레임버퍼에는 1배로 그림)
+    /// 프레임별 오프셋은 SCALE 기준 값이므로 배율에 맞춰 환산
+    /// @param pixelScale 스프라이트 1픽셀을 몇 픽셀로 그릴지 (기본 SCALE)
+    public void render(Graphics2D g2d, int pixelScale) {
+        render((image, drawX, drawY, width, height) -> g2d.drawImage(image, drawX, drawY, width, height, null), pixelScale);
+    }
+
+    /// 레이어를 그리는 순서대로 sink에 넘겨 렌더링
+    public void render(LayerSink sink, int pixelScale) {
         // 현재 애니메이션 프레임에 해당하는 오프셋 계산
-        int baseOffsetX = getFrameOffset(frameOffsets_BaseX, currentAnimFrame);
-        int baseOffsetY = getFrameOffset(frameOffsets_BaseY, currentAnimFrame);
-        int armOffsetX = getFrameOffset(frameOffsets_ArmX, currentAnimFrame);
-        int armOffsetY = getFrameOffset(frameOffsets_ArmY, currentAnimFrame);
-        int shirtOffsetX = getFrameOffset(frameOffsets_ShirtX, currentAnimFrame);
-        int shirtOffsetY = getFrameOffset(frameOffsets_ShirtY, currentAnimFrame);
-        int pantsOffsetX = getFrameOffset(frameOffsets_PantsX, currentAnimFrame);
-        int pantsOffsetY = getFrameOffset(frameOffsets_PantsY, currentAnimFrame);
-        int hairOffsetX = getFrameOffset(frameOffsets_HairX, currentAnimFrame);
-        int hairOffsetY = getFrameOffset(frameOffsets_HairY, currentAnimFrame);
+        int baseOffsetX = getFrameOffset(frameOffsets_BaseX, currentAnimFrame) * pixelScale / SCALE;
+        int baseOffsetY = getFrameOffset(frameOffsets_BaseY, currentAnimFrame) * pixelScale / SCALE;
+        int armOffsetX = getFrameOffset(frameOffsets_ArmX, currentAnimFrame) * pixelScale / SCALE;
+        int armOffsetY = getFrameOffset(frameOffsets_ArmY, currentAnimFrame) * pixelScale / SCALE;
+        int shirtOffsetX = getFrameOffset(frameOffsets_ShirtX, currentAnimFrame) * pixelScale / SCALE;
+        int shirtOffsetY = getFrameOffset(frameOffsets_ShirtY, currentAnimFrame) * pixelScale / SCALE;
+        int pantsOffsetX = getFrameOffset(frameOffsets_PantsX, currentAnimFrame) * pixelScale / SCALE;
+        int pantsOffsetY = getFrameOffset(frameOffsets_PantsY, currentAnimFrame) * pixelScale / SCALE;
+        int hairOffsetX = getFrameOffset(frameOffsets_HairX, currentAnimFrame) * pixelScale / SCALE;
+        int hairOffsetY = getFrameOffset(frameOffsets_HairY, currentAnimFrame) * pixelScale / SCALE;
 
         // 1. 몸체 렌더링 (가장 아래) - 프레임별 오프셋 적용
         if (baseFrame != null) {
-            g2d.drawImage(baseFrame, x + baseOffsetX, y + baseOffsetY,
-                    SPRITE_WIDTH * SCALE, SPRITE_HEIGHT * SCALE, null);
+            sink.draw(baseFrame, x + baseOffsetX, y + baseOffsetY,
+                    SPRITE_WIDTH * pixelScale, SPRITE_HEIGHT * pixelScale);
         }
 
         // 2. 바지 렌더링 (몸체 위에) - 프레임별 오프셋 적용
         if (pantsFrame != null) {
-            g2d.drawImage(pantsFrame, x + pantsOffsetX, y + pantsOffsetY,
-                    SPRITE_WIDTH_Pants * SCALE, SPRITE_HEIGHT_Pants * SCALE, null);
+            sink.draw(pantsFrame, x + pantsOffsetX, y + pantsOffsetY,
+                    SPRITE_WIDTH_Pants * pixelScale, SPRITE_HEIGHT_Pants * pixelScale);
         }
 
         // 3. 셔츠 렌더링 (바지 위에) - 프레임별 오프셋 적용
         if (shirtFrame != null) {
-            g2d.drawImage(shirtFrame, x + shirtOffsetX, y + shirtOffsetY,
-                    SPRITE_WIDTH_Shirt * SCALE, SPRITE_HEIGHT_Shirt * SCALE, null);
+            sink.draw(shirtFrame, x + shirtOffsetX, y + shirtOffsetY,
+                    SPRITE_WIDTH_Shirt * pixelScale, SPRITE_HEIGHT_Shirt * pixelScale);
         }
 
         // 4. 팔 렌더링 (셔츠 위에) - 프레임별 오프셋 적용
         if (armFrame != null) {
-            g2d.drawImage(armFrame, x + armOffsetX, y + armOffsetY,
-                    SPRITE_WIDTH * SCALE, SPRITE_HEIGHT * SCALE, null);
+            sink.draw(armFrame, x + armOffsetX, y + armOffsetY,
+                    SPRITE_WIDTH * pixelScale, SPRITE_HEIGHT * pixelScale);
         }
 
         // 5. 머리카락 (가장 앞) - 프레임별 오프셋 적용
         if (hairFrame != null) {
-            g2d.drawImage(hairFrame, x + hairOffsetX, y + hairOffsetY,
-                    SPRITE_WIDTH_Hair * SCALE, SPRITE_HEIGHT_Hair * SCALE, null);
+            sink.draw(hairFrame, x + hairOffsetX, y + hairOffsetY,
+                    SPRITE_WIDTH_Hair * pixelScale, SPRITE_HEIGHT_Hair * pixelScale);
         }
     }
 
@@ -0,0 +1,68 @@
+import MapLoad.TmxParser;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * 창 없이 TMX 맵을 PNG로 렌더링하는 진입점 (서버/CI, 맵 미리보기 일괄 생성용)
+ * 사용법: HeadlessRender <맵.tmx> <출력.png> [x y width height] [--native]
+ * 영역을 생략하면 맵 전체, --native면 원본 해상도(1배), 아니면 게임 화면과 같은 배율로 그린다
+ */
+public class HeadlessRender {
+
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        boolean nativeScale = java.util.Arrays.asList(args).contains("--native");
+        String[] positional = java.util.Arrays.stream(args)
+                .filter(arg -> !arg.startsWith("--"))
+                .toArray(String[]::new);
+
+        if (positional.length != 2 && positional.length != 6) {
+            System.err.println("사용법: HeadlessRender <맵.tmx> <출력.png> [x y width height] [--native]");
+            System.exit(1);
+        }
+
+        String mapPath = positional[0];
+        File output = new File(positional[1]);
+        int pixelScale = nativeScale ? 1 : TmxParser.TILE_SCALE;
+
+        TmxParser renderer = TmxParser.createHeadless();
+        Main.setupObjects(renderer);
+        Main.setupPathCustomizations(renderer);
+
+        if (!renderer.loadTMX(mapPath)) {
+            System.err.println("맵을 불러올 수 없습니다: " + mapPath);
+            System.exit(1);
+        }
+        renderer.setCurrentMapPath(mapPath);
+
+        long start = System.nanoTime();
+        BufferedImage image;
+        if (positional.length == 6) {
+            image = renderer.renderRegion(Integer.parseInt(positional[2]), Integer.parseInt(positional[3]),
+                    Integer.parseInt(positional[4]), Integer.parseInt(positional[5]), pixelScale);
+        } else {
+            image = renderer.renderWholeMap(pixelScale);
+        }
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        if (image == null) {
+            System.err.println("렌더링 실패: " + mapPath);
+            System.exit(1);
+        }
+
+        try {
+            ImageIO.write(image, "png", output);
+        } catch (IOException e) {
+            System.err.println("PNG 저장 실패: " + output + " - " + e.getMessage());
+            System.exit(1);
+        }
+
+        System.out.printf("%s -> %s (%dx%d, %.1f ms)%n", Main.extractMapName(mapPath), output.getPath(),
+                image.getWidth(), image.getHeight(), elapsedMillis);
+        System.exit(0);
+    }
+}
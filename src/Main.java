@@ -6,9 +6,49 @@ import javax.swing.*;
 public class Main {
 
     public static void main(String[] args) {
+        // --active: 전용 렌더링 스레드 + BufferStrategy 사용
+        boolean activeRendering = java.util.Arrays.asList(args).contains("--active");
+        // --native: 원본 해상도 프레임버퍼에 그린 뒤 한 번만 확대 (창 크기 조절, F11 전체화면)
+        boolean nativeResolution = java.util.Arrays.asList(args).contains("--native");
+        // --software: Java2D 대신 int[] 프레임버퍼 병렬 소프트웨어 렌더러 (실행 중 F9로 전환)
+        boolean softwareRendering = java.util.Arrays.asList(args).contains("--software");
+        // --profile-csv <파일>: 단계별 프레임 시간을 CSV로 기록 (실행 중 F8로도 시작/중지)
+        int profileArgIndex = java.util.Arrays.asList(args).indexOf("--profile-csv");
+        String profileCsvPath = profileArgIndex >= 0 && profileArgIndex + 1 < args.length ? args[profileArgIndex + 1] : null;
+        // --grass-cache <폴더>: 맵별 풀잎 배치를 저장해 두고 다음 실행부터 생성 없이 읽음
+        int grassCacheArgIndex = java.util.Arrays.asList(args).indexOf("--grass-cache");
+        String grassCachePath = grassCacheArgIndex >= 0 && grassCacheArgIndex + 1 < args.length ? args[grassCacheArgIndex + 1] : null;
+        // --map-cache <폴더>: 맵을 이진 형식(.tmxb)으로 컴파일해 두고 원본이 바뀌지 않았으면 XML 파싱 없이 읽음
+        int mapCacheArgIndex = java.util.Arrays.asList(args).indexOf("--map-cache");
+        String mapCachePath = mapCacheArgIndex >= 0 && mapCacheArgIndex + 1 < args.length ? args[mapCacheArgIndex + 1] : null;
+        // --preload-images: resource/의 PNG를 시작할 때 모두 디코딩 (기본은 처음 쓸 때 디코딩)
+        boolean preloadImages = java.util.Arrays.asList(args).contains("--preload-images");
+        // --blit-report: 첫 프레임 뒤 이미지 형식 변환 전/후 타일 복사 속도를 측정해 출력
+        boolean blitReport = java.util.Arrays.asList(args).contains("--blit-report");
+        // --scroll-blit: 카메라가 움직일 때 정적 레이어를 지난 프레임에서 밀어 재사용 (VolatileImage + copyArea)
+        boolean scrollBlit = java.util.Arrays.asList(args).contains("--scroll-blit");
+
         SwingUtilities.invokeLater(() -> {
             // TMX 파서 생성
-            TmxParser viewer = new TmxParser();
+            TmxParser viewer = new TmxParser(activeRendering);
+            if (preloadImages) {
+                viewer.preloadAllImages();
+            }
+            viewer.setNativeResolutionEnabled(nativeResolution);
+            viewer.setBlitReportEnabled(blitReport);
+            viewer.setScrollBlitEnabled(scrollBlit);
+            if (softwareRendering) {
+                viewer.setSoftwareRenderingEnabled(true);
+            }
+            if (profileCsvPath != null) {
+                viewer.setProfileCsvFile(new java.io.File(profileCsvPath));
+            }
+            if (grassCachePath != null) {
+                viewer.setGrassBakeDirectory(new java.io.File(grassCachePath));
+            }
+            if (mapCachePath != null) {
+                viewer.setMapCacheDirectory(new java.io.File(mapCachePath));
+            }
 
             // 모든 맵의 이미지를 미리 캐싱
             String[] mapPaths = {
@@ -42,7 +82,7 @@ public class Main {
         });
     }
 
-    private static void setupPathCustomizations(TmxParser viewer) {
+    static void setupPathCustomizations(TmxParser viewer) {
         viewer.printPathLayerGids();
         //Grass
         viewer.addPathTileCustomization(87, "resource/TerrainFeatures/grass.png",
@@ -64,13 +104,13 @@ public class Main {
 
         //Big Tree Stump
         viewer.addPathTileCustomization(86,"resource/Maps/springobjects.png",
-                156, 32, 32, RenderMode.ORIGINAL_SIZE,0,0,-16, false);
+                156, 32, 32, RenderMode.ORIGINAL_SIZE,0,0,-16, false, true);
         //Big Tree
         viewer.addPathTileCustomization(84,"resource/Maps/springobjects.png",
                 157, 32, 32, RenderMode.ORIGINAL_SIZE,0,0,-16, false);
         //Big Stone
         viewer.addPathTileCustomization(85,"resource/Maps/springobjects.png",
-               168, 32, 32, RenderMode.ORIGINAL_SIZE,0,0,0, false);
+               168, 32, 32, RenderMode.ORIGINAL_SIZE,0,0,0, false, true);
 
 
         viewer.addTreeTileCustomization(91, "resource/TerrainFeatures/tree1_spring.png",
@@ -85,7 +125,7 @@ public class Main {
         System.out.println("Path 타일 커스터마이징 설정 완료");
     }
 
-    private static void setupObjects(TmxParser viewer) {
+    static void setupObjects(TmxParser viewer) {
         viewer.addObjectAtPosition(58, 16, "resource/Buildings/houses.png",
                 0, 272, 144, RenderMode.ORIGINAL_SIZE, 0, 0, 0);
         viewer.addObjectAtPosition(68, 16, "resource/Buildings/Mailbox.png",
@@ -118,7 +158,7 @@ public class Main {
     /**
      * 파일 경로에서 맵 이름 추출
      */
-    private static String extractMapName(String filePath) {
+    static String extractMapName(String filePath) {
         String fileName = filePath.substring(filePath.lastIndexOf('/') + 1);
         if (fileName.contains(".")) {
             fileName = fileName.substring(0, fileName.lastIndexOf('.'));
@@ -0,0 +1,131 @@
+package MapLoad;
+
+import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * javax.swing.Timer + repaint() 대신 전용 스레드에서 직접 그리는 능동 렌더링 루프.
+ * 게임 로직은 고정 시간 간격(fixed timestep)으로 갱신하고, 렌더링은 Canvas의 BufferStrategy로 페이지 플립하며
+ * 두 시뮬레이션 상태 사이를 보간 비율(alpha)로 넘겨준다.
+ */
+class ActiveRenderLoop implements Runnable {
+    private static final long MAX_FRAME_NANOS = 250_000_000L;   // 디버거 정지 등으로 밀린 시간 상한
+    private static final long STOP_TIMEOUT_MILLIS = 500;
+
+    /// 루프가 호출하는 콜백 - 갱신과 렌더링 모두 루프 스레드에서 실행된다
+    interface Callbacks {
+        void update();
+        void render(Graphics2D g2d, double alpha);
+    }
+
+    private final Canvas canvas;
+    private final Callbacks callbacks;
+    private final long updateIntervalNanos;
+    private final long renderIntervalNanos;
+    private volatile boolean running = false;
+    private Thread thread;
+    private int failureCount = 0;
+
+    ActiveRenderLoop(Canvas canvas, Callbacks callbacks, int updatesPerSecond) {
+        this.canvas = canvas;
+        this.callbacks = callbacks;
+        this.updateIntervalNanos = 1_000_000_000L / updatesPerSecond;
+        this.renderIntervalNanos = 1_000_000_000L / detectRefreshRate(updatesPerSecond);
+    }
+
+    // 모니터 주사율에 맞춰 렌더링 (알 수 없으면 업데이트 주기와 동일)
+    private static int detectRefreshRate(int fallback) {
+        try {
+            int refreshRate = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+            return refreshRate > 0 ? refreshRate : fallback;
+        } catch (Exception e) {
+            return fallback;
+        }
+    }
+
+    /// Canvas가 화면에 표시된 뒤 호출해야 한다 (BufferStrategy 생성 조건)
+    void start() {
+        if (running) return;
+        canvas.createBufferStrategy(2);
+        running = true;
+        thread = new Thread(this, "active-render-loop");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /// 루프를 멈추고 그리던 프레임이 끝날 때까지 기다린다 (창이 닫히기 전에 호출 - 닫힌 Canvas에 그리지 않도록)
+    void stop() {
+        running = false;
+        Thread loopThread = thread;
+        if (loopThread == null || loopThread == Thread.currentThread()) return;
+        try {
+            loopThread.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        long previous = System.nanoTime();
+        long accumulator = 0;
+        long nextRender = previous;
+
+        while (running) {
+            long now = System.nanoTime();
+            accumulator += Math.min(now - previous, MAX_FRAME_NANOS);
+            previous = now;
+
+            // 한 프레임의 예외로 루프 스레드가 죽으면 창이 멈추므로, 기록만 하고 다음 프레임을 계속 돈다
+            try {
+                while (accumulator >= updateIntervalNanos) {
+                    accumulator -= updateIntervalNanos;
+                    callbacks.update();
+                }
+
+                double alpha = (double) accumulator / updateIntervalNanos;
+                renderFrame(strategy, alpha);
+            } catch (RuntimeException e) {
+                reportFailure(e);
+            }
+
+            nextRender += renderIntervalNanos;
+            long sleep = nextRender - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(sleep);
+            } else {
+                nextRender = System.nanoTime();     // 밀렸으면 기준 시각을 다시 잡는다
+            }
+        }
+    }
+
+    // 같은 예외가 매 프레임 반복될 수 있으므로 스택 트레이스는 처음 한 번만 출력한다
+    private void reportFailure(RuntimeException e) {
+        failureCount++;
+        if (failureCount == 1) {
+            System.err.println("능동 렌더링 루프에서 예외 발생 (루프는 계속 실행):");
+            e.printStackTrace();
+        } else if (Integer.bitCount(failureCount) == 1) {
+            System.err.println("능동 렌더링 루프 예외 " + failureCount + "회째: " + e);
+        }
+    }
+
+    private void renderFrame(BufferStrategy strategy, double alpha) {
+        do {
+            do {
+                Graphics2D g2d = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    callbacks.render(g2d, alpha);
+                } finally {
+                    g2d.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+
+        Toolkit.getDefaultToolkit().sync();
+    }
+}
@@ -0,0 +1,145 @@
+package MapLoad;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.RasterFormatException;
+import java.awt.image.VolatileImage;
+
+/**
+ * ImageIO가 돌려주는 이미지(TYPE_4BYTE_ABGR, 인덱스 PNG 등)를 화면 GraphicsConfiguration과 같은 형식으로 바꾸는 유틸리티.
+ * 화면과 픽셀 형식이 같은 이미지는 Java2D가 느린 변환 루프 없이 복사하고, VRAM에 캐싱(관리 이미지)할 수 있다.
+ * headless 환경에서는 GraphicsConfiguration이 없으므로 INT 기반 형식으로 대신한다.
+ */
+public final class CompatibleImages {
+    private static final long BENCHMARK_NANOS = 30_000_000L;
+
+    private CompatibleImages() {}
+
+    private static GraphicsConfiguration getConfiguration() {
+        if (GraphicsEnvironment.isHeadless()) return null;
+        try {
+            return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                    .getDefaultScreenDevice().getDefaultConfiguration();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /// 화면 호환 이미지 생성
+    /// @param transparency Transparency.OPAQUE / BITMASK / TRANSLUCENT
+    public static BufferedImage create(int width, int height, int transparency) {
+        GraphicsConfiguration configuration = getConfiguration();
+        if (configuration != null) {
+            return configuration.createCompatibleImage(width, height, transparency);
+        }
+        return new BufferedImage(width, height, transparency == Transparency.OPAQUE
+                ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /// 화면에서 바로 가속되는 VolatileImage 생성 (headless라 화면 설정이 없으면 null)
+    /// 내용이 언제든 사라질 수 있으므로 쓰는 쪽이 그릴 때마다 validate/contentsLost를 확인해야 한다
+    static VolatileImage createVolatile(int width, int height, int transparency) {
+        GraphicsConfiguration configuration = getConfiguration();
+        if (configuration == null) return null;
+        try {
+            return configuration.createCompatibleVolatileImage(width, height, transparency);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /// VolatileImage가 화면 설정에 맞는지 확인하고 필요하면 복구 (VolatileImage.validate 결과 그대로)
+    static int validate(VolatileImage image) {
+        GraphicsConfiguration configuration = getConfiguration();
+        return configuration == null ? VolatileImage.IMAGE_INCOMPATIBLE : image.validate(configuration);
+    }
+
+    /// 이미지 전체를 호환 형식으로 복사 (이미 호환 형식이면 그대로 반환)
+    public static BufferedImage toCompatible(BufferedImage source) {
+        if (source == null) return null;
+        return copyRegion(source, 0, 0, source.getWidth(), source.getHeight(), true);
+    }
+
+    /// 이미지의 일부를 독립된 호환 이미지로 복사 (getSubimage 뷰와 달리 원본 래스터를 공유하지 않음)
+    public static BufferedImage copyRegion(BufferedImage source, int x, int y, int width, int height) {
+        return copyRegion(source, x, y, width, height, false);
+    }
+
+    private static BufferedImage copyRegion(BufferedImage source, int x, int y, int width, int height,
+                                            boolean reuseIfCompatible) {
+        if (x < 0 || y < 0 || width <= 0 || height <= 0
+                || x + width > source.getWidth() || y + height > source.getHeight()) {
+            throw new RasterFormatException("영역이 이미지 범위를 벗어남: (" + x + "," + y + "," + width + "x" + height
+                    + ") / " + source.getWidth() + "x" + source.getHeight());
+        }
+        int transparency = detectTransparency(source, x, y, width, height);
+
+        if (reuseIfCompatible && isCompatible(source, transparency)) {
+            return source;
+        }
+
+        BufferedImage compatible = create(width, height, transparency);
+        Graphics2D g2d = compatible.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.drawImage(source, 0, 0, width, height, x, y, x + width, y + height, null);
+        g2d.dispose();
+        return compatible;
+    }
+
+    private static boolean isCompatible(BufferedImage image, int transparency) {
+        GraphicsConfiguration configuration = getConfiguration();
+        if (configuration == null) {
+            int expectedType = transparency == Transparency.OPAQUE
+                    ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB_PRE;
+            return image.getType() == expectedType;
+        }
+        return image.getColorModel().equals(configuration.getColorModel(transparency));
+    }
+
+    /// 실제 알파 값을 보고 필요한 투명도 종류 결정 (반투명 픽셀이 있으면 TRANSLUCENT, 0/255만 있으면 BITMASK)
+    public static int detectTransparency(BufferedImage image, int x, int y, int width, int height) {
+        if (!image.getColorModel().hasAlpha()) return Transparency.OPAQUE;
+
+        int[] row = new int[width];
+        boolean hasTransparentPixel = false;
+        for (int rowY = y; rowY < y + height; rowY++) {
+            image.getRGB(x, rowY, width, 1, row, 0, width);
+            for (int argb : row) {
+                int alpha = argb >>> 24;
+                if (alpha == 0) {
+                    hasTransparentPixel = true;
+                } else if (alpha != 255) {
+                    return Transparency.TRANSLUCENT;
+                }
+            }
+        }
+        return hasTransparentPixel ? Transparency.BITMASK : Transparency.OPAQUE;
+    }
+
+    /// 16x16 타일 단위 복사를 일정 시간 반복해 1ms당 복사 횟수 측정 (변환 전후 비교용)
+    public static double measureBlitThroughput(BufferedImage source) {
+        if (source == null || source.getWidth() < 16 || source.getHeight() < 16) return 0;
+
+        BufferedImage target = create(256, 256, Transparency.TRANSLUCENT);
+        Graphics2D g2d = target.createGraphics();
+        int columns = source.getWidth() / 16;
+        int rows = source.getHeight() / 16;
+
+        long blits = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            for (int i = 0; i < 256; i++, blits++) {
+                int sx = (int) (blits % columns) * 16;
+                int sy = (int) ((blits / columns) % rows) * 16;
+                int dx = (i % 16) * 16;
+                int dy = (i / 16) * 16;
+                g2d.drawImage(source, dx, dy, dx + 16, dy + 16, sx, sy, sx + 16, sy + 16, null);
+            }
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < BENCHMARK_NANOS);
+
+        g2d.dispose();
+        return blits / (elapsed / 1_000_000.0);
+    }
+}
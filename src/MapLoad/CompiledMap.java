@@ -0,0 +1,309 @@
+package MapLoad;
+
+import MapLoad.TmxParser.Layer;
+import MapLoad.TmxParser.Tileset;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * TmxReader가 읽은 맵(크기, 타일셋, 애니메이션, 레이어)을 그대로 담는 이진 파일 (.tmxb).
+ * 모든 값은 4바이트 정렬된 리틀 엔디언 int이고 (문자열은 길이 + UTF-8 + 패딩), 레이어 GID는 셀 순서대로 붙어 있어
+ * FileChannel.map으로 연 버퍼의 IntBuffer 뷰에서 배열 하나로 바로 복사된다 - XML 파싱이나 값별 디코딩이 없다.
+ * 헤더에 원본 .tmx의 크기/수정 시각/CRC32를 넣어 두고, 크기와 시각이 다르면 CRC로 다시 확인해 내용이 바뀐 경우만 버린다.
+ * 타일 속성과 오브젝트 레이어는 게임에서 쓰지 않으므로 TmxReader와 마찬가지로 담지 않는다 (필요해지면 FORMAT_VERSION을 올려 추가).
+ */
+final class CompiledMap {
+    static final String EXTENSION = ".tmxb";
+    private static final int MAGIC = 0x42584D54;           // "TMXB" (리틀 엔디언)
+    private static final int FORMAT_VERSION = 1;
+    private static final int NO_STRING = -1;
+    private static final int NO_DATA = -1;
+    private static final int HEADER_BYTES = 28;            // MAGIC, 버전, 원본 크기/수정 시각/CRC
+
+    private CompiledMap() {}
+
+    /// 원본이 바뀌지 않았으면 컴파일된 맵을 읽고, 없거나 오래됐거나 형식이 다르면 null
+    /// 헤더는 매핑 없이 일반 읽기로 확인하고, 최신일 때만 본문을 매핑한다 - Windows에서는 매핑이 GC될 때까지
+    /// 파일을 바꿔치기할 수 없으므로 (write의 Files.move가 실패) 다시 쓰게 될 오래된 파일은 매핑하지 않는다
+    static TmxReader read(File compiledFile, File sourceFile) {
+        if (!compiledFile.isFile() || !sourceFile.isFile()) return null;
+
+        try (FileChannel channel = FileChannel.open(compiledFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (channel.read(header) < 0) break;
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) return null;
+
+            long sourceLength = header.getLong();
+            long sourceModified = header.getLong();
+            int sourceCrc = header.getInt();
+            if (!isCurrent(sourceFile, sourceLength, sourceModified, sourceCrc)) return null;
+
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, channel.size() - HEADER_BYTES);
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+
+            TmxReader map = new TmxReader();
+            map.mapWidth = mapped.getInt();
+            map.mapHeight = mapped.getInt();
+            map.tileWidth = mapped.getInt();
+            map.tileHeight = mapped.getInt();
+
+            int tilesetCount = mapped.getInt();
+            for (int i = 0; i < tilesetCount; i++) {
+                map.tilesets.add(readTileset(mapped));
+            }
+            int layerCount = mapped.getInt();
+            for (int i = 0; i < layerCount; i++) {
+                map.layers.add(readLayer(mapped));
+            }
+            return map;
+        } catch (IOException | RuntimeException e) {
+            // 잘린 파일 등 - 원본 TMX로 다시 만든다
+            System.err.println("컴파일된 맵을 읽을 수 없습니다: " + compiledFile + " - " + e);
+            return null;
+        }
+    }
+
+    // 크기와 수정 시각이 같으면 그대로, 다르면 (복사/체크아웃으로 시각만 바뀐 경우를 위해) 내용 CRC로 확인
+    private static boolean isCurrent(File sourceFile, long length, long modified, int crc) throws IOException {
+        if (sourceFile.length() == length && sourceFile.lastModified() == modified) return true;
+        return sourceFile.length() == length && crcOf(sourceFile) == crc;
+    }
+
+    private static Tileset readTileset(ByteBuffer buffer) throws IOException {
+        Tileset tileset = new Tileset();
+        tileset.firstGid = buffer.getInt();
+        tileset.tileWidth = buffer.getInt();
+        tileset.tileHeight = buffer.getInt();
+        tileset.tileCount = buffer.getInt();
+        tileset.columns = buffer.getInt();
+        tileset.name = readString(buffer);
+        tileset.imagePath = readString(buffer);
+        tileset.tiles = new BufferedImage[tileset.tileCount];
+
+        int animationCount = buffer.getInt();
+        for (int i = 0; i < animationCount; i++) {
+            int gid = buffer.getInt();
+            int frameCount = buffer.getInt();
+            // 저장할 때는 프레임이 하나 이상이고 시간도 1ms 이상이므로, 아니면 깨진 파일 (TileAnimation이 0으로 나누지 않도록)
+            if (frameCount <= 0 || frameCount > buffer.remaining() / (Integer.BYTES * 2)) {
+                throw new IOException("애니메이션 프레임 수가 잘못됨: GID " + gid + ", " + frameCount);
+            }
+            int[] frameGids = readInts(buffer, frameCount);
+            int[] durations = readInts(buffer, frameCount);
+            long totalDuration = 0;
+            for (int duration : durations) {
+                if (duration <= 0) throw new IOException("애니메이션 프레임 시간이 잘못됨: GID " + gid + ", " + duration);
+                totalDuration += duration;
+            }
+            if (totalDuration > Integer.MAX_VALUE) {
+                throw new IOException("애니메이션 길이가 너무 김: GID " + gid + ", " + totalDuration);
+            }
+            tileset.animations.add(new TileAnimation(gid, frameGids, durations));
+        }
+        return tileset;
+    }
+
+    private static Layer readLayer(ByteBuffer buffer) {
+        Layer layer = new Layer();
+        layer.name = readString(buffer);
+        layer.width = buffer.getInt();
+        layer.height = buffer.getInt();
+        layer.visible = buffer.getInt() != 0;
+        int dataLength = buffer.getInt();
+        layer.data = dataLength == NO_DATA ? null : readInts(buffer, dataLength);
+        return layer;
+    }
+
+    // IntBuffer 뷰에서 한 번에 복사 (버퍼 위치는 읽은 만큼 넘긴다)
+    private static int[] readInts(ByteBuffer buffer, int count) {
+        int[] values = new int[count];
+        IntBuffer view = buffer.asIntBuffer();
+        view.get(values);
+        buffer.position(buffer.position() + count * Integer.BYTES);
+        return values;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NO_STRING) return null;
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        buffer.position(buffer.position() + padding(length));
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /// 임시 파일에 쓴 뒤 바꿔치기 - 쓰는 도중에 종료돼도 반쯤 쓴 파일을 읽지 않는다
+    /// 임시 파일 이름은 쓸 때마다 새로 만들어서, 미리 불러오기와 게임 스레드가 같은 맵을 동시에 저장해도 서로 덮어쓰지 않는다
+    static boolean write(File compiledFile, File sourceFile, TmxReader map) {
+        File parent = compiledFile.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            System.err.println("컴파일된 맵 저장 폴더를 만들 수 없습니다: " + parent);
+            return false;
+        }
+
+        Path temporary = null;
+        try {
+            ByteBuffer buffer = encode(map, sourceFile);
+            temporary = Files.createTempFile(parent.toPath(), compiledFile.getName(), ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            try {
+                Files.move(temporary, compiledFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, compiledFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("컴파일된 맵 저장 실패: " + compiledFile + " - " + e.getMessage());
+            if (temporary != null) temporary.toFile().delete();
+            return false;
+        }
+    }
+
+    private static ByteBuffer encode(TmxReader map, File sourceFile) throws IOException {
+        // 원본 정보는 인코딩 직전에 읽는다 (읽은 뒤 원본이 바뀌면 다음 번에 오래된 파일로 판정)
+        long sourceLength = sourceFile.length();
+        long sourceModified = sourceFile.lastModified();
+        int sourceCrc = crcOf(sourceFile);
+
+        Encoder out = new Encoder(64 * 1024);
+        out.putInt(MAGIC);
+        out.putInt(FORMAT_VERSION);
+        out.putLong(sourceLength);
+        out.putLong(sourceModified);
+        out.putInt(sourceCrc);
+        out.putInt(map.mapWidth);
+        out.putInt(map.mapHeight);
+        out.putInt(map.tileWidth);
+        out.putInt(map.tileHeight);
+
+        out.putInt(map.tilesets.size());
+        for (Tileset tileset : map.tilesets) {
+            out.putInt(tileset.firstGid);
+            out.putInt(tileset.tileWidth);
+            out.putInt(tileset.tileHeight);
+            out.putInt(tileset.tileCount);
+            out.putInt(tileset.columns);
+            out.putString(tileset.name);
+            out.putString(tileset.imagePath);
+
+            out.putInt(tileset.animations.size());
+            for (TileAnimation animation : tileset.animations) {
+                int frameCount = animation.frameGids.length;
+                out.putInt(animation.gid);
+                out.putInt(frameCount);
+                out.putInts(animation.frameGids, frameCount);
+                // 누적 종료 시각 -> 프레임별 시간
+                for (int i = 0; i < frameCount; i++) {
+                    out.putInt(animation.frameEnds[i] - (i == 0 ? 0 : animation.frameEnds[i - 1]));
+                }
+            }
+        }
+
+        out.putInt(map.layers.size());
+        for (Layer layer : map.layers) {
+            out.putString(layer.name);
+            out.putInt(layer.width);
+            out.putInt(layer.height);
+            out.putInt(layer.visible ? 1 : 0);
+            if (layer.data == null) {
+                out.putInt(NO_DATA);
+            } else {
+                out.putInt(layer.data.length);
+                out.putInts(layer.data, layer.data.length);
+            }
+        }
+        return out.finish();
+    }
+
+    private static int crcOf(File file) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[64 * 1024];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(chunk)) > 0) {
+                crc.update(chunk, 0, read);
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    private static int padding(int length) {
+        return (Integer.BYTES - length % Integer.BYTES) % Integer.BYTES;
+    }
+
+    // 필요한 만큼 늘어나는 리틀 엔디언 버퍼
+    private static final class Encoder {
+        private ByteBuffer buffer;
+
+        Encoder(int initialCapacity) {
+            buffer = ByteBuffer.allocate(initialCapacity).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() >= bytes) return;
+            int capacity = Math.max(buffer.capacity() * 2, buffer.position() + bytes);
+            ByteBuffer grown = ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+
+        void putInt(int value) {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putInts(int[] values, int count) {
+            ensure(count * Integer.BYTES);
+            buffer.asIntBuffer().put(values, 0, count);
+            buffer.position(buffer.position() + count * Integer.BYTES);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putInt(NO_STRING);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensure(bytes.length + padding(bytes.length));
+            buffer.put(bytes);
+            buffer.position(buffer.position() + padding(bytes.length));
+        }
+
+        ByteBuffer finish() {
+            buffer.flip();
+            return buffer;
+        }
+    }
+}
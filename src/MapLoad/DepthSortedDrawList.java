@@ -0,0 +1,131 @@
+package MapLoad;
+
+import java.util.Arrays;
+
+/**
+ * 한 프레임 동안 앞뒤가 바뀔 수 있는 항목(플레이어, 배치 오브젝트, 나무/그루터기처럼 셀 밖으로 큰 타일)을
+ * 발 위치(화면 Y)로 정렬해 그리기 위한 목록.
+ * 항목은 원시 배열에 병렬로 쌓고, 정렬 키는 (발 Y << 32 | 추가 순서) long 하나라서
+ * 프레임마다 객체/박싱 할당 없이 정렬한다. 발 Y가 같으면 먼저 추가한 항목을 먼저 그린다.
+ * 배열은 용량이 모자랄 때만 늘어나고 clear()로 재사용한다.
+ */
+class DepthSortedDrawList {
+    static final byte CELL = 0;         /// 커스터마이징 타일 (id: gid, tileX/tileY: 셀 좌표)
+    static final byte OBJECT = 1;       /// 배치 오브젝트 (id: positionedObjects 인덱스)
+    static final byte PLAYER = 2;
+
+    // 이보다 적으면 삽입 정렬, 많으면 기수 정렬
+    private static final int INSERTION_SORT_LIMIT = 32;
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX_BUCKETS = 1 << RADIX_BITS;
+
+    private byte[] kinds = new byte[64];
+    private int[] ids = new int[64];
+    private int[] tileXs = new int[64];
+    private int[] tileYs = new int[64];
+    private int[] screenXs = new int[64];
+    private int[] screenYs = new int[64];
+    private long[] keys = new long[64];
+    private long[] scratch = new long[64];
+    private final int[] bucketCounts = new int[RADIX_BUCKETS];
+    private int size = 0;
+
+    void clear() {
+        size = 0;
+    }
+
+    void add(int footY, byte kind, int id, int tileX, int tileY, int screenX, int screenY) {
+        if (size == kinds.length) {
+            grow();
+        }
+        kinds[size] = kind;
+        ids[size] = id;
+        tileXs[size] = tileX;
+        tileYs[size] = tileY;
+        screenXs[size] = screenX;
+        screenYs[size] = screenY;
+        // 부호 비트를 뒤집어 음수 Y(화면 위쪽 밖)도 부호 없는 비교에서 순서가 유지되게 한다
+        keys[size] = ((long) (footY ^ Integer.MIN_VALUE) << 32) | size;
+        size++;
+    }
+
+    /// 발 Y 오름차순 정렬 - 이후 i번째로 그릴 항목은 entry(i)
+    void sort() {
+        if (size <= INSERTION_SORT_LIMIT) {
+            insertionSort();
+        } else {
+            radixSort();
+        }
+    }
+
+    private void insertionSort() {
+        for (int i = 1; i < size; i++) {
+            long key = keys[i];
+            int j = i - 1;
+            // 키 상위 32비트가 부호 없는 값이므로 부호 없는 비교
+            while (j >= 0 && Long.compareUnsigned(keys[j], key) > 0) {
+                keys[j + 1] = keys[j];
+                j--;
+            }
+            keys[j + 1] = key;
+        }
+    }
+
+    // 상위 32비트(발 Y)만 8비트씩 LSD 기수 정렬 - 안정 정렬이라 추가 순서(하위 32비트)가 그대로 유지된다
+    private void radixSort() {
+        long[] source = keys;
+        long[] target = scratch;
+
+        for (int shift = 32; shift < 64; shift += RADIX_BITS) {
+            Arrays.fill(bucketCounts, 0);
+            for (int i = 0; i < size; i++) {
+                bucketCounts[(int) (source[i] >>> shift) & (RADIX_BUCKETS - 1)]++;
+            }
+            // 모든 키가 같은 자리값이면 이 자리는 건너뜀 (대부분 화면 높이가 작아 상위 자리는 전부 같다)
+            if (bucketCounts[(int) (source[0] >>> shift) & (RADIX_BUCKETS - 1)] == size) continue;
+
+            int offset = 0;
+            for (int bucket = 0; bucket < RADIX_BUCKETS; bucket++) {
+                int count = bucketCounts[bucket];
+                bucketCounts[bucket] = offset;
+                offset += count;
+            }
+            for (int i = 0; i < size; i++) {
+                long key = source[i];
+                target[bucketCounts[(int) (key >>> shift) & (RADIX_BUCKETS - 1)]++] = key;
+            }
+
+            long[] swap = source;
+            source = target;
+            target = swap;
+        }
+
+        if (source != keys) {
+            System.arraycopy(source, 0, keys, 0, size);
+        }
+    }
+
+    private void grow() {
+        int capacity = kinds.length * 2;
+        kinds = Arrays.copyOf(kinds, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        tileXs = Arrays.copyOf(tileXs, capacity);
+        tileYs = Arrays.copyOf(tileYs, capacity);
+        screenXs = Arrays.copyOf(screenXs, capacity);
+        screenYs = Arrays.copyOf(screenYs, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        scratch = new long[capacity];
+    }
+
+    int size() { return size; }
+
+    /// 정렬 후 order번째로 그릴 항목의 내부 인덱스
+    int entry(int order) { return (int) keys[order]; }
+
+    byte kind(int entry) { return kinds[entry]; }
+    int id(int entry) { return ids[entry]; }
+    int tileX(int entry) { return tileXs[entry]; }
+    int tileY(int entry) { return tileYs[entry]; }
+    int screenX(int entry) { return screenXs[entry]; }
+    int screenY(int entry) { return screenYs[entry]; }
+}
@@ -0,0 +1,149 @@
+package MapLoad;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 프레임 시간을 단계(이동 갱신, 뒤 레이어, 오브젝트, 플레이어, 앞 레이어, 잔디, HUD)별로 측정하는 프로파일러.
+ * 최근 WINDOW_FRAMES 프레임의 단계별 시간을 링 버퍼에 보관하고, 오버레이용 p50/p95/p99/max를 계산한다.
+ * 잔디는 뒤/앞 레이어를 그리는 중에 호출되므로 레이어 시간에 포함된 하위 단계다.
+ * 오브젝트 단계는 발 Y로 정렬해 그리는 목록 전체(배치 오브젝트, 나무/그루터기 등 큰 타일)이고, 그 안의 플레이어 시간은 빠진다.
+ * 렌더링 스레드(EDT 또는 능동 렌더링 루프) 하나에서만 호출해야 한다.
+ */
+class FrameProfiler {
+    static final int UPDATE = 0;
+    static final int BACK_LAYERS = 1;
+    static final int OBJECTS = 2;
+    static final int PLAYER = 3;
+    static final int FRONT_LAYERS = 4;
+    static final int GRASS = 5;
+    static final int HUD = 6;
+    static final int PHASE_COUNT = 7;
+
+    static final String[] PHASE_NAMES = {"update", "back", "objects", "player", "front", "grass", "hud"};
+
+    private static final int WINDOW_FRAMES = 300;            // 60fps 기준 약 5초
+    private static final int STATS_REFRESH_FRAMES = 30;      // 백분위는 30프레임마다 다시 계산
+
+    private final long[][] samples = new long[PHASE_COUNT][WINDOW_FRAMES];
+    private final long[] frameTotals = new long[PHASE_COUNT];
+    private final long[] phaseStarts = new long[PHASE_COUNT];
+    private final long[] sortBuffer = new long[WINDOW_FRAMES];
+
+    // [단계][p50, p95, p99, max] (나노초)
+    private final long[][] stats = new long[PHASE_COUNT][4];
+
+    private int statsVersion = 0;       /// 백분위를 다시 계산할 때마다 증가 (HUD 갱신 판단용)
+    private int sampleCount = 0;
+    private int writeIndex = 0;
+    private long frameNumber = 0;
+
+    private BufferedWriter csvWriter;
+    private File csvFile;
+
+    void begin(int phase) {
+        phaseStarts[phase] = System.nanoTime();
+    }
+
+    void end(int phase) {
+        frameTotals[phase] += System.nanoTime() - phaseStarts[phase];
+    }
+
+    /// 한 프레임의 단계별 누적 시간을 기록하고 다음 프레임을 위해 비운다
+    void endFrame() {
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            samples[phase][writeIndex] = frameTotals[phase];
+        }
+        writeIndex = (writeIndex + 1) % WINDOW_FRAMES;
+        sampleCount = Math.min(sampleCount + 1, WINDOW_FRAMES);
+        frameNumber++;
+
+        if (csvWriter != null) {
+            writeCsvRow();
+        }
+        Arrays.fill(frameTotals, 0);
+
+        if (frameNumber % STATS_REFRESH_FRAMES == 0) {
+            refreshStats();
+        }
+    }
+
+    private void refreshStats() {
+        for (int phase = 0; phase < PHASE_COUNT; phase++) {
+            System.arraycopy(samples[phase], 0, sortBuffer, 0, sampleCount);
+            Arrays.sort(sortBuffer, 0, sampleCount);
+            stats[phase][0] = percentile(0.50);
+            stats[phase][1] = percentile(0.95);
+            stats[phase][2] = percentile(0.99);
+            stats[phase][3] = sampleCount == 0 ? 0 : sortBuffer[sampleCount - 1];
+        }
+        statsVersion++;
+    }
+
+    // 정렬된 sortBuffer에서 nearest-rank 백분위
+    private long percentile(double fraction) {
+        if (sampleCount == 0) return 0;
+        int rank = (int) Math.ceil(fraction * sampleCount) - 1;
+        return sortBuffer[Math.max(0, Math.min(sampleCount - 1, rank))];
+    }
+
+    /// CSV 기록 시작 - 프레임마다 단계별 시간(마이크로초) 한 줄
+    boolean startCsv(File file) {
+        stopCsv();
+        try {
+            csvWriter = new BufferedWriter(new FileWriter(file));
+            csvWriter.write("frame");
+            for (String name : PHASE_NAMES) {
+                csvWriter.write("," + name + "_us");
+            }
+            csvWriter.newLine();
+            csvFile = file;
+            return true;
+        } catch (IOException e) {
+            System.err.println("프로파일 CSV를 열 수 없습니다: " + file + " - " + e.getMessage());
+            csvWriter = null;
+            return false;
+        }
+    }
+
+    void stopCsv() {
+        if (csvWriter == null) return;
+        try {
+            csvWriter.close();
+            System.out.println("프로파일 CSV 저장 완료: " + csvFile.getAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("프로파일 CSV 저장 실패: " + e.getMessage());
+        }
+        csvWriter = null;
+        csvFile = null;
+    }
+
+    private void writeCsvRow() {
+        try {
+            StringBuilder row = new StringBuilder(64);
+            row.append(frameNumber);
+            for (int phase = 0; phase < PHASE_COUNT; phase++) {
+                row.append(',').append(frameTotals[phase] / 1_000);
+            }
+            csvWriter.write(row.toString());
+            csvWriter.newLine();
+            if (frameNumber % STATS_REFRESH_FRAMES == 0) {
+                csvWriter.flush();      // 창을 닫아 바로 종료돼도 대부분의 기록이 남도록
+            }
+        } catch (IOException e) {
+            System.err.println("프로파일 CSV 기록 실패: " + e.getMessage());
+            stopCsv();
+        }
+    }
+
+    boolean isCsvRecording() { return csvWriter != null; }
+    int getStatsVersion() { return statsVersion; }
+
+    /// @param statIndex 0: p50, 1: p95, 2: p99, 3: max
+    double getMillis(int phase, int statIndex) {
+        return stats[phase][statIndex] / 1_000_000.0;
+    }
+}
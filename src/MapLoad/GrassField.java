@@ -0,0 +1,470 @@
+package MapLoad;
+
+import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * 맵 전체의 풀잎 배치 (타일마다 x, y, 종류, 흔들림 위상을 원시 배열에 그리는 순서대로 저장).
+ * 맵을 불러올 때 잔디 셀 전체를 한 번에 만든다 - 타일마다 (맵 시드, GID, 좌표)로 정해지는 난수로
+ * Bridson 방식 Poisson-disk 샘플링을 하고, 이웃 8칸에 이미 있는 풀잎과도 최소 간격을 지킨다.
+ * 짝수 행을 먼저 병렬로 만든 뒤 홀수 행을 위아래 짝수 행에 맞춰 병렬로 만들기 때문에,
+ * 스레드 수나 실행 순서와 관계없이 항상 같은 결과가 나온다.
+ * 만든 결과는 파일로 저장해 두었다가 같은 맵/시드/잔디 배치일 때 그대로 읽을 수 있다.
+ */
+class GrassField {
+    static final int MAX_BLADES_PER_TILE = 6;       // 4 + nextInt(3)
+    static final int SWAY_PHASES = 16;              /// 바람 흔들림 한 주기의 단계 수 (위상은 0 ~ SWAY_PHASES - 1)
+    private static final int SWAY_WAVE_PIXELS = 16; // 위상이 한 단계 늦어지는 가로 거리 - 바람이 왼쪽에서 오른쪽으로 지나간다
+    static final int EDGE_OVERHANG = 4;             // 풀잎은 셀 왼쪽/위쪽 경계 밖 4px까지 (TILE_SCALE 기준)
+    private static final int SAMPLE_ATTEMPTS = 30;  // Bridson k - 활성 점 하나당 후보 수
+    private static final int FILE_MAGIC = 0x47525331;     // "GRS1"
+    private static final int FILE_VERSION = 2;             // 샘플러 규칙이 바뀌면 올려서 예전 파일을 무시
+
+    // 셀 번호 = tileY * columns + tileX, starts[cell] < 0이면 풀잎을 아직 만들지 않은 셀
+    int columns = 0, rows = 0;
+    int[] starts = new int[0];
+    byte[] counts = new byte[0];
+    short[] xs = new short[0];      // TILE_SCALE 기준 셀 좌상단에서의 위치
+    short[] ys = new short[0];
+    byte[] variants = new byte[0];
+    byte[] phases = new byte[0];
+    int bladeCount = 0;
+
+    private long seed = 0;
+    private int tileWidth, tileHeight;          // 풀잎 위치를 만든 타일 크기 (TILE_SCALE 기준 픽셀)
+
+    // 한 행의 풀잎 - 병렬로 만든 뒤 행 순서대로 이어 붙인다
+    private static class RowBlades {
+        final int[] starts;
+        final byte[] counts;
+        short[] xs = new short[64], ys = new short[64];
+        byte[] variants = new byte[64], phases = new byte[64];
+        int size = 0;
+
+        RowBlades(int columns) {
+            starts = new int[columns];
+            counts = new byte[columns];
+            Arrays.fill(starts, -1);
+        }
+
+        void append(Sampler sampler, int count) {
+            if (size + count > xs.length) {
+                int capacity = Math.max(xs.length * 2, size + count);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                variants = Arrays.copyOf(variants, capacity);
+                phases = Arrays.copyOf(phases, capacity);
+            }
+            for (int i = 0; i < count; i++) {
+                int blade = sampler.order[i];
+                xs[size] = (short) sampler.bladeXs[blade];
+                ys[size] = (short) sampler.bladeYs[blade];
+                variants[size] = (byte) sampler.bladeVariants[blade];
+                phases[size] = (byte) sampler.bladePhases[blade];
+                size++;
+            }
+        }
+    }
+
+    // 샘플러 작업 공간 (스레드마다 하나)
+    private static class Sampler {
+        final int[] neighborXs = new int[8 * MAX_BLADES_PER_TILE];
+        final int[] neighborYs = new int[8 * MAX_BLADES_PER_TILE];
+        int neighborCount;
+        final int[] bladeXs = new int[MAX_BLADES_PER_TILE];
+        final int[] bladeYs = new int[MAX_BLADES_PER_TILE];
+        final int[] bladeVariants = new int[MAX_BLADES_PER_TILE];
+        final int[] bladePhases = new int[MAX_BLADES_PER_TILE];
+        final int[] order = new int[MAX_BLADES_PER_TILE];
+        final int[] active = new int[MAX_BLADES_PER_TILE];
+
+        void addNeighbors(short[] xs, short[] ys, int start, int count, int shiftX, int shiftY) {
+            for (int i = start; i < start + count; i++) {
+                neighborXs[neighborCount] = xs[i] + shiftX;
+                neighborYs[neighborCount] = ys[i] + shiftY;
+                neighborCount++;
+            }
+        }
+    }
+
+    private final Sampler lazySampler = new Sampler();
+
+    /// 비어 있는 배치로 초기화 - 이후 ensureTile로 처음 보이는 타일부터 만든다
+    void reset(int columns, int rows, int tileWidth, int tileHeight, long seed) {
+        this.columns = columns;
+        this.rows = rows;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.seed = seed;
+        starts = new int[columns * rows];
+        counts = new byte[columns * rows];
+        Arrays.fill(starts, -1);
+        bladeCount = 0;
+    }
+
+    /// 맵 전체 잔디 셀의 풀잎을 병렬로 만든다
+    /// @param grassGids 셀별 잔디 GID (0이면 잔디 아님), 길이 columns * rows
+    void bake(int[] grassGids, int columns, int rows, int tileWidth, int tileHeight, long seed) {
+        RowBlades[] rowBlades = new RowBlades[rows];
+        for (int parity = 0; parity < 2; parity++) {
+            int firstRow = parity;
+            IntStream.range(0, (rows - firstRow + 1) / 2).parallel().forEach(i -> {
+                int row = firstRow + i * 2;
+                rowBlades[row] = bakeRow(grassGids, rowBlades, row, columns, rows, tileWidth, tileHeight, seed);
+            });
+        }
+
+        reset(columns, rows, tileWidth, tileHeight, seed);
+        int total = 0;
+        for (RowBlades row : rowBlades) {
+            total += row.size;
+        }
+        xs = new short[total];
+        ys = new short[total];
+        variants = new byte[total];
+        phases = new byte[total];
+        for (int row = 0; row < rows; row++) {
+            RowBlades blades = rowBlades[row];
+            for (int column = 0; column < columns; column++) {
+                if (blades.starts[column] < 0) continue;
+                starts[row * columns + column] = bladeCount + blades.starts[column];
+                counts[row * columns + column] = blades.counts[column];
+            }
+            System.arraycopy(blades.xs, 0, xs, bladeCount, blades.size);
+            System.arraycopy(blades.ys, 0, ys, bladeCount, blades.size);
+            System.arraycopy(blades.variants, 0, variants, bladeCount, blades.size);
+            System.arraycopy(blades.phases, 0, phases, bladeCount, blades.size);
+            bladeCount += blades.size;
+        }
+    }
+
+    // 행 하나를 왼쪽부터 - 같은 행의 왼쪽 칸과, 이미 만들어진 위/아래 행(홀수 행 단계)의 이웃을 피한다
+    private static RowBlades bakeRow(int[] grassGids, RowBlades[] rowBlades, int row, int columns, int rows,
+                                     int tileWidth, int tileHeight, long seed) {
+        RowBlades blades = new RowBlades(columns);
+        rowBlades[row] = blades;        // 같은 행 왼쪽 이웃 조회용 (이 행은 이 스레드만 쓴다)
+        Sampler sampler = new Sampler();
+
+        for (int column = 0; column < columns; column++) {
+            int gid = grassGids[row * columns + column];
+            if (gid == 0) continue;
+
+            sampler.neighborCount = 0;
+            for (int dy = -1; dy <= 1; dy++) {
+                int neighborRow = row + dy;
+                if (neighborRow < 0 || neighborRow >= rows || rowBlades[neighborRow] == null) continue;
+                RowBlades neighbor = rowBlades[neighborRow];
+                for (int dx = -1; dx <= 1; dx++) {
+                    int neighborColumn = column + dx;
+                    if ((dx == 0 && dy == 0) || neighborColumn < 0 || neighborColumn >= columns) continue;
+                    if (neighbor.starts[neighborColumn] < 0) continue;
+                    sampler.addNeighbors(neighbor.xs, neighbor.ys, neighbor.starts[neighborColumn],
+                            neighbor.counts[neighborColumn], dx * tileWidth, dy * tileHeight);
+                }
+            }
+
+            int count = sampleTile(sampler, tileSeed(seed, gid, column, row), column, row, tileWidth, tileHeight);
+            blades.starts[column] = blades.size;
+            blades.counts[column] = (byte) count;
+            blades.append(sampler, count);
+        }
+        return blades;
+    }
+
+    /// 아직 만들지 않은 타일(맵을 불러온 뒤 추가된 잔디 커스터마이징 등)을 그 자리에서 만든다
+    /// @return 셀 번호
+    int ensureTile(int gid, int tileX, int tileY, int tileWidth, int tileHeight) {
+        if (tileWidth != this.tileWidth || tileHeight != this.tileHeight) {
+            reset(Math.max(columns, tileX + 1), Math.max(rows, tileY + 1), tileWidth, tileHeight, seed);
+        } else if (tileX >= columns || tileY >= rows) {
+            grow(Math.max(columns, tileX + 1), Math.max(rows, tileY + 1));
+        }
+
+        int cell = tileY * columns + tileX;
+        if (starts[cell] >= 0) return cell;
+
+        Sampler sampler = lazySampler;
+        sampler.neighborCount = 0;
+        for (int dy = -1; dy <= 1; dy++) {
+            for (int dx = -1; dx <= 1; dx++) {
+                int x = tileX + dx, y = tileY + dy;
+                if ((dx == 0 && dy == 0) || x < 0 || y < 0 || x >= columns || y >= rows) continue;
+                int neighbor = y * columns + x;
+                if (starts[neighbor] < 0) continue;
+                sampler.addNeighbors(xs, ys, starts[neighbor], counts[neighbor], dx * tileWidth, dy * tileHeight);
+            }
+        }
+
+        int count = sampleTile(sampler, tileSeed(seed, gid, tileX, tileY), tileX, tileY, tileWidth, tileHeight);
+        if (bladeCount + count > xs.length) {
+            int capacity = Math.max(Math.max(64, xs.length * 2), bladeCount + count);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            variants = Arrays.copyOf(variants, capacity);
+            phases = Arrays.copyOf(phases, capacity);
+        }
+        starts[cell] = bladeCount;
+        counts[cell] = (byte) count;
+        for (int i = 0; i < count; i++) {
+            int blade = sampler.order[i];
+            xs[bladeCount] = (short) sampler.bladeXs[blade];
+            ys[bladeCount] = (short) sampler.bladeYs[blade];
+            variants[bladeCount] = (byte) sampler.bladeVariants[blade];
+            phases[bladeCount] = (byte) sampler.bladePhases[blade];
+            bladeCount++;
+        }
+        return cell;
+    }
+
+    private void grow(int newColumns, int newRows) {
+        int[] newStarts = new int[newColumns * newRows];
+        byte[] newCounts = new byte[newColumns * newRows];
+        Arrays.fill(newStarts, -1);
+        for (int y = 0; y < rows; y++) {
+            System.arraycopy(starts, y * columns, newStarts, y * newColumns, columns);
+            System.arraycopy(counts, y * columns, newCounts, y * newColumns, columns);
+        }
+        starts = newStarts;
+        counts = newCounts;
+        columns = newColumns;
+        rows = newRows;
+    }
+
+    // (맵 시드, GID, 좌표) -> 타일 시드 (splitmix64 마무리 단계로 섞음)
+    private static long tileSeed(long seed, int gid, int tileX, int tileY) {
+        long z = seed ^ ((long) gid << 42) ^ ((long) tileY << 21) ^ tileX;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // Bridson 샘플링 - 첫 점은 영역 안 임의 위치, 이후는 활성 점 주변 [r, 2r) 고리에서 후보를 뽑는다
+    // 후보가 모두 실패한 점은 비활성화하고, 목표 개수를 채우거나 활성 점이 없으면 끝
+    // 결과는 sampler.blade*에, 그리는 순서는 sampler.order에
+    private static int sampleTile(Sampler sampler, long tileSeed, int tileX, int tileY, int tileWidth, int tileHeight) {
+        SplittableRandom random = new SplittableRandom(tileSeed);
+        int target = 4 + random.nextInt(3);
+        int minDistance = Math.min(tileWidth, tileHeight) / 4;
+        int minDistanceSquared = minDistance * minDistance;
+
+        int count = 0;
+        for (int attempt = 0; attempt < SAMPLE_ATTEMPTS && count == 0; attempt++) {
+            int x = random.nextInt(tileWidth + EDGE_OVERHANG) - EDGE_OVERHANG;
+            int y = random.nextInt(tileHeight + EDGE_OVERHANG) - EDGE_OVERHANG;
+            if (isClear(sampler, count, x, y, minDistanceSquared)) {
+                count = addBlade(sampler, count, x, y, random);
+            }
+        }
+
+        int activeCount = count;
+        if (count > 0) sampler.active[0] = 0;
+        while (count < target && activeCount > 0) {
+            int activeIndex = random.nextInt(activeCount);
+            int origin = sampler.active[activeIndex];
+            boolean placed = false;
+
+            for (int attempt = 0; attempt < SAMPLE_ATTEMPTS; attempt++) {
+                double angle = random.nextDouble() * Math.PI * 2;
+                double radius = minDistance * (1 + random.nextDouble());
+                int x = sampler.bladeXs[origin] + (int) Math.round(Math.cos(angle) * radius);
+                int y = sampler.bladeYs[origin] + (int) Math.round(Math.sin(angle) * radius);
+                if (x < -EDGE_OVERHANG || x >= tileWidth || y < -EDGE_OVERHANG || y >= tileHeight) continue;
+                if (!isClear(sampler, count, x, y, minDistanceSquared)) continue;
+
+                sampler.active[activeCount++] = count;
+                count = addBlade(sampler, count, x, y, random);
+                placed = true;
+                break;
+            }
+            if (!placed) {
+                sampler.active[activeIndex] = sampler.active[--activeCount];
+            }
+        }
+
+        // 흔들림 위상: 가로 위치로 정해지는 물결 + 풀잎마다 타일 시드에서 뽑은 0~3단계 어긋남
+        for (int i = 0; i < count; i++) {
+            int worldX = tileX * tileWidth + sampler.bladeXs[i];
+            int jitter = (int) (tileSeed >>> (i * 2)) & 3;
+            sampler.bladePhases[i] = Math.floorMod(worldX / SWAY_WAVE_PIXELS + jitter, SWAY_PHASES);
+        }
+
+        sortDrawOrder(sampler, count, tileWidth / 2, tileHeight / 2);
+        return count;
+    }
+
+    private static boolean isClear(Sampler sampler, int count, int x, int y, int minDistanceSquared) {
+        for (int i = 0; i < count; i++) {
+            int dx = x - sampler.bladeXs[i], dy = y - sampler.bladeYs[i];
+            if (dx * dx + dy * dy < minDistanceSquared) return false;
+        }
+        for (int i = 0; i < sampler.neighborCount; i++) {
+            int dx = x - sampler.neighborXs[i], dy = y - sampler.neighborYs[i];
+            if (dx * dx + dy * dy < minDistanceSquared) return false;
+        }
+        return true;
+    }
+
+    private static int addBlade(Sampler sampler, int count, int x, int y, SplittableRandom random) {
+        int randValue = random.nextInt(100);
+        sampler.bladeXs[count] = x;
+        sampler.bladeYs[count] = y;
+        sampler.bladeVariants[count] = (randValue < 25) ? 0 : (randValue < 65 ? 1 : 2);
+        sampler.order[count] = count;
+        return count + 1;
+    }
+
+    // 그리는 순서: 사분면 우선순위(왼쪽 아래 -> 오른쪽 아래 -> 왼쪽 위 -> 오른쪽 위) -> y -> x, 많아야 6개라서 삽입 정렬
+    private static void sortDrawOrder(Sampler sampler, int count, int centerX, int centerY) {
+        for (int i = 1; i < count; i++) {
+            int blade = sampler.order[i];
+            int j = i - 1;
+            while (j >= 0 && compareDrawOrder(sampler, sampler.order[j], blade, centerX, centerY) > 0) {
+                sampler.order[j + 1] = sampler.order[j];
+                j--;
+            }
+            sampler.order[j + 1] = blade;
+        }
+    }
+
+    private static int compareDrawOrder(Sampler sampler, int blade1, int blade2, int centerX, int centerY) {
+        int priority1 = quadrantPriority(sampler.bladeXs[blade1], sampler.bladeYs[blade1], centerX, centerY);
+        int priority2 = quadrantPriority(sampler.bladeXs[blade2], sampler.bladeYs[blade2], centerX, centerY);
+        if (priority1 != priority2) return priority1 - priority2;
+
+        if (sampler.bladeYs[blade1] != sampler.bladeYs[blade2]) {
+            return Integer.compare(sampler.bladeYs[blade1], sampler.bladeYs[blade2]);
+        }
+        return Integer.compare(sampler.bladeXs[blade1], sampler.bladeXs[blade2]);
+    }
+
+    private static int quadrantPriority(int x, int y, int centerX, int centerY) {
+        if (y >= centerY) return x < centerX ? 0 : 1;
+        return x < centerX ? 2 : 3;
+    }
+
+    /// 잔디 셀 배치의 서명 - 파일로 저장한 결과가 지금 맵과 같은 입력으로 만들어졌는지 확인용
+    static long signature(int[] grassGids, int columns, int rows, int tileWidth, int tileHeight, long seed) {
+        long hash = 0xcbf29ce484222325L ^ FILE_VERSION;
+        long[] header = {columns, rows, tileWidth, tileHeight, seed};
+        for (long value : header) {
+            hash = (hash ^ value) * 0x100000001b3L;
+        }
+        for (int gid : grassGids) {
+            hash = (hash ^ gid) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /// 쓰는 스레드마다 다른 임시 파일에 쓴 뒤 바꿔치기 - 미리 불러오기와 게임 스레드가 같은 맵을 동시에 저장해도
+    /// 읽는 쪽은 어느 한쪽이 끝까지 쓴 파일만 본다
+    boolean write(File file, long signature) {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            System.err.println("잔디 배치 저장 폴더를 만들 수 없습니다: " + parent);
+            return false;
+        }
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(parent.toPath(), file.getName(), ".tmp");
+            writeTo(temporary.toFile(), signature);
+            try {
+                Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("잔디 배치 저장 실패: " + file + " - " + e.getMessage());
+            if (temporary != null) temporary.toFile().delete();
+            return false;
+        }
+    }
+
+    private void writeTo(File file, long signature) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            out.writeLong(signature);
+            out.writeInt(columns);
+            out.writeInt(rows);
+            out.writeInt(tileWidth);
+            out.writeInt(tileHeight);
+            out.writeLong(seed);
+            out.writeInt(bladeCount);
+            for (int cell = 0; cell < columns * rows; cell++) {
+                out.writeInt(starts[cell]);
+                out.writeByte(counts[cell]);
+            }
+            for (int i = 0; i < bladeCount; i++) {
+                out.writeShort(xs[i]);
+                out.writeShort(ys[i]);
+                out.writeByte(variants[i]);
+                out.writeByte(phases[i]);
+            }
+        }
+    }
+
+    /// 저장해 둔 배치를 읽는다 - 파일이 없거나 서명/형식이 다르면 false (현재 배치는 그대로)
+    boolean read(File file, long signature) {
+        if (!file.isFile()) return false;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION || in.readLong() != signature) return false;
+
+            int fileColumns = in.readInt();
+            int fileRows = in.readInt();
+            int fileTileWidth = in.readInt();
+            int fileTileHeight = in.readInt();
+            long fileSeed = in.readLong();
+            int fileBladeCount = in.readInt();
+
+            int[] fileStarts = new int[fileColumns * fileRows];
+            byte[] fileCounts = new byte[fileColumns * fileRows];
+            for (int cell = 0; cell < fileStarts.length; cell++) {
+                fileStarts[cell] = in.readInt();
+                fileCounts[cell] = in.readByte();
+            }
+            short[] fileXs = new short[fileBladeCount];
+            short[] fileYs = new short[fileBladeCount];
+            byte[] fileVariants = new byte[fileBladeCount];
+            byte[] filePhases = new byte[fileBladeCount];
+            for (int i = 0; i < fileBladeCount; i++) {
+                fileXs[i] = in.readShort();
+                fileYs[i] = in.readShort();
+                fileVariants[i] = in.readByte();
+                filePhases[i] = in.readByte();
+            }
+
+            columns = fileColumns;
+            rows = fileRows;
+            tileWidth = fileTileWidth;
+            tileHeight = fileTileHeight;
+            seed = fileSeed;
+            starts = fileStarts;
+            counts = fileCounts;
+            xs = fileXs;
+            ys = fileYs;
+            variants = fileVariants;
+            phases = filePhases;
+            bladeCount = fileBladeCount;
+            return true;
+        } catch (IOException e) {
+            System.err.println("잔디 배치 파일을 읽을 수 없습니다: " + file + " - " + e.getMessage());
+            return false;
+        }
+    }
+
+    int getBladeCount() { return bladeCount; }
+
+    /// 배열이 차지하는 대략의 바이트 수 (맵 캐시 용량 계산용)
+    long estimateBytes() {
+        return (long) starts.length * (Integer.BYTES + 1) + (long) xs.length * (Short.BYTES * 2 + 2);
+    }
+    int getTileWidth() { return tileWidth; }
+    int getTileHeight() { return tileHeight; }
+}
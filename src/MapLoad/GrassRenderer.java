@@ -2,26 +2,65 @@ package MapLoad;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.util.*;
-import java.util.List;
 
+/**
+ * 잔디 타일 위에 풀잎 스프라이트를 흩뿌려 그리는 렌더러.
+ * 풀잎 위치는 GrassField에 원시 배열(x, y, 종류)로 그리는 순서대로 들어 있고 (맵을 불러올 때 미리 생성),
+ * 셀 번호(tileY * columns + tileX)로 시작 위치/개수를 바로 찾는다.
+ * 배율별로 확대한 풀잎 이미지와 중앙 정렬 오프셋도 미리 계산해 두므로 할당 없이 그린다.
+ * 바람/흔들림은 풀잎 종류마다 미리 기울여 둔 SWAY_FRAMES장 중 하나를 고르는 것으로 처리한다 -
+ * 바람은 (시계 단계 + 풀잎 위상)으로 표 하나를 읽고, 플레이어가 지나가며 건드린 풀잎만 활성 목록에 넣어 갱신한다.
+ */
 public class GrassRenderer {
-    private static class GrassInstance {
-        final int x, y, index;
-
-        GrassInstance(int x, int y, int index) {
-            this.x = x;
-            this.y = y;
-            this.index = index;
+    static final int SWAY_PIXELS = 2;                       /// 풀잎 끝이 좌우로 기우는 최대 거리 (원본 픽셀)
+    static final int SWAY_FRAMES = SWAY_PIXELS * 2 + 1;     /// 기울기 -2 ~ +2 (가운데가 원본 그대로)
+
+    private static final int WIND_STEP_MILLIS = 150;
+    private static final int[] WIND_SWAY = new int[GrassField.SWAY_PHASES];     // 위상 단계별 기울기
+    static {
+        for (int phase = 0; phase < WIND_SWAY.length; phase++) {
+            WIND_SWAY[phase] = (int) Math.round(Math.sin(2 * Math.PI * phase / WIND_SWAY.length) * 1.2);
         }
     }
 
-    private final Map<String, List<GrassInstance>> grassPositionCache = new HashMap<>();
+    // 플레이어에게 밀린 풀잎: 밀린 방향으로 크게 기울었다가 반대로 튕기며 잦아든다
+    private static final int RUSTLE_STEP_MILLIS = 70;
+    private static final int[] RUSTLE_SWAY = {2, 2, -1, -2, 1, 1, -1, 0};
+    private static final int RUSTLE_MILLIS = RUSTLE_STEP_MILLIS * RUSTLE_SWAY.length;
+    private static final int MAX_ACTIVE_RUSTLES = 512;
+
+    /// 배율(scaleDivisor)별로 미리 확대해 둔 풀잎 이미지와 셀 좌상단 기준 그리기 오프셋
+    private static class BladeSprites {
+        BufferedImage[] sources;
+        TmxParser.PathTileCustomization customization;
+        int drawTileWidth, drawTileHeight;
+        BufferedImage[] images;
+        SoftwareRasterizer.RasterSource[] rasterSources;    /// 소프트웨어 렌더러용 - 처음 그릴 때 변환해서 채운다
+        int[] offsetXs, offsetYs;
+    }
+
+    private GrassField field = new GrassField();      // 현재 맵의 배치 (맵 캐시와 공유할 수 있으므로 통째로 바꿔 끼운다)
+    private File bakeDirectory;     // null이 아니면 맵별 풀잎 배치를 이 폴더에 저장해 두고 다음에 읽는다
+
+    // 흔들림 상태 - 풀잎 번호로 인덱싱, 방향이 0이 아니면 플레이어에게 밀려 흔들리는 중
+    private long clockMillis = 0;
+    private int windStep = 0;
+    private byte[] rustleDirections = new byte[0];
+    private long[] rustleStarts = new long[0];
+    private final int[] activeRustles = new int[MAX_ACTIVE_RUSTLES];
+    private int activeRustleCount = 0;
+
+    private final BladeSprites[] bladeSprites = {new BladeSprites(), new BladeSprites()};  // [TILE_SCALE, 축소]
     private final Map<String, BufferedImage[]> preExtractedGrassTiles = new HashMap<>();
     private final Map<String, BufferedImage> customPathImages;
+    private final ScaledImageCache scaledImageCache;
+    private SoftwareRasterizer rasterTarget;    // null이 아니면 Java2D 대신 소프트웨어 렌더러에 기록
 
-    public GrassRenderer(Map<String, BufferedImage> customPathImages) {
+    public GrassRenderer(Map<String, BufferedImage> customPathImages, ScaledImageCache scaledImageCache) {
         this.customPathImages = customPathImages;
+        this.scaledImageCache = scaledImageCache;
     }
 
     public void preExtractGrassTiles(String imagePath, TmxParser.PathTileCustomization customization) {
@@ -32,168 +71,259 @@ public class GrassRenderer {
         }
     }
 
+    // 종류 v의 기울기 프레임 f는 [v * SWAY_FRAMES + f] (f = 기울기 + SWAY_PIXELS)
     private BufferedImage[] extractAllGrassTiles(BufferedImage sourceImage, TmxParser.PathTileCustomization customization) {
         int tilesPerRow = sourceImage.getWidth() / customization.tileWidth;
         int totalTiles = (sourceImage.getHeight() / customization.tileHeight) * tilesPerRow;
-        BufferedImage[] tiles = new BufferedImage[Math.min(totalTiles, 3)];
+        int variantCount = Math.min(totalTiles, 3);
+        BufferedImage[] tiles = new BufferedImage[variantCount * SWAY_FRAMES];
 
-        for (int i = 0; i < tiles.length; i++) {
+        for (int i = 0; i < variantCount; i++) {
             int tileX = (i % tilesPerRow) * customization.tileWidth;
             int tileY = (i / tilesPerRow) * customization.tileHeight;
-            tiles[i] = sourceImage.getSubimage(tileX, tileY, customization.tileWidth, customization.tileHeight);
+            BufferedImage blade = CompatibleImages.copyRegion(sourceImage, tileX, tileY, customization.tileWidth, customization.tileHeight);
+            for (int sway = -SWAY_PIXELS; sway <= SWAY_PIXELS; sway++) {
+                tiles[i * SWAY_FRAMES + sway + SWAY_PIXELS] = sway == 0 ? blade : createSwayFrame(blade, sway);
+            }
         }
 
         return tiles;
     }
 
-    public void renderGrassTile(Graphics2D g2d, int screenX, int screenY, int tileWidth, int tileHeight,
-                                int gid, int tileX, int tileY, TmxParser.PathTileCustomization customization) {
-        if (customization == null) return;
-
-        String tileKey = gid + "_" + tileX + "_" + tileY;
-
-        // 주변 타일 포함해서 잔디 가져오기
-        List<GrassInstance> surroundingGrass = getSurroundingGrass(tileX, tileY, tileWidth, tileHeight);
-
-        // 현재 타일 잔디 가져오기 또는 생성
-        List<GrassInstance> grassInstances = grassPositionCache.get(tileKey);
-        if (grassInstances == null) {
-            grassInstances = generateGrassPositions(tileKey, tileWidth, tileHeight, customization, surroundingGrass);
-            grassPositionCache.put(tileKey, grassInstances);
+    // 밑동은 그대로 두고 위로 갈수록 sway만큼 가로로 밀어 기울인 프레임 (양옆으로 SWAY_PIXELS씩 여백)
+    private static BufferedImage createSwayFrame(BufferedImage blade, int sway) {
+        int width = blade.getWidth();
+        int height = blade.getHeight();
+        BufferedImage frame = CompatibleImages.create(width + SWAY_PIXELS * 2, height, Transparency.TRANSLUCENT);
+        Graphics2D g2d = frame.createGraphics();
+        try {
+            for (int y = 0; y < height; y++) {
+                int shift = height <= 1 ? 0 : Math.round(sway * (float) (height - 1 - y) / (height - 1));
+                int x = SWAY_PIXELS + shift;
+                g2d.drawImage(blade, x, y, x + width, y + 1, 0, y, width, y + 1, null);
+            }
+        } finally {
+            g2d.dispose();
         }
+        return frame;
+    }
 
-        // 주변 잔디 포함해서 z-order 정렬
-        List<GrassInstance> allGrass = new ArrayList<>(surroundingGrass);
-        allGrass.addAll(grassInstances);
-        allGrass.sort((g1, g2) -> {
-            int centerX = tileWidth / 2;
-            int centerY = tileHeight / 2;
-
-            int quadrant1 = getQuadrant(g1.x % tileWidth, g1.y % tileHeight, centerX, centerY);
-            int quadrant2 = getQuadrant(g2.x % tileWidth, g2.y % tileHeight, centerX, centerY);
-
-            if (quadrant1 != quadrant2) {
-                return getQuadrantPriority(quadrant1) - getQuadrantPriority(quadrant2);
-            }
+    /// @param drawTileWidth 화면에 그려지는 타일 크기 (원본 해상도 프레임버퍼면 TILE_SCALE 배 작음)
+    /// @param scaleDivisor TILE_SCALE 대비 축소 비율 - 잔디 위치는 항상 TILE_SCALE 기준으로 생성해 배율과 무관하게 같게 유지
+    public void renderGrassTile(Graphics2D g2d, int screenX, int screenY, int drawTileWidth, int drawTileHeight,
+                                int gid, int tileX, int tileY, TmxParser.PathTileCustomization customization,
+                                int scaleDivisor) {
+        if (customization == null || tileX < 0 || tileY < 0) return;
+
+        BladeSprites sprites = getBladeSprites(customization, drawTileWidth, drawTileHeight, scaleDivisor);
+        if (sprites == null) return;
+
+        GrassField field = this.field;
+        int cell = tileY * field.columns + tileX;
+        if (tileX >= field.columns || tileY >= field.rows || field.starts[cell] < 0) {
+            // 맵을 불러온 뒤 추가된 잔디 등 미리 만들지 않은 타일
+            cell = field.ensureTile(gid, tileX, tileY, drawTileWidth * scaleDivisor, drawTileHeight * scaleDivisor);
+        }
 
-            if (g1.y != g2.y) return Integer.compare(g1.y, g2.y);
-            return Integer.compare(g1.x, g2.x);
-        });
-
-        // 렌더링
-        BufferedImage[] preExtractedTiles = preExtractedGrassTiles.get(customization.imagePath);
-        if (preExtractedTiles != null) {
-            for (GrassInstance grass : allGrass) {
-                int tileBaseX = (grass.x / tileWidth) * tileWidth;
-                int tileBaseY = (grass.y / tileHeight) * tileHeight;
-                BufferedImage grassTile = preExtractedTiles[grass.index];
-                if (grassTile != null) {
-                    renderGrassWithAspectFill(g2d, grassTile,
-                            screenX + (grass.x - tileBaseX),
-                            screenY + (grass.y - tileBaseY),
-                            tileWidth, tileHeight, customization);
-                }
-            }
+        if (rustleDirections.length < field.bladeCount) {
+            growRustleState(field.bladeCount);
         }
-    }
 
-    private List<GrassInstance> getSurroundingGrass(int tileX, int tileY, int tileWidth, int tileHeight) {
-        List<GrassInstance> surrounding = new ArrayList<>();
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                if (dx == 0 && dy == 0) continue; // 현재 타일 제외
-                String key = "_tile_" + (tileX + dx) + "_" + (tileY + dy);
-                List<GrassInstance> neighbor = grassPositionCache.get(key);
-                if (neighbor != null) {
-                    // 좌표를 전체 맵 기준으로 변환
-                    for (GrassInstance g : neighbor) {
-                        surrounding.add(new GrassInstance(g.x + dx * tileWidth, g.y + dy * tileHeight, g.index));
-                    }
+        short[] bladeXs = field.xs;
+        short[] bladeYs = field.ys;
+        byte[] bladeVariants = field.variants;
+        byte[] bladePhases = field.phases;
+        int end = field.starts[cell] + field.counts[cell];
+        for (int i = field.starts[cell]; i < end; i++) {
+            int sway = rustleDirections[i] != 0
+                    ? rustleSway(i)
+                    : WIND_SWAY[(windStep + bladePhases[i]) & (GrassField.SWAY_PHASES - 1)];
+            int frame = bladeVariants[i] * SWAY_FRAMES + sway + SWAY_PIXELS;
+            BufferedImage image = sprites.images[frame];
+            if (image == null) continue;
+
+            int renderX = screenX + bladeXs[i] / scaleDivisor + sprites.offsetXs[frame];
+            int renderY = screenY + bladeYs[i] / scaleDivisor + sprites.offsetYs[frame];
+            if (rasterTarget != null) {
+                SoftwareRasterizer.RasterSource source = sprites.rasterSources[frame];
+                if (source == null) {
+                    source = rasterTarget.source(image);
+                    sprites.rasterSources[frame] = source;
                 }
+                rasterTarget.draw(source, renderX, renderY);
+            } else {
+                g2d.drawImage(image, renderX, renderY, null);
             }
         }
-        return surrounding;
     }
 
-    private void renderGrassWithAspectFill(Graphics2D g2d, BufferedImage grassTile, int drawX, int drawY,
-                                           int targetWidth, int targetHeight, TmxParser.PathTileCustomization customization) {
-        int originalWidth = grassTile.getWidth();
-        int originalHeight = grassTile.getHeight();
+    // 풀잎 종류별 ASPECT_FILL 확대 이미지 + 중앙 정렬/커스터마이징 오프셋 - 배율이나 타일 크기가 바뀔 때만 다시 계산
+    private BladeSprites getBladeSprites(TmxParser.PathTileCustomization customization,
+                                         int drawTileWidth, int drawTileHeight, int scaleDivisor) {
+        BufferedImage[] sources = preExtractedGrassTiles.get(customization.imagePath);
+        if (sources == null) return null;
 
-        double scale = Math.max((double) targetWidth / originalWidth, (double) targetHeight / originalHeight);
-        int renderWidth = (int) (originalWidth * scale);
-        int renderHeight = (int) (originalHeight * scale);
+        BladeSprites sprites = bladeSprites[scaleDivisor == 1 ? 0 : 1];
+        if (sprites.sources == sources && sprites.customization == customization
+                && sprites.drawTileWidth == drawTileWidth && sprites.drawTileHeight == drawTileHeight) {
+            return sprites;
+        }
 
-        // 중앙 정렬 + 오프셋
-        int renderX = drawX + (targetWidth - renderWidth) / 2 + customization.offsetX;
-        int renderY = drawY + (targetHeight - renderHeight) / 2 + customization.offsetY;
+        sprites.images = new BufferedImage[sources.length];
+        sprites.rasterSources = new SoftwareRasterizer.RasterSource[sources.length];
+        sprites.offsetXs = new int[sources.length];
+        sprites.offsetYs = new int[sources.length];
+        for (int variant = 0; variant < sources.length / SWAY_FRAMES; variant++) {
+            BufferedImage grassTile = sources[variant * SWAY_FRAMES + SWAY_PIXELS];
+            if (grassTile == null) continue;
+
+            // 배율은 기울이지 않은 원본 크기 기준 - 기울인 프레임은 여백만큼 넓게 확대해 가운데를 맞춘다
+            int originalWidth = grassTile.getWidth();
+            int originalHeight = grassTile.getHeight();
+            double scale = Math.max((double) drawTileWidth / originalWidth, (double) drawTileHeight / originalHeight);
+            int renderWidth = (int) (originalWidth * scale);
+            int renderHeight = (int) (originalHeight * scale);
+
+            // 중앙 정렬 + 오프셋
+            int offsetX = (drawTileWidth - renderWidth) / 2 + customization.offsetX / scaleDivisor;
+            int offsetY = (drawTileHeight - renderHeight) / 2 + customization.offsetY / scaleDivisor;
+            for (int frame = variant * SWAY_FRAMES; frame < (variant + 1) * SWAY_FRAMES; frame++) {
+                int frameWidth = (int) (sources[frame].getWidth() * scale);
+                sprites.images[frame] = scaledImageCache.get(sources[frame], frameWidth, renderHeight);
+                sprites.offsetXs[frame] = offsetX - (frameWidth - renderWidth) / 2;
+                sprites.offsetYs[frame] = offsetY;
+            }
+        }
+        sprites.sources = sources;
+        sprites.customization = customization;
+        sprites.drawTileWidth = drawTileWidth;
+        sprites.drawTileHeight = drawTileHeight;
+        return sprites;
+    }
 
-        g2d.drawImage(grassTile, renderX, renderY, renderWidth, renderHeight, null);
+    private int rustleSway(int blade) {
+        int step = (int) ((clockMillis - rustleStarts[blade]) / RUSTLE_STEP_MILLIS);
+        return step < RUSTLE_SWAY.length ? RUSTLE_SWAY[step] * rustleDirections[blade] : 0;
     }
 
-    private List<GrassInstance> generateGrassPositions(String tileKey, int tileWidth, int tileHeight,
-                                                       TmxParser.PathTileCustomization customization,
-                                                       List<GrassInstance> surroundingGrass) {
-        List<GrassInstance> instances = new ArrayList<>();
-        Random random = new Random(tileKey.hashCode());
+    private void growRustleState(int bladeCount) {
+        int capacity = Math.max(bladeCount, rustleDirections.length * 2);
+        rustleDirections = Arrays.copyOf(rustleDirections, capacity);
+        rustleStarts = Arrays.copyOf(rustleStarts, capacity);
+    }
 
-        int grassCount = 4 + random.nextInt(3);
-        int minDistance = Math.min(tileWidth, tileHeight) / 4;
+    /// 프레임마다 한 번 - 바람 단계를 갱신하고 다 흔들린 풀잎을 활성 목록에서 뺀다 (활성 목록 크기만큼만 일한다)
+    public void advance(long clockMillis) {
+        this.clockMillis = clockMillis;
+        this.windStep = (int) (clockMillis / WIND_STEP_MILLIS);
 
-        for (int i = 0; i < grassCount; i++) {
-            int attempts = 0;
-            int grassX, grassY;
-            boolean validPosition;
+        for (int i = activeRustleCount - 1; i >= 0; i--) {
+            int blade = activeRustles[i];
+            if (clockMillis - rustleStarts[blade] < RUSTLE_MILLIS) continue;
+            rustleDirections[blade] = 0;
+            activeRustles[i] = activeRustles[--activeRustleCount];
+        }
+    }
 
-            do {
-                grassX = random.nextInt(tileWidth + 4) - 4;
-                grassY = random.nextInt(tileHeight + 4) - 4;
+    /// 발 영역(맵 좌표, TILE_SCALE 기준 픽셀) 안에 밑동이 있는 풀잎을 흔든다 - 영역이 걸친 셀의 풀잎만 본다
+    /// 풀잎은 발 중심에서 먼 쪽으로 밀리고, 이미 흔들리는 풀잎은 끝날 때까지 그대로 둔다
+    public void disturb(int left, int top, int right, int bottom) {
+        GrassField field = this.field;
+        int tileWidth = field.getTileWidth();
+        int tileHeight = field.getTileHeight();
+        if (tileWidth <= 0 || tileHeight <= 0 || field.bladeCount == 0) return;
+        if (rustleDirections.length < field.bladeCount) {
+            growRustleState(field.bladeCount);
+        }
 
-                validPosition = true;
-                for (GrassInstance existing : instances) {
-                    if (Math.hypot(grassX - existing.x, grassY - existing.y) < minDistance) {
-                        validPosition = false;
-                        break;
-                    }
-                }
-                for (GrassInstance existing : surroundingGrass) {
-                    if (Math.hypot(grassX - existing.x % tileWidth, grassY - existing.y % tileHeight) < minDistance) {
-                        validPosition = false;
-                        break;
-                    }
+        int centerX = (left + right) / 2;
+        // 풀잎 이미지는 셀보다 크게 확대되므로 밑동 위치는 셀 높이의 3/4 정도
+        int baseOffsetX = tileWidth / 2;
+        int baseOffsetY = tileHeight * 3 / 4;
+        int startColumn = Math.max(0, Math.floorDiv(left - baseOffsetX, tileWidth));
+        int endColumn = Math.min(field.columns - 1, Math.floorDiv(right - baseOffsetX + GrassField.EDGE_OVERHANG, tileWidth));
+        int startRow = Math.max(0, Math.floorDiv(top - baseOffsetY, tileHeight));
+        int endRow = Math.min(field.rows - 1, Math.floorDiv(bottom - baseOffsetY + GrassField.EDGE_OVERHANG, tileHeight));
+
+        for (int row = startRow; row <= endRow; row++) {
+            for (int column = startColumn; column <= endColumn; column++) {
+                int cell = row * field.columns + column;
+                if (field.starts[cell] < 0) continue;
+
+                int end = field.starts[cell] + field.counts[cell];
+                for (int blade = field.starts[cell]; blade < end; blade++) {
+                    if (rustleDirections[blade] != 0 || activeRustleCount == MAX_ACTIVE_RUSTLES) continue;
+                    int baseX = column * tileWidth + field.xs[blade] + baseOffsetX;
+                    int baseY = row * tileHeight + field.ys[blade] + baseOffsetY;
+                    if (baseX < left || baseX >= right || baseY < top || baseY >= bottom) continue;
+
+                    rustleDirections[blade] = (byte) (baseX < centerX ? -1 : 1);
+                    rustleStarts[blade] = clockMillis;
+                    activeRustles[activeRustleCount++] = blade;
                 }
+            }
+        }
+    }
 
-                attempts++;
-            } while (!validPosition && attempts < 50);
-
-            int randValue = random.nextInt(100);
-            int grassIndex = (randValue < 25) ? 0 : (randValue < 65 ? 1 : 2);
-
-            instances.add(new GrassInstance(grassX, grassY, grassIndex));
+    private void clearRustles() {
+        for (int i = 0; i < activeRustleCount; i++) {
+            rustleDirections[activeRustles[i]] = 0;
         }
+        activeRustleCount = 0;
+    }
 
-        return instances;
+    /// 소프트웨어 렌더러로 그리는 프레임 동안만 설정 (null이면 Java2D)
+    void setRasterTarget(SoftwareRasterizer rasterTarget) {
+        this.rasterTarget = rasterTarget;
     }
 
-    private int getQuadrant(int x, int y, int centerX, int centerY) {
-        if (x >= centerX && y < centerY) return 1;
-        if (x < centerX && y < centerY) return 2;
-        if (x < centerX && y >= centerY) return 3;
-        return 4;
+    /// 풀잎 배치 저장 폴더 (null이면 저장하지 않고 매번 생성)
+    public void setBakeDirectory(File directory) {
+        this.bakeDirectory = directory;
     }
 
-    private int getQuadrantPriority(int quadrant) {
-        switch (quadrant) {
-            case 3: return 0;
-            case 4: return 1;
-            case 2: return 2;
-            case 1: return 3;
-            default: return 4;
+    /// 잔디 셀 전체의 풀잎 배치를 새로 만들거나 저장해 둔 것을 읽는다 - 렌더러 상태는 건드리지 않으므로
+    /// 맵을 미리 준비하는 백그라운드 스레드에서 불러도 된다 (화면에 쓰려면 useField)
+    /// @param grassGids 셀별 잔디 GID (0이면 잔디 아님)
+    /// @param tileWidth TILE_SCALE 기준 타일 크기 (풀잎 위치는 항상 이 배율로 만든다)
+    GrassField bakeField(String mapName, int[] grassGids, int mapWidth, int mapHeight, int tileWidth, int tileHeight) {
+        long start = System.nanoTime();
+        long seed = mapName.hashCode();
+        long signature = GrassField.signature(grassGids, mapWidth, mapHeight, tileWidth, tileHeight, seed);
+        File bakeFile = bakeDirectory == null ? null : new File(bakeDirectory, mapName + ".grass");
+
+        GrassField baked = new GrassField();
+        boolean loaded = bakeFile != null && baked.read(bakeFile, signature);
+        if (!loaded) {
+            baked.bake(grassGids, mapWidth, mapHeight, tileWidth, tileHeight, seed);
+            if (bakeFile != null) {
+                baked.write(bakeFile, signature);
+            }
         }
+        System.out.printf("잔디 배치 %s: %d 풀잎 (%.1f ms)%n", loaded ? "읽음" : "생성",
+                baked.getBladeCount(), (System.nanoTime() - start) / 1_000_000.0);
+        return baked;
+    }
+
+    /// 맵이 바뀔 때 - 풀잎 배치를 바꿔 끼운다
+    /// 잘라 둔 풀잎 이미지는 유지 (이미지는 처음 불러올 때 한 번만 추출되므로)
+    void useField(GrassField field) {
+        for (BladeSprites sprites : bladeSprites) {
+            sprites.sources = null;     // 확대 이미지 캐시도 맵을 불러올 때 비워지므로 다시 받는다
+        }
+        clearRustles();
+        this.field = field;
+    }
+
+    /// 풀잎 배치를 비운다 - 이후 보이는 타일부터 그 자리에서 만든다
+    public void resetPositions(int mapWidth, int mapHeight) {
+        GrassField empty = new GrassField();
+        empty.reset(Math.max(0, mapWidth), Math.max(0, mapHeight), 0, 0, 0);
+        useField(empty);
     }
 
     public void clearCache() {
-        grassPositionCache.clear();
+        resetPositions(0, 0);
         preExtractedGrassTiles.clear();
     }
-}
\ No newline at end of file
+}
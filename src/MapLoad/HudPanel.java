@@ -0,0 +1,72 @@
+package MapLoad;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * 디버그 HUD 패널 하나를 이미지로 캐싱해 두고, 표시하는 값이 바뀔 때만 다시 그리는 패널.
+ * 호출하는 쪽은 매 프레임 state()에 표시 값(정수, 비트로 바꾼 실수, 버전 카운터 등)을 채운 뒤 draw를 호출한다.
+ * 값이 이전 프레임과 같으면 문자열 포맷/텍스트 렌더링 없이 캐싱된 이미지를 한 번 복사만 한다.
+ */
+class HudPanel {
+    private static final Color BACKGROUND = new Color(0, 0, 0, 150);
+    private static final Color BORDER = new Color(100, 100, 100);
+
+    /// 패널 내용을 그리는 콜백 (패널 좌상단이 원점, 배경/테두리는 이미 그려져 있음)
+    /// 매 프레임 람다를 새로 만들지 않도록 호출하는 쪽 필드에 한 번만 만들어 둔다
+    interface Painter {
+        void paint(Graphics2D g2d, int width, int height);
+    }
+
+    private final long[] state;
+    private final long[] paintedState;
+    private final Painter painter;
+    private BufferedImage image;
+    private int width, height;
+    private boolean valid = false;
+
+    HudPanel(int stateSize, Painter painter) {
+        this.state = new long[stateSize];
+        this.paintedState = new long[stateSize];
+        this.painter = painter;
+    }
+
+    /// 이번 프레임의 표시 값을 채울 배열 (draw 전에 모든 칸을 채워야 함)
+    long[] state() {
+        return state;
+    }
+
+    void draw(Graphics2D target, int x, int y, int width, int height) {
+        if (image == null || this.width != width || this.height != height) {
+            this.width = width;
+            this.height = height;
+            // drawRect는 오른쪽/아래 테두리를 width, height 위치에 그리므로 1픽셀 여유
+            image = CompatibleImages.create(width + 1, height + 1, Transparency.TRANSLUCENT);
+            valid = false;
+        }
+
+        if (!valid || !Arrays.equals(state, paintedState)) {
+            repaint();
+            System.arraycopy(state, 0, paintedState, 0, state.length);
+            valid = true;
+        }
+
+        target.drawImage(image, x, y, null);
+    }
+
+    private void repaint() {
+        Graphics2D g2d = image.createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.setColor(BACKGROUND);
+        g2d.fillRect(0, 0, width + 1, height + 1);
+        g2d.setComposite(AlphaComposite.SrcOver);
+
+        g2d.setColor(BORDER);
+        g2d.drawRect(0, 0, width, height);
+
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        painter.paint(g2d, width, height);
+        g2d.dispose();
+    }
+}
@@ -0,0 +1,143 @@
+package MapLoad;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * resource/ 아래 PNG를 파일 이름으로 찾는 이미지 저장소.
+ * 시작할 때는 파일 이름만 색인하고, get으로 처음 요청될 때 읽어서 호환 형식(CompatibleImages)으로 바꾼다.
+ * 디코딩한 이미지는 바이트 합계 한도 안에서 최근에 쓴 순서로 들고 있다가 (LRU) 오래된 것부터 놓는다.
+ * 놓은 이미지라도 타일셋이나 준비된 맵이 아직 쓰고 있으면 약한 참조로 같은 인스턴스를 돌려준다
+ * (확대 이미지 캐시가 인스턴스 기준이라 다시 디코딩하면 확대본도 다시 만들어야 하므로).
+ * 맵 준비 스레드와 화면 스레드에서 함께 부르므로 조회/등록은 동기화하고, 디코딩 자체는 잠금 밖에서 한다.
+ */
+class ImageAssets {
+    private final Map<String, File> files = new HashMap<>();           // "이름.png"와 "이름" 둘 다
+    private final LinkedHashMap<File, BufferedImage> recent = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<File, WeakReference<BufferedImage>> decoded = new HashMap<>();
+    private final long maxBytes;
+    private long recentBytes = 0;
+    private int decodeCount = 0;
+    private long decodeNanos = 0;
+
+    private ImageAssets(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /// 폴더 아래 PNG 파일 이름만 모은다 (디코딩하지 않음) - resourceDir이 null이면 빈 저장소
+    static ImageAssets index(File resourceDir, long maxBytes) {
+        ImageAssets assets = new ImageAssets(maxBytes);
+        if (resourceDir != null) {
+            assets.collectPngFiles(resourceDir);
+        }
+        return assets;
+    }
+
+    private void collectPngFiles(File dir) {
+        File[] children = dir.listFiles();
+        if (children == null) return;
+
+        for (File file : children) {
+            if (file.isDirectory()) {
+                collectPngFiles(file);
+            } else if (file.getName().toLowerCase().endsWith(".png")) {
+                String fileName = file.getName();
+                files.put(fileName, file);
+                files.put(fileName.substring(0, fileName.lastIndexOf('.')), file);
+            }
+        }
+    }
+
+    /// 경로의 파일 이름(확장자 있어도 없어도 됨)으로 PNG를 찾아 (필요하면 이때 디코딩해서) 돌려준다 - 없으면 null
+    BufferedImage get(String imagePath) {
+        File file = fileFor(imagePath);
+        if (file == null) return null;
+
+        BufferedImage image = cached(file);
+        if (image != null) return image;
+
+        long start = System.nanoTime();
+        try {
+            image = CompatibleImages.toCompatible(ImageIO.read(file));
+        } catch (Exception e) {
+            System.err.println("PNG 파일 로드 실패: " + file.getName() + " - " + e.getMessage());
+            return null;
+        }
+        return store(file, image, System.nanoTime() - start);
+    }
+
+    File fileFor(String imagePath) {
+        String fileName = new File(imagePath).getName();
+        File file = files.get(fileName);
+        if (file != null) return file;
+
+        if (fileName.contains(".")) {
+            return files.get(fileName.substring(0, fileName.lastIndexOf('.')));
+        }
+        return files.get(fileName + ".png");
+    }
+
+    private synchronized BufferedImage cached(File file) {
+        BufferedImage image = recent.get(file);
+        if (image != null) return image;
+
+        WeakReference<BufferedImage> reference = decoded.get(file);
+        image = reference == null ? null : reference.get();
+        if (image != null) remember(file, image);      // 아직 쓰이고 있던 이미지 - 다시 최근 목록에
+        return image;
+    }
+
+    // 다른 스레드가 먼저 디코딩해 두었으면 그 인스턴스를 쓴다
+    private synchronized BufferedImage store(File file, BufferedImage image, long nanos) {
+        BufferedImage existing = cached(file);
+        if (existing != null) return existing;
+
+        decodeCount++;
+        decodeNanos += nanos;
+        decoded.put(file, new WeakReference<>(image));
+        remember(file, image);
+        return image;
+    }
+
+    private void remember(File file, BufferedImage image) {
+        if (recent.put(file, image) == null) {
+            recentBytes += bytesOf(image);
+        }
+
+        Iterator<Map.Entry<File, BufferedImage>> eldest = recent.entrySet().iterator();
+        while (recentBytes > maxBytes && recent.size() > 1) {
+            Map.Entry<File, BufferedImage> entry = eldest.next();
+            if (entry.getKey().equals(file)) continue;
+            recentBytes -= bytesOf(entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    private static long bytesOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * Integer.BYTES;
+    }
+
+    /// 색인된 PNG를 모두 디코딩한다 (예전처럼 시작할 때 전부 읽는 방식 - 비교/사전 로딩용)
+    void loadAll() {
+        List<File> unique = new ArrayList<>(new LinkedHashSet<>(files.values()));
+        unique.parallelStream().forEach(file -> get(file.getPath()));
+    }
+
+    /// 색인된 PNG 파일 수
+    int getFileCount() {
+        return new LinkedHashSet<>(files.values()).size();
+    }
+
+    synchronized int getDecodeCount() { return decodeCount; }
+    synchronized long getDecodeNanos() { return decodeNanos; }
+    synchronized long getCachedBytes() { return recentBytes; }
+}
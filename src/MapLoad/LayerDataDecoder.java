@@ -0,0 +1,87 @@
+package MapLoad;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+
+/**
+ * base64 인코딩된 TMX 레이어 데이터(무압축, zlib, gzip)를 GID 배열로 푼다.
+ * 압축을 푼 바이트는 셀당 4바이트 리틀 엔디언 GID이므로, 값마다 파싱하지 않고 IntBuffer 뷰로 한 번에 복사한다.
+ * zstd는 JDK에 디코더가 없어 지원하지 않는다 (Tiled에서 zlib 또는 gzip으로 저장하면 된다).
+ */
+final class LayerDataDecoder {
+    private LayerDataDecoder() {}
+
+    /// @param base64 공백을 뺀 base64 본문 (앞에서 length 바이트)
+    /// @param compression null/빈 문자열(무압축), "zlib", "gzip"
+    static int[] decode(byte[] base64, int length, String compression, int cellCount, String layerName) throws IOException {
+        ByteBuffer encoded;
+        try {
+            encoded = Base64.getDecoder().decode(ByteBuffer.wrap(base64, 0, length));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("레이어 " + layerName + "의 base64 데이터가 잘못되었습니다: " + e.getMessage());
+        }
+
+        byte[] raw;
+        if (compression == null || compression.isEmpty()) {
+            raw = new byte[encoded.remaining()];
+            encoded.get(raw);
+        } else if ("zlib".equals(compression)) {
+            raw = inflate(encoded, cellCount * 4, layerName);
+        } else if ("gzip".equals(compression)) {
+            raw = gunzip(encoded, cellCount * 4, layerName);
+        } else if ("zstd".equals(compression)) {
+            throw new IOException("레이어 " + layerName + ": zstd 압축은 지원하지 않습니다 (zlib 또는 gzip으로 저장하세요)");
+        } else {
+            throw new IOException("레이어 " + layerName + ": 알 수 없는 압축 방식 " + compression);
+        }
+
+        if (raw.length != cellCount * 4) {
+            throw new IOException(String.format("레이어 %s: 데이터 크기가 맞지 않습니다 (%d바이트, 필요 %d바이트)",
+                    layerName, raw.length, cellCount * 4));
+        }
+        int[] data = new int[cellCount];
+        ByteBuffer.wrap(raw).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(data);
+        return data;
+    }
+
+    private static byte[] inflate(ByteBuffer compressed, int expectedBytes, String layerName) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            byte[] raw = new byte[expectedBytes];
+            int inflated = 0;
+            while (inflated < raw.length && !inflater.finished()) {
+                int count = inflater.inflate(raw, inflated, raw.length - inflated);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                inflated += count;
+            }
+            if (inflated != raw.length || !inflater.finished()) {
+                throw new IOException("레이어 " + layerName + ": zlib 데이터 크기가 타일 수와 맞지 않습니다");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("레이어 " + layerName + "의 zlib 데이터가 잘못되었습니다: " + e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] gunzip(ByteBuffer compressed, int expectedBytes, String layerName) throws IOException {
+        ByteArrayInputStream input = new ByteArrayInputStream(compressed.array(),
+                compressed.arrayOffset() + compressed.position(), compressed.remaining());
+        try (GZIPInputStream gzip = new GZIPInputStream(input, 8192)) {
+            byte[] raw = new byte[expectedBytes];
+            int read = gzip.readNBytes(raw, 0, raw.length);
+            if (read != raw.length || gzip.read() != -1) {
+                throw new IOException("레이어 " + layerName + ": gzip 데이터 크기가 타일 수와 맞지 않습니다");
+            }
+            return raw;
+        }
+    }
+}
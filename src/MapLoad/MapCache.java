@@ -0,0 +1,116 @@
+package MapLoad;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 준비된 맵(PreparedMap)을 경로별로 들고 있는 LRU 캐시 + 백그라운드 미리 불러오기.
+ * 합계 크기(PreparedMap.estimatedBytes)가 한도를 넘으면 가장 오래 쓰지 않은 맵부터 버린다 (방금 쓴 맵은 남긴다).
+ * 미리 불러오기는 데몬 스레드 하나에서 순서대로 하고, 진행 중인 맵을 take하면 새로 만들지 않고 그 결과를 기다린다.
+ */
+class MapCache {
+    private final long maxBytes;
+    private final LinkedHashMap<String, PreparedMap> maps = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Future<PreparedMap>> pending = new HashMap<>();
+    private long totalBytes = 0;
+    private int generation = 0;             // clear 이전에 시작한 미리 불러오기 결과는 버린다
+    private ExecutorService executor;       // 처음 미리 불러올 때 만든다
+
+    MapCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /// 캐시에 없고 준비 중도 아니면 백그라운드에서 준비해 둔다
+    synchronized void prefetch(String path, Callable<PreparedMap> loader) {
+        if (maps.containsKey(path) || pending.containsKey(path)) return;
+
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(task -> {
+                Thread thread = new Thread(task, "map-prefetch");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        }
+        int startGeneration = generation;
+        pending.put(path, executor.submit(() -> {
+            try {
+                PreparedMap map = loader.call();
+                finishPrefetch(path, map, startGeneration);
+                return map;
+            } catch (Exception e) {
+                System.err.println("맵 미리 불러오기 실패: " + path + " - " + e);
+                finishPrefetch(path, null, startGeneration);
+                throw e;
+            }
+        }));
+        System.out.println("맵 미리 불러오기 시작: " + path);
+    }
+
+    /// 캐시에 있으면 바로, 준비 중이면 끝날 때까지 기다려서, 둘 다 아니면 지금 스레드에서 준비해 돌려준다
+    PreparedMap take(String path, Callable<PreparedMap> loader) throws Exception {
+        Future<PreparedMap> inFlight;
+        synchronized (this) {
+            PreparedMap cached = maps.get(path);
+            if (cached != null) return cached;
+            inFlight = pending.get(path);
+        }
+
+        if (inFlight != null) {
+            try {
+                return inFlight.get();
+            } catch (ExecutionException | CancellationException e) {
+                // 백그라운드에서 실패했으면 지금 다시 시도 (오류 메시지는 호출한 쪽에서 받도록)
+            }
+        }
+        PreparedMap map = loader.call();
+        put(path, map);
+        return map;
+    }
+
+    private synchronized void finishPrefetch(String path, PreparedMap map, int startGeneration) {
+        if (startGeneration != generation) return;
+        pending.remove(path);
+        if (map != null) put(path, map);
+    }
+
+    synchronized void put(String path, PreparedMap map) {
+        PreparedMap previous = maps.put(path, map);
+        if (previous != null) totalBytes -= previous.estimatedBytes;
+        totalBytes += map.estimatedBytes;
+
+        Iterator<Map.Entry<String, PreparedMap>> eldest = maps.entrySet().iterator();
+        while (totalBytes > maxBytes && maps.size() > 1) {
+            Map.Entry<String, PreparedMap> entry = eldest.next();
+            if (entry.getKey().equals(path)) continue;
+            totalBytes -= entry.getValue().estimatedBytes;
+            eldest.remove();
+        }
+    }
+
+    /// 커스터마이징이 바뀌면 준비해 둔 맵(풀잎 배치 등)이 맞지 않으므로 모두 버린다
+    /// 이미 돌고 있는 미리 불러오기는 끝까지 가지만 결과는 버린다 (파일 저장은 임시 파일 + 바꿔치기라 게임 스레드와 겹쳐도 안전)
+    synchronized void clear() {
+        maps.clear();
+        totalBytes = 0;
+        generation++;
+        pending.values().forEach(future -> future.cancel(false));
+        pending.clear();
+    }
+
+    synchronized boolean contains(String path) {
+        return maps.containsKey(path);
+    }
+
+    synchronized int size() {
+        return maps.size();
+    }
+}
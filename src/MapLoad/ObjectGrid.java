@@ -0,0 +1,125 @@
+package MapLoad;
+
+import java.util.Arrays;
+
+/**
+ * 배치 오브젝트용 균일 격자 공간 색인.
+ * 오브젝트가 그려지는 영역(원본 픽셀 좌표)이 겹치는 모든 칸에 오브젝트 번호를 넣어 두고,
+ * 화면 영역과 겹치는 칸만 훑어 후보를 돌려준다. 오브젝트 수가 늘어도 화면에 걸친 칸의 오브젝트만 보게 된다.
+ * 칸 목록은 (칸별 시작 위치, 오브젝트 번호) 두 배열로 압축해 보관하고, 오브젝트가 추가되면 통째로 다시 만든다.
+ */
+class ObjectGrid {
+    static final int CELL_PIXELS = 128;     // 원본 16px 타일 기준 8x8 타일
+
+    private int originX, originY;           // 칸 (0, 0)의 좌상단 (음수 오프셋 오브젝트도 담을 수 있도록)
+    private int columns, rows;
+    private int[] cellStarts = new int[1];
+    private int[] cellObjects = new int[0];
+
+    private int[] queryStamps = new int[0];
+    private int queryStamp = 0;
+    private int[] results = new int[16];
+    private int resultCount = 0;
+
+    /// 오브젝트 i의 영역은 [lefts[i], rights[i]) x [tops[i], bottoms[i])
+    void rebuild(int count, int[] lefts, int[] tops, int[] rights, int[] bottoms) {
+        if (count == 0) {
+            columns = rows = 0;
+            cellStarts = new int[1];
+            cellObjects = new int[0];
+            queryStamps = new int[0];
+            return;
+        }
+
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, lefts[i]);
+            minY = Math.min(minY, tops[i]);
+            maxX = Math.max(maxX, rights[i]);
+            maxY = Math.max(maxY, bottoms[i]);
+        }
+        originX = Math.floorDiv(minX, CELL_PIXELS) * CELL_PIXELS;
+        originY = Math.floorDiv(minY, CELL_PIXELS) * CELL_PIXELS;
+        columns = (maxX - originX) / CELL_PIXELS + 1;
+        rows = (maxY - originY) / CELL_PIXELS + 1;
+
+        // 칸별 개수 -> 시작 위치 -> 채우기
+        int[] starts = new int[columns * rows + 1];
+        for (int i = 0; i < count; i++) {
+            forEachCell(lefts[i], tops[i], rights[i], bottoms[i], cell -> starts[cell + 1]++);
+        }
+        for (int cell = 1; cell < starts.length; cell++) {
+            starts[cell] += starts[cell - 1];
+        }
+
+        int[] objects = new int[starts[starts.length - 1]];
+        int[] cursors = Arrays.copyOf(starts, starts.length - 1);
+        for (int i = 0; i < count; i++) {
+            int object = i;
+            forEachCell(lefts[i], tops[i], rights[i], bottoms[i], cell -> objects[cursors[cell]++] = object);
+        }
+
+        cellStarts = starts;
+        cellObjects = objects;
+        queryStamps = new int[count];
+        queryStamp = 0;
+    }
+
+    private interface CellVisitor {
+        void visit(int cell);
+    }
+
+    private void forEachCell(int left, int top, int right, int bottom, CellVisitor visitor) {
+        int startColumn = (left - originX) / CELL_PIXELS;
+        int startRow = (top - originY) / CELL_PIXELS;
+        int endColumn = (Math.max(left, right - 1) - originX) / CELL_PIXELS;
+        int endRow = (Math.max(top, bottom - 1) - originY) / CELL_PIXELS;
+        for (int row = startRow; row <= endRow; row++) {
+            for (int column = startColumn; column <= endColumn; column++) {
+                visitor.visit(row * columns + column);
+            }
+        }
+    }
+
+    /// 영역과 겹치는 칸에 들어 있는 오브젝트 번호를 중복 없이 모은다
+    /// 번호는 오름차순(= positionedObjects 순서)이라 발 Y가 같은 오브젝트의 그리기 순서가 카메라 위치에 따라 바뀌지 않는다
+    /// @return 후보 수 - 번호는 result(i)로 읽는다
+    int query(int left, int top, int right, int bottom) {
+        resultCount = 0;
+        if (columns == 0) return 0;
+
+        int startColumn = Math.max(0, Math.floorDiv(left - originX, CELL_PIXELS));
+        int startRow = Math.max(0, Math.floorDiv(top - originY, CELL_PIXELS));
+        int endColumn = Math.min(columns - 1, Math.floorDiv(right - 1 - originX, CELL_PIXELS));
+        int endRow = Math.min(rows - 1, Math.floorDiv(bottom - 1 - originY, CELL_PIXELS));
+
+        // 여러 칸에 걸친 오브젝트는 도장 번호로 한 번만 담는다
+        if (++queryStamp == Integer.MAX_VALUE) {
+            Arrays.fill(queryStamps, 0);
+            queryStamp = 1;
+        }
+
+        for (int row = startRow; row <= endRow; row++) {
+            for (int column = startColumn; column <= endColumn; column++) {
+                int cell = row * columns + column;
+                for (int i = cellStarts[cell]; i < cellStarts[cell + 1]; i++) {
+                    int object = cellObjects[i];
+                    if (queryStamps[object] == queryStamp) continue;
+                    queryStamps[object] = queryStamp;
+
+                    if (resultCount == results.length) {
+                        results = Arrays.copyOf(results, resultCount * 2);
+                    }
+                    results[resultCount++] = object;
+                }
+            }
+        }
+        Arrays.sort(results, 0, resultCount);
+        return resultCount;
+    }
+
+    int result(int index) {
+        return results[index];
+    }
+}
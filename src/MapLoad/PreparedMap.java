@@ -0,0 +1,89 @@
+package MapLoad;
+
+import MapLoad.TmxParser.Layer;
+import MapLoad.TmxParser.Tileset;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * 화면에 올리기 직전까지 준비를 마친 맵 하나 - 파싱한 타일셋/레이어(렌더 순서 정렬), GID 조회 테이블,
+ * 잘라 둔 타일 이미지와 그리기 배율별로 확대해 둔 사본, 애니메이션 셀 색인, 충돌 레이어, 풀잎 배치.
+ * 백그라운드 스레드에서 만들어 MapCache에 두었다가 TmxParser가 필드에 옮겨 담기만 하면 맵이 바뀐다.
+ * 커스터마이징(Path/나무)에 따라 달라지는 표는 올릴 때 다시 만든다.
+ * take로 넘겨받은 뒤에는 게임 스레드 소유다 - 복사하지 않고 그대로 올리므로 풀잎 배치(GrassField.ensureTile로
+ * 늦게 채우는 셀), 확대 타일 표(커스터마이징 GID 자리)와 TileAnimation의 현재 프레임은 올린 맵이 바꾸고,
+ * 캐시에 남은 같은 인스턴스를 다시 올리면 그 상태를 이어받는다.
+ */
+final class PreparedMap {
+    final String path;
+    final int mapWidth, mapHeight, tileWidth, tileHeight;
+    final List<Tileset> tilesets;
+    final List<Layer> layers;                       /// renderOrder 순
+    final Layer collisionLayer;                     /// null이면 충돌 없음
+
+    final Tileset[] gidTilesets;
+    final TileAnimation[] gidAnimations;
+    final BufferedImage[] tileImages;               /// 커스터마이징이 없는 타일만 (올릴 때 복사해서 쓴다)
+    final int cachedTileCount;
+    final ScaledTileTable[] scaledTiles;            /// {TILE_SCALE, 원본 1배} - 일반 타일만 채워 둠
+
+    // 애니메이션 셀 색인 (TmxParser의 같은 이름 필드 참고)
+    final int animatedChunkColumns;
+    final int[] animatedCellStarts;
+    final int[] animatedCells;
+    final int[] animatedCellLayers;
+    final TileAnimation[] animatedCellAnimations;
+    final TileAnimation[] mapAnimations;
+
+    final GrassField grassField;
+    final long estimatedBytes;                      /// 캐시 용량 계산용 (레이어 데이터 + 타일 이미지와 확대 사본 + 풀잎 배치)
+
+    PreparedMap(String path, TmxReader map, List<Layer> sortedLayers, Layer collisionLayer,
+                Tileset[] gidTilesets, TileAnimation[] gidAnimations, BufferedImage[] tileImages, int cachedTileCount,
+                ScaledTileTable[] scaledTiles, int animatedChunkColumns, int[] animatedCellStarts, int[] animatedCells, int[] animatedCellLayers,
+                TileAnimation[] animatedCellAnimations, TileAnimation[] mapAnimations, GrassField grassField) {
+        this.path = path;
+        this.mapWidth = map.mapWidth;
+        this.mapHeight = map.mapHeight;
+        this.tileWidth = map.tileWidth;
+        this.tileHeight = map.tileHeight;
+        this.tilesets = List.copyOf(map.tilesets);
+        this.layers = List.copyOf(sortedLayers);
+        this.collisionLayer = collisionLayer;
+        this.gidTilesets = gidTilesets;
+        this.gidAnimations = gidAnimations;
+        this.tileImages = tileImages;
+        this.cachedTileCount = cachedTileCount;
+        this.scaledTiles = scaledTiles;
+        this.animatedChunkColumns = animatedChunkColumns;
+        this.animatedCellStarts = animatedCellStarts;
+        this.animatedCells = animatedCells;
+        this.animatedCellLayers = animatedCellLayers;
+        this.animatedCellAnimations = animatedCellAnimations;
+        this.mapAnimations = mapAnimations;
+        this.grassField = grassField;
+        this.estimatedBytes = estimateBytes();
+    }
+
+    private long estimateBytes() {
+        long bytes = 0;
+        for (Layer layer : layers) {
+            if (layer.data != null) bytes += (long) layer.data.length * Integer.BYTES;
+        }
+        for (BufferedImage image : tileImages) {
+            if (image != null) bytes += (long) image.getWidth() * image.getHeight() * Integer.BYTES;
+        }
+        for (ScaledTileTable table : scaledTiles) {
+            for (int gid = 0; gid < table.images.length; gid++) {
+                BufferedImage image = table.images[gid];
+                if (image != null && image != tileImages[gid]) {
+                    bytes += (long) image.getWidth() * image.getHeight() * Integer.BYTES;
+                }
+            }
+        }
+        bytes += (long) animatedCells.length * Integer.BYTES * 2;
+        bytes += grassField.estimateBytes();
+        return bytes;
+    }
+}
@@ -0,0 +1,60 @@
+package MapLoad;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * 원본 이미지(타일셋 getSubimage 뷰 등)를 목표 크기로 미리 확대해 독립된 래스터로 보관하는 캐시.
+ * 렌더링 루프에서는 확대된 이미지를 그대로 복사만 하면 되므로 매 프레임 스케일링 비용이 없다.
+ * 원본 이미지의 동일성(identity)으로 조회하므로 호출하는 쪽은 같은 원본 객체를 재사용해야 한다.
+ * 맵과 무관한 이미지(풀잎, 배치 오브젝트 스프라이트)만 넣으므로 맵을 바꿔도 비우지 않는다 (맵 타일은 ScaledTileTable).
+ */
+class ScaledImageCache {
+    private static final class Entry {
+        final int width, height;
+        final BufferedImage scaled;
+        final Entry next;   /// 같은 원본을 다른 크기로 그리는 경우 (드묾)
+
+        Entry(int width, int height, BufferedImage scaled, Entry next) {
+            this.width = width;
+            this.height = height;
+            this.scaled = scaled;
+            this.next = next;
+        }
+    }
+
+    private final Map<BufferedImage, Entry> entries = new IdentityHashMap<>();
+    private int imageCount = 0;
+    private long memoryBytes = 0;
+
+    /// 원본을 width x height로 확대한 이미지 반환 (없으면 생성)
+    BufferedImage get(BufferedImage source, int width, int height) {
+        Entry head = entries.get(source);
+        for (Entry entry = head; entry != null; entry = entry.next) {
+            if (entry.width == width && entry.height == height) {
+                return entry.scaled;
+            }
+        }
+
+        BufferedImage scaled = createScaledCopy(source, width, height);
+        entries.put(source, new Entry(width, height, scaled, head));
+        imageCount++;
+        memoryBytes += (long) width * height * 4;
+        return scaled;
+    }
+
+    /// 캐시에 넣지 않고 확대한 사본만 만든다 (GID 표처럼 호출하는 쪽이 따로 보관할 때)
+    static BufferedImage createScaledCopy(BufferedImage source, int width, int height) {
+        BufferedImage scaled = CompatibleImages.create(width, height, source.getTransparency());
+        Graphics2D g2d = scaled.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2d.drawImage(source, 0, 0, width, height, null);
+        g2d.dispose();
+        return scaled;
+    }
+
+    int getImageCount() { return imageCount; }
+    long getMemoryBytes() { return memoryBytes; }
+}
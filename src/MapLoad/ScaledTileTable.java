@@ -0,0 +1,39 @@
+package MapLoad;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * 그리기 배율 하나(TILE_SCALE 또는 원본 1배)에서 GID별로 그릴 크기에 맞춰 확대해 둔 타일 이미지.
+ * renderTileAt과 청크 굽기는 GID로 이 배열을 바로 읽으므로, 타일마다 ScaledImageCache(IdentityHashMap)를 조회하지 않는다.
+ * 일반/애니메이션 타일은 셀 크기, Path 타일은 렌더 테이블의 상자 크기, 나무는 하단(줄기)을 images에, 상단(잎)을 treeTops에 둔다.
+ * 일반 타일은 맵을 준비할 때(백그라운드 스레드) 채워 PreparedMap과 함께 보관하고, 커스터마이징 GID처럼 비어 있는 자리는
+ * TmxParser가 처음 그릴 때 채운다. 커스터마이징이 바뀌면 그 GID 자리만 비운다.
+ * 소프트웨어 렌더러로 그릴 때는 같은 자리에 변환해 둔 RasterSource를 쓴다 (명령마다 이미지로 조회하지 않도록).
+ */
+final class ScaledTileTable {
+    final int pixelScale;
+    final BufferedImage[] images;
+    final BufferedImage[] treeTops;
+    final SoftwareRasterizer.RasterSource[] sources;
+    final SoftwareRasterizer.RasterSource[] treeTopSources;
+
+    ScaledTileTable(int pixelScale, int gidCount) {
+        this.pixelScale = pixelScale;
+        this.images = new BufferedImage[gidCount];
+        this.treeTops = new BufferedImage[gidCount];
+        this.sources = new SoftwareRasterizer.RasterSource[gidCount];
+        this.treeTopSources = new SoftwareRasterizer.RasterSource[gidCount];
+    }
+
+    boolean contains(int gid) {
+        return gid > 0 && gid < images.length;
+    }
+
+    void clear(int gid) {
+        if (!contains(gid)) return;
+        images[gid] = null;
+        treeTops[gid] = null;
+        sources[gid] = null;
+        treeTopSources[gid] = null;
+    }
+}
@@ -0,0 +1,136 @@
+package MapLoad;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * 카메라가 조금씩 이동할 때 이전 프레임의 화면을 재사용하는 스크롤 백버퍼.
+ * 기존 픽셀을 카메라 이동량만큼 copyArea로 밀어내고, 새로 드러난 가장자리 띠만 다시 그린다.
+ * 화면 설정이 있으면 VolatileImage(VRAM)에 두어 밀기와 화면 합성이 가속되고, headless에서는 호환 BufferedImage를 쓴다.
+ * VolatileImage 내용이 사라지면(전체 화면 전환 등) 다음 update에서 전체를 다시 그린다.
+ * 정적 레이어(청크 이미지)만 담고, 플레이어/잔디/나무 같은 동적 요소는 호출하는 쪽에서 매 프레임 위에 그린다.
+ */
+class ScrollingLayerBuffer {
+    /// 화면 좌표 기준 영역을 다시 그리는 콜백 (g2d는 이미 해당 영역으로 clip 되어 있음)
+    interface RegionPainter {
+        void paint(Graphics2D g2d, int x, int y, int width, int height);
+    }
+
+    private VolatileImage volatileImage;     /// 화면 설정이 없으면 null
+    private BufferedImage bufferedImage;     /// volatileImage를 만들 수 없을 때
+    private int width, height;
+    private int cameraX, cameraY;
+    private long contentGeneration = -1;
+    private long repaintedPixels = 0;
+
+    /// 카메라 위치에 맞게 버퍼를 갱신하고 반환 (바로 그려야 한다 - VolatileImage는 다음 프레임까지 내용이 남는다는 보장이 없음)
+    /// @param generation 정적 콘텐츠 세대 - 바뀌면 전체를 다시 그린다
+    Image update(int cameraX, int cameraY, int width, int height, long generation, RegionPainter painter) {
+        repaintedPixels = 0;
+
+        if (!isAllocated() || this.width != width || this.height != height) {
+            allocate(width, height);
+            contentGeneration = -1;
+        }
+        if (volatileImage != null) {
+            int status = CompatibleImages.validate(volatileImage);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                allocate(width, height);
+                contentGeneration = -1;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                contentGeneration = -1;
+            }
+        }
+
+        int dx = cameraX - this.cameraX;
+        int dy = cameraY - this.cameraY;
+
+        if (generation != contentGeneration || Math.abs(dx) >= width || Math.abs(dy) >= height) {
+            repaintRegion(0, 0, width, height, painter);
+        } else if (dx != 0 || dy != 0) {
+            shiftPixels(dx, dy);
+
+            // 새로 드러난 세로 띠 (좌/우)
+            if (dx > 0) {
+                repaintRegion(width - dx, 0, dx, height, painter);
+            } else if (dx < 0) {
+                repaintRegion(0, 0, -dx, height, painter);
+            }
+
+            // 새로 드러난 가로 띠 (상/하) - 세로 띠와 겹치는 모서리는 제외
+            int stripX = dx < 0 ? -dx : 0;
+            int stripWidth = width - Math.abs(dx);
+            if (dy > 0) {
+                repaintRegion(stripX, height - dy, stripWidth, dy, painter);
+            } else if (dy < 0) {
+                repaintRegion(stripX, 0, stripWidth, -dy, painter);
+            }
+        }
+
+        this.cameraX = cameraX;
+        this.cameraY = cameraY;
+        this.contentGeneration = volatileImage != null && volatileImage.contentsLost() ? -1 : generation;
+        return volatileImage != null ? volatileImage : bufferedImage;
+    }
+
+    /// 정적 콘텐츠 일부만 바뀌었을 때(애니메이션 타일) 마지막 update 기준 화면 좌표 영역만 다시 그린다
+    void repaintArea(int x, int y, int areaWidth, int areaHeight, RegionPainter painter) {
+        if (!isAllocated()) return;
+        int left = Math.max(0, x);
+        int top = Math.max(0, y);
+        int right = Math.min(width, x + areaWidth);
+        int bottom = Math.min(height, y + areaHeight);
+        repaintRegion(left, top, right - left, bottom - top, painter);
+    }
+
+    void invalidate() {
+        contentGeneration = -1;
+    }
+
+    private boolean isAllocated() {
+        return volatileImage != null || bufferedImage != null;
+    }
+
+    private void allocate(int width, int height) {
+        this.width = width;
+        this.height = height;
+        if (volatileImage != null) {
+            volatileImage.flush();
+        }
+        volatileImage = CompatibleImages.createVolatile(width, height, Transparency.TRANSLUCENT);
+        bufferedImage = volatileImage == null ? CompatibleImages.create(width, height, Transparency.TRANSLUCENT) : null;
+    }
+
+    private Graphics2D createGraphics() {
+        return volatileImage != null ? volatileImage.createGraphics() : bufferedImage.createGraphics();
+    }
+
+    // 새 화면의 (x, y) = 이전 화면의 (x + dx, y + dy)
+    private void shiftPixels(int dx, int dy) {
+        Graphics2D g2d = createGraphics();
+        g2d.setComposite(AlphaComposite.Src);
+        g2d.copyArea(Math.max(0, dx), Math.max(0, dy), width - Math.abs(dx), height - Math.abs(dy), -dx, -dy);
+        g2d.dispose();
+    }
+
+    private void repaintRegion(int x, int y, int regionWidth, int regionHeight, RegionPainter painter) {
+        if (regionWidth <= 0 || regionHeight <= 0) return;
+
+        Graphics2D g2d = createGraphics();
+        g2d.clipRect(x, y, regionWidth, regionHeight);
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(x, y, regionWidth, regionHeight);
+        g2d.setComposite(AlphaComposite.SrcOver);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        painter.paint(g2d, x, y, regionWidth, regionHeight);
+        g2d.dispose();
+
+        repaintedPixels += (long) regionWidth * regionHeight;
+    }
+
+    /// 마지막 update에서 다시 그린 화면 비율 (0.0 ~ 1.0)
+    double getRepaintedFraction() {
+        return width == 0 || height == 0 ? 0 : (double) repaintedPixels / ((long) width * height);
+    }
+}
@@ -0,0 +1,257 @@
+package MapLoad;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Java2D drawImage 대신 TYPE_INT_ARGB_PRE 프레임버퍼의 int[]에 직접 타일/스프라이트를 쓰는 소프트웨어 렌더러.
+ * 한 프레임 동안 그리기 명령을 순서대로 기록해 두었다가, 화면을 가로 띠(band)로 나눠 ForkJoinPool에서 병렬로 래스터화한다.
+ * 각 띠는 모든 명령을 같은 순서로 자기 행 범위에만 적용하므로 결과는 순차 렌더링과 픽셀 단위로 같다.
+ * 원본 이미지는 처음 그릴 때 premultiplied int[]로 변환해 두므로, 그리는 동안 내용이 바뀌지 않는 이미지만 넘겨야 한다.
+ * 명령은 원시 배열에 병렬로 쌓아 프레임마다 할당하지 않는다. 타일/풀잎처럼 많이 그리는 쪽은 source()로 한 번 변환한
+ * RasterSource를 자기 표에 들고 있다가 넘기고, BufferedImage를 넘기는 경로(스프라이트, 청크)만 이미지별 조회를 한다.
+ */
+class SoftwareRasterizer {
+    private static final int BANDS_PER_THREAD = 2;
+    private static final int CLEAR_COLOR = 0xFF000000;
+
+    /// premultiplied ARGB로 변환된 원본 (알파가 모두 255면 행 단위 arraycopy로 복사)
+    static final class RasterSource {
+        final int[] pixels;
+        final int width, height;
+        final boolean opaque;
+
+        RasterSource(int[] pixels, int width, int height, boolean opaque) {
+            this.pixels = pixels;
+            this.width = width;
+            this.height = height;
+            this.opaque = opaque;
+        }
+    }
+
+    private final ForkJoinPool pool;
+    private final int bandCount;
+    private final Map<BufferedImage, RasterSource> sources = new WeakHashMap<>();
+
+    // 기록된 그리기 명령 (i번째 명령 = 각 배열의 i번째, 목표 크기가 원본과 다르면 최근접 이웃 확대)
+    private RasterSource[] commandSources = new RasterSource[256];
+    private int[] commandXs = new int[256];
+    private int[] commandYs = new int[256];
+    private int[] commandWidths = new int[256];
+    private int[] commandHeights = new int[256];
+    private int commandCount = 0;
+
+    private BufferedImage frameBuffer;
+    private int[] framePixels;
+    private int frameWidth, frameHeight;
+    private double lastRasterizeMillis = 0;
+
+    SoftwareRasterizer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    SoftwareRasterizer(int parallelism) {
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.bandCount = Math.max(1, parallelism * BANDS_PER_THREAD);
+    }
+
+    /// 새 프레임 시작 - 크기가 바뀌면 프레임버퍼를 다시 만든다
+    void beginFrame(int width, int height) {
+        // 지난 프레임의 원본 참조는 남겨 둬도 다음 프레임에 덮어쓰므로 비우지 않는다
+        commandCount = 0;
+        if (frameBuffer == null || frameWidth != width || frameHeight != height) {
+            frameWidth = Math.max(1, width);
+            frameHeight = Math.max(1, height);
+            frameBuffer = new BufferedImage(frameWidth, frameHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+            framePixels = ((DataBufferInt) frameBuffer.getRaster().getDataBuffer()).getData();
+        }
+    }
+
+    /// 원본 크기 그대로 그리기 (이미 확대된 타일/청크 이미지)
+    void draw(BufferedImage image, int x, int y) {
+        if (image == null) return;
+        draw(image, x, y, image.getWidth(), image.getHeight());
+    }
+
+    /// width x height로 확대해 그리기 (스프라이트, 오브젝트)
+    void draw(BufferedImage image, int x, int y, int width, int height) {
+        if (image == null || width <= 0 || height <= 0) return;
+        if (x >= frameWidth || y >= frameHeight || x + width <= 0 || y + height <= 0) return;
+        record(source(image), x, y, width, height);
+    }
+
+    /// 미리 변환해 둔 원본을 크기 그대로 그리기 - 이미지별 조회 없이 명령만 쌓는다
+    void draw(RasterSource source, int x, int y) {
+        if (source == null) return;
+        if (x >= frameWidth || y >= frameHeight || x + source.width <= 0 || y + source.height <= 0) return;
+        record(source, x, y, source.width, source.height);
+    }
+
+    /// 미리 변환해 둔 원본을 width x height로 확대해 그리기
+    void draw(RasterSource source, int x, int y, int width, int height) {
+        if (source == null || width <= 0 || height <= 0) return;
+        if (x >= frameWidth || y >= frameHeight || x + width <= 0 || y + height <= 0) return;
+        record(source, x, y, width, height);
+    }
+
+    private void record(RasterSource source, int x, int y, int width, int height) {
+        if (commandCount == commandSources.length) {
+            int capacity = commandCount * 2;
+            commandSources = Arrays.copyOf(commandSources, capacity);
+            commandXs = Arrays.copyOf(commandXs, capacity);
+            commandYs = Arrays.copyOf(commandYs, capacity);
+            commandWidths = Arrays.copyOf(commandWidths, capacity);
+            commandHeights = Arrays.copyOf(commandHeights, capacity);
+        }
+        commandSources[commandCount] = source;
+        commandXs[commandCount] = x;
+        commandYs[commandCount] = y;
+        commandWidths[commandCount] = width;
+        commandHeights[commandCount] = height;
+        commandCount++;
+    }
+
+    /// 기록된 명령을 띠 단위로 병렬 래스터화하고 프레임버퍼 반환
+    BufferedImage finish() {
+        long start = System.nanoTime();
+
+        int bandHeight = (frameHeight + bandCount - 1) / bandCount;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(bandCount);
+        for (int bandTop = 0; bandTop < frameHeight; bandTop += bandHeight) {
+            int top = bandTop;
+            int bottom = Math.min(frameHeight, bandTop + bandHeight);
+            tasks.add(pool.submit(() -> rasterizeBand(top, bottom)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+
+        lastRasterizeMillis = (System.nanoTime() - start) / 1_000_000.0;
+        return frameBuffer;
+    }
+
+    private void rasterizeBand(int top, int bottom) {
+        Arrays.fill(framePixels, top * frameWidth, bottom * frameWidth, CLEAR_COLOR);
+
+        for (int command = 0; command < commandCount; command++) {
+            RasterSource source = commandSources[command];
+            int x = commandXs[command], y = commandYs[command];
+            int width = commandWidths[command], height = commandHeights[command];
+            int startY = Math.max(top, y);
+            int endY = Math.min(bottom, y + height);
+            if (startY >= endY) continue;
+
+            if (width == source.width && height == source.height) {
+                blit(source, x, y, width, startY, endY);
+            } else {
+                blitScaled(source, x, y, width, height, startY, endY);
+            }
+        }
+    }
+
+    // 1:1 복사 - 불투명 원본은 행 단위 arraycopy, 나머지는 알파 블렌딩
+    private void blit(RasterSource source, int commandX, int commandY, int width, int startY, int endY) {
+        int startX = Math.max(0, commandX);
+        int endX = Math.min(frameWidth, commandX + width);
+        int span = endX - startX;
+        if (span <= 0) return;
+
+        int[] src = source.pixels;
+        int[] dst = framePixels;
+        for (int y = startY; y < endY; y++) {
+            int srcOffset = (y - commandY) * source.width + (startX - commandX);
+            int dstOffset = y * frameWidth + startX;
+            if (source.opaque) {
+                System.arraycopy(src, srcOffset, dst, dstOffset, span);
+            } else {
+                for (int i = 0; i < span; i++) {
+                    dst[dstOffset + i] = blend(src[srcOffset + i], dst[dstOffset + i]);
+                }
+            }
+        }
+    }
+
+    // 최근접 이웃 확대 - 목표 픽셀 중심이 가리키는 원본 픽셀을 고정소수점으로 계산
+    private void blitScaled(RasterSource source, int commandX, int commandY, int width, int height, int startY, int endY) {
+        int startX = Math.max(0, commandX);
+        int endX = Math.min(frameWidth, commandX + width);
+        if (startX >= endX) return;
+
+        long stepX = ((long) source.width << 16) / width;
+        long stepY = ((long) source.height << 16) / height;
+        int[] src = source.pixels;
+        int[] dst = framePixels;
+
+        for (int y = startY; y < endY; y++) {
+            int srcRow = (int) (((y - commandY) * stepY + (stepY >> 1)) >> 16) * source.width;
+            int dstOffset = y * frameWidth;
+            long srcX = (startX - commandX) * stepX + (stepX >> 1);
+            for (int x = startX; x < endX; x++, srcX += stepX) {
+                int argb = src[srcRow + (int) (srcX >> 16)];
+                dst[dstOffset + x] = source.opaque ? argb : blend(argb, dst[dstOffset + x]);
+            }
+        }
+    }
+
+    // premultiplied SrcOver: dst = src + dst * (1 - srcAlpha)
+    private static int blend(int src, int dst) {
+        int alpha = src >>> 24;
+        if (alpha == 255) return src;
+        if (alpha == 0) return dst;
+
+        int inverse = 255 - alpha;
+        int rb = ((dst & 0x00FF00FF) * inverse + 0x00800080) >>> 8 & 0x00FF00FF;
+        int ag = ((dst >>> 8) & 0x00FF00FF) * inverse + 0x00800080 & 0xFF00FF00;
+        return src + (rb | ag);
+    }
+
+    /// 이미 그린 적 있는 이미지의 내용이 바뀌었을 때(애니메이션 셀을 다시 그린 청크 등) 변환해 둔 사본을 버린다
+    void invalidate(BufferedImage image) {
+        sources.remove(image);
+    }
+
+    /// 이미지를 변환한 원본 (처음이면 변환) - 호출하는 쪽 표에 보관해 두고 draw(RasterSource, ...)로 넘긴다
+    RasterSource source(BufferedImage image) {
+        RasterSource source = sources.get(image);
+        if (source == null) {
+            source = convert(image);
+            sources.put(image, source);
+        }
+        return source;
+    }
+
+    private static RasterSource convert(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+        boolean opaque = true;
+        for (int i = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            int alpha = argb >>> 24;
+            if (alpha == 255) continue;
+
+            opaque = false;
+            if (alpha == 0) {
+                pixels[i] = 0;
+            } else {
+                int r = ((argb >> 16) & 0xFF) * alpha / 255;
+                int g = ((argb >> 8) & 0xFF) * alpha / 255;
+                int b = (argb & 0xFF) * alpha / 255;
+                pixels[i] = (alpha << 24) | (r << 16) | (g << 8) | b;
+            }
+        }
+        return new RasterSource(pixels, width, height, opaque);
+    }
+
+    int getBandCount() { return bandCount; }
+    int getCommandCount() { return commandCount; }
+    double getLastRasterizeMillis() { return lastRasterizeMillis; }
+}
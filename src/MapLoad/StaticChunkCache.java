@@ -0,0 +1,180 @@
+package MapLoad;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 정적 레이어(BACK/BUILDINGS/PATHS, FRONT/ALWAYSFRONT)를 레이어 묶음별로 CHUNK_TILES x CHUNK_TILES 타일 단위로
+ * 지정된 픽셀 배율(TILE_SCALE 또는 원본 해상도 1배)의 이미지에 미리 구워두는 캐시.
+ * 청크는 처음 화면에 보일 때 생성되고, 최대 개수를 넘으면 가장 오래 사용되지 않은 청크부터 제거된다(LRU).
+ * 최대 개수는 한 프레임에 그리는 청크 수(reserve)에 맞춰 늘어나고, 메모리 예산을 넘는 영역(맵 전체 렌더링)은
+ * 캐시에 남기지 않고 임시 이미지 하나에 차례로 구워 그린다(getTransientChunk).
+ * 커스터마이징 타일(잔디, 나무, Path 모드)은 청크 경계를 넘어 그려지므로 굽지 않는다
+ * (TmxParser가 레이어의 나머지 셀을 구운 묶음 뒤에 그 셀들만 하나씩 그린다).
+ * 애니메이션 타일은 구울 때의 프레임으로 들어가고, 프레임이 바뀌면 TmxParser가 해당 셀만 청크 이미지 위에서 다시 굽는다.
+ */
+class StaticChunkCache {
+    static final int CHUNK_TILES = 8;
+    private static final int MIN_RESIDENT_CHUNKS = 96;
+    private static final long MAX_RESIDENT_BYTES = 128L << 20;
+
+    /// 청크 하나를 그리는 콜백 (TmxParser가 레이어/타일 이미지를 알고 있으므로 위임)
+    interface ChunkPainter {
+        /// @param g2d 청크 이미지의 Graphics (청크 좌상단이 원점)
+        /// @param chunk 그릴 청크
+        /// @return 타일을 하나라도 그렸는지 (아니면 청크 이미지를 버리고 그리지 않는다)
+        boolean paint(Graphics2D g2d, Chunk chunk);
+    }
+
+    static final class Chunk {
+        final int chunkX, chunkY;
+        final int band;         /// 레이어 묶음 (TmxParser.layerBands)
+        final int tileX, tileY, tilesWide, tilesHigh;
+        final int pixelScale;
+        BufferedImage image;    /// 묶음의 레이어가 이 범위에 타일이 없으면 null
+        long lastUsedFrame;
+        long animationTick;     /// 이 청크 이미지에 반영된 애니메이션 타일 틱
+
+        Chunk(int chunkX, int chunkY, int band, int mapWidth, int mapHeight, int pixelScale) {
+            this.chunkX = chunkX;
+            this.pixelScale = pixelScale;
+            this.chunkY = chunkY;
+            this.band = band;
+            this.tileX = chunkX * CHUNK_TILES;
+            this.tileY = chunkY * CHUNK_TILES;
+            this.tilesWide = Math.min(CHUNK_TILES, mapWidth - tileX);
+            this.tilesHigh = Math.min(CHUNK_TILES, mapHeight - tileY);
+        }
+    }
+
+    private final ChunkPainter painter;
+    private final int pixelScale;
+    private final List<Chunk> residentChunks = new ArrayList<>();
+    private Chunk[] grid = new Chunk[0];
+    private int mapWidth, mapHeight, chunksX, chunksY, bandCount;
+    private int scaledTileWidth, scaledTileHeight;
+    private int capacity = MIN_RESIDENT_CHUNKS;
+    private BufferedImage transientImage;
+    private long frameCounter = 0;
+    private int bakedCount = 0;
+    private long generation = 0;     /// 구워진 내용이 바뀔 때마다 증가 (스크롤 버퍼 무효화용)
+
+    StaticChunkCache(ChunkPainter painter, int pixelScale) {
+        this.painter = painter;
+        this.pixelScale = pixelScale;
+    }
+
+    /// 맵이 바뀌면 그리드를 다시 만들고 모든 청크를 버린다
+    void reset(int mapWidth, int mapHeight, int bandCount, int tileWidth, int tileHeight) {
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.bandCount = bandCount;
+        this.scaledTileWidth = tileWidth * pixelScale;
+        this.scaledTileHeight = tileHeight * pixelScale;
+        this.chunksX = (mapWidth + CHUNK_TILES - 1) / CHUNK_TILES;
+        this.chunksY = (mapHeight + CHUNK_TILES - 1) / CHUNK_TILES;
+        this.grid = new Chunk[chunksX * chunksY * bandCount];
+        residentChunks.clear();
+        capacity = MIN_RESIDENT_CHUNKS;
+        transientImage = null;
+        generation++;
+    }
+
+    /// 새 프레임 시작 (LRU 사용 시각 갱신용)
+    void beginFrame() {
+        frameCounter++;
+    }
+
+    /// 한 프레임에 chunksWide x chunksHigh 청크 범위를 모든 묶음에 대해 그릴 수 있도록 최대 개수를 늘린다
+    /// (스크롤하면 한 줄씩 새로 보이므로 한 줄씩 여유를 둔다)
+    /// @return 메모리 예산 안이면 true, 넘으면 false (getTransientChunk로 캐시 없이 그려야 함)
+    boolean reserve(int chunksWide, int chunksHigh) {
+        long needed = (long) (chunksWide + 1) * (chunksHigh + 1) * bandCount;
+        long chunkBytes = (long) CHUNK_TILES * scaledTileWidth * CHUNK_TILES * scaledTileHeight * 4;
+        if (needed * chunkBytes > MAX_RESIDENT_BYTES) return false;
+
+        capacity = Math.max(capacity, (int) needed);
+        return true;
+    }
+
+    /// 청크를 가져오고, 없으면 굽는다
+    Chunk getChunk(int chunkX, int chunkY, int band) {
+        if (chunkX < 0 || chunkY < 0 || chunkX >= chunksX || chunkY >= chunksY || band < 0 || band >= bandCount) return null;
+
+        int slot = (chunkY * chunksX + chunkX) * bandCount + band;
+        Chunk chunk = grid[slot];
+        if (chunk == null) {
+            chunk = bakeChunk(chunkX, chunkY, band);
+            chunk.lastUsedFrame = frameCounter;     // 제거 대상을 고르기 전에 - 방금 구운 청크가 가장 오래된 것으로 보이지 않도록
+            grid[slot] = chunk;
+            residentChunks.add(chunk);
+            evictIfNeeded();
+        }
+        chunk.lastUsedFrame = frameCounter;
+        return chunk;
+    }
+
+    /// 구워 둔 청크가 있으면 그대로, 없으면 캐시에 넣지 않고 임시 이미지에 구워서 돌려준다
+    /// 임시 이미지는 다음 호출에서 덮어쓰므로 바로 그려야 한다 (그리기를 나중에 하는 소프트웨어 렌더러에는 쓸 수 없음)
+    Chunk getTransientChunk(int chunkX, int chunkY, int band) {
+        if (chunkX < 0 || chunkY < 0 || chunkX >= chunksX || chunkY >= chunksY || band < 0 || band >= bandCount) return null;
+
+        Chunk resident = grid[(chunkY * chunksX + chunkX) * bandCount + band];
+        if (resident != null) {
+            resident.lastUsedFrame = frameCounter;
+            return resident;
+        }
+
+        if (transientImage == null) {
+            transientImage = CompatibleImages.create(CHUNK_TILES * scaledTileWidth, CHUNK_TILES * scaledTileHeight,
+                    Transparency.TRANSLUCENT);
+        }
+        Chunk chunk = new Chunk(chunkX, chunkY, band, mapWidth, mapHeight, pixelScale);
+        Graphics2D g2d = transientImage.createGraphics();
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(0, 0, transientImage.getWidth(), transientImage.getHeight());
+        g2d.setComposite(AlphaComposite.SrcOver);
+        if (paint(g2d, chunk)) {
+            chunk.image = transientImage;
+        }
+        return chunk;
+    }
+
+    private Chunk bakeChunk(int chunkX, int chunkY, int band) {
+        Chunk chunk = new Chunk(chunkX, chunkY, band, mapWidth, mapHeight, pixelScale);
+        chunk.image = CompatibleImages.create(chunk.tilesWide * scaledTileWidth, chunk.tilesHigh * scaledTileHeight,
+                Transparency.TRANSLUCENT);
+        if (!paint(chunk.image.createGraphics(), chunk)) {
+            chunk.image = null;
+        }
+        return chunk;
+    }
+
+    private boolean paint(Graphics2D g2d, Chunk chunk) {
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        boolean painted = painter.paint(g2d, chunk);
+        g2d.dispose();
+        bakedCount++;
+        return painted;
+    }
+
+    private void evictIfNeeded() {
+        while (residentChunks.size() > capacity) {
+            int oldestIndex = 0;
+            for (int i = 1; i < residentChunks.size(); i++) {
+                if (residentChunks.get(i).lastUsedFrame < residentChunks.get(oldestIndex).lastUsedFrame) {
+                    oldestIndex = i;
+                }
+            }
+            Chunk oldest = residentChunks.remove(oldestIndex);
+            int slot = (oldest.chunkY * chunksX + oldest.chunkX) * bandCount + oldest.band;
+            grid[slot] = null;
+        }
+    }
+
+    int getResidentCount() { return residentChunks.size(); }
+    int getBakedCount() { return bakedCount; }
+    long getGeneration() { return generation; }
+}
@@ -0,0 +1,45 @@
+package MapLoad;
+
+/**
+ * TMX 타일셋의 &lt;animation&gt; 정의 하나 - 프레임별 GID와 누적 종료 시각(ms)을 배열로 보관한다.
+ * 모든 애니메이션은 TmxParser의 전역 시계 하나로 진행되므로, 같은 타일을 쓰는 셀은 항상 같은 프레임을 보여준다.
+ */
+class TileAnimation {
+    final int gid;                  /// 애니메이션이 정의된 타일 (맵 데이터에 들어 있는 GID)
+    final int[] frameGids;
+    final int[] frameEnds;          /// 프레임 i는 [frameEnds[i-1], frameEnds[i]) 구간에 표시
+    final int totalDuration;
+
+    int currentFrame = 0;
+    long lastChangeTick = 0;        /// 마지막으로 프레임이 바뀐 애니메이션 틱 (청크/스크롤 버퍼 갱신 판단용)
+
+    TileAnimation(int gid, int[] frameGids, int[] durations) {
+        this.gid = gid;
+        this.frameGids = frameGids;
+        this.frameEnds = new int[durations.length];
+        int time = 0;
+        for (int i = 0; i < durations.length; i++) {
+            time += Math.max(1, durations[i]);
+            frameEnds[i] = time;
+        }
+        this.totalDuration = time;
+    }
+
+    /// 전역 시계에 맞춰 현재 프레임을 갱신하고, 프레임이 바뀌었으면 true
+    boolean advance(long clockMillis, long tick) {
+        int time = (int) (clockMillis % totalDuration);
+        int frame = 0;
+        while (frameEnds[frame] <= time) {
+            frame++;
+        }
+        if (frame == currentFrame) return false;
+
+        currentFrame = frame;
+        lastChangeTick = tick;
+        return true;
+    }
+
+    int currentGid() {
+        return frameGids[currentFrame];
+    }
+}
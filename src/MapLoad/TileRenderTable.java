@@ -0,0 +1,197 @@
+package MapLoad;
+
+import MapLoad.TmxParser.PathTileCustomization;
+import MapLoad.TmxParser.TreeTileCustomization;
+
+/**
+ * GID별로 어떻게 그릴지(일반, 애니메이션, 잔디, Path 모드, 나무)를 맵을 불러올 때 미리 정해 둔 표.
+ * 커스터마이징 타일은 셀 좌상단 기준 그리기 위치/크기까지 두 배율(TILE_SCALE, 원본 1배)로 계산해 두므로,
+ * 렌더링 루프에서는 배열 하나를 읽고 switch 하면 되고 맵 조회나 모드별 비율 계산을 하지 않는다.
+ * 상자가 셀 밖으로 넘치는 최대 타일 수(나무 잎 등)도 함께 구해 두고, 화면 컬링 여유로 쓴다.
+ */
+class TileRenderTable {
+    static final byte PLAIN = 0;
+    static final byte ANIMATED = 1;         /// 애니메이션 타일 - 현재 프레임 GID로 그림
+    static final byte GRASS = 2;
+    static final byte PATH = 3;             /// Path 모드 (STRETCH, ASPECT_FIT 등) - 상자 하나
+    static final byte TALL_PATH = 4;        /// ORIGINAL_SIZE Path 타일 (그루터기, 바위 등) - 발 Y로 정렬해서 그림
+    static final byte TREE = 5;             /// 나무 - 하단(줄기) 상자 + 상단(잎) 상자, 발 Y로 정렬해서 그림
+
+    // GID당 [하단/단일 x, y, width, height, 상단 x, y, width, height] (셀 좌상단 기준 상대 좌표)
+    static final int BOX_STRIDE = 8;
+
+    // 잔디는 상자 없이 GrassRenderer가 셀 안에 흩뿌리는데, 풀잎이 셀 안 아무 곳에서나 타일 크기만큼 그려지므로
+    // 셀 끝쪽 풀잎은 이웃 셀을 지나 한 칸 더 걸친다
+    private static final int GRASS_OVERDRAW_TILES = 2;
+
+    static final TileRenderTable EMPTY = new TileRenderTable(0);
+
+    private final byte[] kinds;
+    private final int[] scaledBoxes;        // drawScale == TILE_SCALE
+    private final int[] nativeBoxes;        // drawScale == 1
+
+    // 어떤 타일이든 자기 셀 밖으로 그리는 최대 범위 (타일 단위, 두 배율 중 큰 값)
+    private int overdrawLeft, overdrawTop, overdrawRight, overdrawBottom;
+
+    private TileRenderTable(int gidCount) {
+        kinds = new byte[gidCount];
+        scaledBoxes = new int[gidCount * BOX_STRIDE];
+        nativeBoxes = new int[gidCount * BOX_STRIDE];
+    }
+
+    /// 테이블은 GID 수만큼 (배열 인덱스 = GID), 셀 크기는 맵 타일 크기(원본 픽셀)
+    static TileRenderTable compile(PathTileCustomization[] paths, TreeTileCustomization[] trees,
+                                   TileAnimation[] animations, int tileWidth, int tileHeight) {
+        TileRenderTable table = new TileRenderTable(paths.length);
+        for (int gid = 1; gid < paths.length; gid++) {
+            if (trees[gid] != null) {
+                table.kinds[gid] = TREE;
+                table.compileTree(gid, trees[gid], tileWidth, tileHeight);
+            } else if (paths[gid] != null) {
+                PathTileCustomization customization = paths[gid];
+                if (customization.isGrass) {
+                    table.kinds[gid] = GRASS;
+                    table.includeOverdraw(-GRASS_OVERDRAW_TILES, -GRASS_OVERDRAW_TILES,
+                            GRASS_OVERDRAW_TILES + 1, GRASS_OVERDRAW_TILES + 1, 1, 1);
+                    continue;
+                }
+                boolean tall = customization.renderMode == PathTileCustomization.RenderMode.ORIGINAL_SIZE;
+                table.kinds[gid] = tall ? TALL_PATH : PATH;
+                table.compilePath(gid, customization, tileWidth, tileHeight);
+            } else if (animations[gid] != null) {
+                table.kinds[gid] = ANIMATED;
+            }
+        }
+        table.computeOverdraw(tileWidth, tileHeight);
+        return table;
+    }
+
+    private void computeOverdraw(int tileWidth, int tileHeight) {
+        for (int gid = 1; gid < kinds.length; gid++) {
+            if (kinds[gid] < PATH) continue;
+            int boxCount = kinds[gid] == TREE ? 2 : 1;
+            for (int scale : new int[]{TmxParser.TILE_SCALE, 1}) {
+                int[] boxes = boxes(scale);
+                for (int box = 0; box < boxCount; box++) {
+                    int base = gid * BOX_STRIDE + box * 4;
+                    includeOverdraw(boxes[base], boxes[base + 1], boxes[base] + boxes[base + 2],
+                            boxes[base + 1] + boxes[base + 3], tileWidth * scale, tileHeight * scale);
+                }
+            }
+        }
+    }
+
+    // 셀 좌상단 기준 [left, right) x [top, bottom) 영역이 셀 밖으로 몇 타일 넘치는지 반영
+    private void includeOverdraw(int left, int top, int right, int bottom, int cellWidth, int cellHeight) {
+        overdrawLeft = Math.max(overdrawLeft, ceilTiles(-left, cellWidth));
+        overdrawTop = Math.max(overdrawTop, ceilTiles(-top, cellHeight));
+        overdrawRight = Math.max(overdrawRight, ceilTiles(right - cellWidth, cellWidth));
+        overdrawBottom = Math.max(overdrawBottom, ceilTiles(bottom - cellHeight, cellHeight));
+    }
+
+    private static int ceilTiles(int pixels, int cellSize) {
+        return pixels <= 0 ? 0 : (pixels + cellSize - 1) / cellSize;
+    }
+
+    private void compilePath(int gid, PathTileCustomization customization, int tileWidth, int tileHeight) {
+        for (int scale : new int[]{TmxParser.TILE_SCALE, 1}) {
+            computeBox(boxes(scale), gid * BOX_STRIDE, customization.renderMode,
+                    customization.tileWidth, customization.tileHeight, customization.offsetX, customization.offsetY,
+                    customization.topAligned, tileWidth * scale, tileHeight * scale, scale);
+        }
+    }
+
+    private void compileTree(int gid, TreeTileCustomization customization, int tileWidth, int tileHeight) {
+        for (int scale : new int[]{TmxParser.TILE_SCALE, 1}) {
+            int[] boxes = boxes(scale);
+            int base = gid * BOX_STRIDE;
+            int cellWidth = tileWidth * scale;
+            int cellHeight = tileHeight * scale;
+            computeBox(boxes, base, customization.renderMode,
+                    customization.bottomTileWidth, customization.bottomTileHeight,
+                    customization.bottomOffsetX, customization.bottomOffsetY, false, cellWidth, cellHeight, scale);
+            // 상단(잎)은 한 타일 위 셀 기준
+            computeBox(boxes, base + 4, customization.renderMode,
+                    customization.topTileWidth, customization.topTileHeight,
+                    customization.topOffsetX, customization.topOffsetY, false, cellWidth, cellHeight, scale);
+            boxes[base + 5] -= cellHeight;
+        }
+    }
+
+    // 모드별 배치 규칙 - 오프셋은 TILE_SCALE 기준 화면 픽셀이므로 배율에 맞춰 환산
+    private static void computeBox(int[] boxes, int base, PathTileCustomization.RenderMode renderMode,
+                                   int sourceWidth, int sourceHeight, int offsetX, int offsetY, boolean topAligned,
+                                   int cellWidth, int cellHeight, int scale) {
+        int scaledOffsetX = offsetX * scale / TmxParser.TILE_SCALE;
+        int scaledOffsetY = offsetY * scale / TmxParser.TILE_SCALE;
+        int x = scaledOffsetX;
+        int y = scaledOffsetY;
+        int width = cellWidth;
+        int height = cellHeight;
+
+        switch (renderMode) {
+            case STRETCH:
+                break;
+
+            case ASPECT_FIT:
+                double fit = Math.min((double) cellWidth / sourceWidth, (double) cellHeight / sourceHeight);
+                width = (int) (sourceWidth * fit);
+                height = (int) (sourceHeight * fit);
+                x = (cellWidth - width) / 2 + scaledOffsetX;
+                y = (cellHeight - height) / 2 + scaledOffsetY;
+                break;
+
+            case ASPECT_FILL:
+                double fill = Math.max((double) cellWidth / sourceWidth, (double) cellHeight / sourceHeight);
+                width = (int) (sourceWidth * fill);
+                height = (int) (sourceHeight * fill);
+                y = cellHeight - height + scaledOffsetY;
+                break;
+
+            case ORIGINAL_SIZE:
+                width = sourceWidth * scale;
+                height = sourceHeight * scale;
+                if (!topAligned) {
+                    y = cellHeight - height + scaledOffsetY;
+                }
+                break;
+
+            case CENTER:
+                width = sourceWidth * scale / TmxParser.TILE_SCALE;
+                height = sourceHeight * scale / TmxParser.TILE_SCALE;
+                x = (cellWidth - width) / 2 + scaledOffsetX;
+                y = (cellHeight - height) / 2 + scaledOffsetY;
+                break;
+        }
+
+        boxes[base] = x;
+        boxes[base + 1] = y;
+        boxes[base + 2] = width;
+        boxes[base + 3] = height;
+    }
+
+    byte kind(int gid) {
+        return gid > 0 && gid < kinds.length ? kinds[gid] : PLAIN;
+    }
+
+    /// drawScale(TILE_SCALE 또는 1)에 맞는 상자 배열 - GID의 상자는 gid * BOX_STRIDE부터
+    int[] boxes(int drawScale) {
+        return drawScale == 1 ? nativeBoxes : scaledBoxes;
+    }
+
+    /// 보이는 타일 범위에 이 여유를 더하면 화면 밖 셀에서 넘쳐 들어오는 이미지(나무 잎 등)까지 그려진다
+    /// 셀 (x, y)는 x - overdrawLeft ~ x + overdrawRight, y - overdrawTop ~ y + overdrawBottom 타일 범위에 그려진다
+    int overdrawLeft() { return overdrawLeft; }
+    int overdrawTop() { return overdrawTop; }
+    int overdrawRight() { return overdrawRight; }
+    int overdrawBottom() { return overdrawBottom; }
+
+    /// 청크에 굽지 않고 셀 목록으로 남겨 매 프레임 그리는 종류
+    static boolean isCustomized(byte kind) {
+        return kind >= GRASS;
+    }
+
+    static boolean isDepthSorted(byte kind) {
+        return kind >= TALL_PATH;
+    }
+}
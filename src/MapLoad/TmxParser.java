@@ -1,16 +1,16 @@
 package MapLoad;
 
 import javax.swing.*;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import org.w3c.dom.*;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import javax.imageio.ImageIO;
 import java.io.File;
+import java.lang.management.ManagementFactory;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.swing.Timer;
 import java.util.stream.Collectors;
 
@@ -27,16 +27,24 @@ public class TmxParser {
             "ALWAYSFRONT", 4
     );
 
-    private static final int TILE_SCALE = 3;
+    public static final int TILE_SCALE = 3;
     private static final int GAME_FPS = 60;
     private static final int MOVE_SPEED = 5;
+    private static final int HITBOX_INSET_X = 4;                       // 충돌 판정 상자: 스프라이트 좌우에서 안쪽으로 (화면 픽셀)
+    private static final int HITBOX_TOP_FROM_BOTTOM = 23;              // 스프라이트 아래쪽에서 상자 위쪽까지 (발 부분만 판정)
+    private static final int HITBOX_BOTTOM_FROM_BOTTOM = 1;
+    private static final int GRASS_DISTURB_MARGIN = TILE_SCALE * 2;     // 발 옆을 스치는 풀잎까지 (화면 픽셀)
+    private static final int PREFETCH_DISTANCE_TILES = 8;              // 전환 트리거가 이만큼 (타일) 가까우면 도착 맵을 미리 준비
+    private static final long PREPARED_MAP_CACHE_BYTES = 64L * 1024 * 1024;
+    private static final long IMAGE_CACHE_BYTES = 32L * 1024 * 1024;        // 디코딩한 PNG (쓰고 있는 이미지는 한도와 무관하게 유지)
 
     // Inner Classes
     static class Tileset {
         int firstGid, tileWidth, tileHeight, tileCount, columns;
         String name, imagePath;
         BufferedImage image;
-        final Map<Integer, BufferedImage> tileCache = new HashMap<>();
+        BufferedImage[] tiles;                                  /// 잘라낸 타일 (타일셋 내부 ID로 인덱싱)
+        final List<TileAnimation> animations = new ArrayList<>();
     }
 
     static class Layer {
@@ -47,10 +55,11 @@ public class TmxParser {
     }
 
     private static class MapTransition {
-        final String targetMapPath;
+        final String sourceMapPath, targetMapPath;
         final int triggerTileX, triggerTileY, destinationTileX, destinationTileY;
 
-        MapTransition(String targetMapPath, int triggerX, int triggerY, int destX, int destY) {
+        MapTransition(String sourceMapPath, String targetMapPath, int triggerX, int triggerY, int destX, int destY) {
+            this.sourceMapPath = sourceMapPath;
             this.targetMapPath = targetMapPath;
             this.triggerTileX = triggerX;
             this.triggerTileY = triggerY;
@@ -65,11 +74,13 @@ public class TmxParser {
         final int startY; // 새로 추가: 이미지에서 자르기 시작할 Y 좌표
         final RenderMode renderMode;
         final boolean isGrass;
+        final boolean topAligned;   // ORIGINAL_SIZE 이미지를 셀 아래쪽이 아니라 위쪽에 맞춘다 (나무/돌)
 
         public enum RenderMode { STRETCH, ASPECT_FIT, ASPECT_FILL, ORIGINAL_SIZE, CENTER }
         // 새로운 생성자 (startY 지원)
         PathTileCustomization(String imagePath, int targetTileIndex, int tileWidth, int tileHeight,
-                              RenderMode renderMode, int offsetX, int offsetY, int startY, boolean isGrass) {
+                              RenderMode renderMode, int offsetX, int offsetY, int startY, boolean isGrass,
+                              boolean topAligned) {
             this.imagePath = imagePath;
             this.targetTileIndex = targetTileIndex;
             this.tileWidth = tileWidth;
@@ -79,6 +90,7 @@ public class TmxParser {
             this.offsetY = offsetY;
             this.startY = startY;
             this.isGrass = isGrass;
+            this.topAligned = topAligned;
         }
     }
 
@@ -88,6 +100,8 @@ public class TmxParser {
         final int targetTileIndex, tileWidth, tileHeight;
         final PathTileCustomization.RenderMode renderMode;
         final int offsetX, offsetY, startY;
+        BufferedImage sprite;           /// 배치할 때 한 번 잘라 둔 이미지 (같은 영역을 쓰는 오브젝트끼리 공유, 원본이 없으면 null)
+        SoftwareRasterizer.RasterSource spriteSource;   /// 소프트웨어 렌더러용 sprite 변환 결과 (처음 그릴 때)
 
         PositionedObject(int tileX, int tileY, String imagePath, int targetTileIndex,
                          int tileWidth, int tileHeight, PathTileCustomization.RenderMode renderMode,
@@ -118,30 +132,152 @@ public class TmxParser {
 
     private final List<Tileset> tilesets = new ArrayList<>();
     private final List<Layer> layers = new ArrayList<>();
-    private final Map<String, BufferedImage> preloadedImages = new ConcurrentHashMap<>();
-    private final Map<Integer, Tileset> gidToTilesetCache = new HashMap<>();
-    private final Map<Integer, BufferedImage> globalTileCache = new ConcurrentHashMap<>();
+    private final ImageAssets imageAssets;        // resource/ PNG 이름 색인 - 처음 쓸 때 디코딩
     private final Map<Integer, PathTileCustomization> pathTileCustomizations = new HashMap<>();
+
+    // GID로 바로 인덱싱하는 조회 테이블 (맵을 불러올 때 최대 GID + 1 크기로 생성) - 렌더링 루프에서 박싱/해싱 없이 조회
+    // gidTileImages는 맵을 준비할 때 잘라 둔 타일로 시작하고, 커스터마이징 타일처럼 비어 있는 자리는 그릴 때 잘라서 채운다
+    private Tileset[] gidTilesets = new Tileset[0];
+    private BufferedImage[] gidTileImages = new BufferedImage[0];
+    private PathTileCustomization[] gidPathCustomizations = new PathTileCustomization[0];
+    private TreeTileCustomization[] gidTreeCustomizations = new TreeTileCustomization[0];
+    private TileAnimation[] gidAnimations = new TileAnimation[0];
+    private int cachedTileCount = 0;
+    private TileRenderTable renderTable = TileRenderTable.EMPTY;       // GID별 그리기 방식 + 커스터마이징 배치
+    // 그리기 배율별로 GID 자리에 확대해 둔 타일 ([0]: TILE_SCALE, [1]: 원본 1배) - 타일마다 ScaledImageCache를 조회하지 않도록
+    private ScaledTileTable[] scaledTiles = {new ScaledTileTable(TILE_SCALE, 0), new ScaledTileTable(1, 0)};
     private final Map<String, BufferedImage> customPathImages = new HashMap<>();
-    private final Set<String> keysPressed = new HashSet<>();
+    private final ScaledImageCache scaledImageCache = new ScaledImageCache();
+    private final Set<String> keysPressed = ConcurrentHashMap.newKeySet();
     private final List<MapTransition> mapTransitions = new ArrayList<>();
+    private final MapCache preparedMaps = new MapCache(PREPARED_MAP_CACHE_BYTES);     // 준비된 맵 LRU + 전환 미리 불러오기
 
+    private final boolean headless;                 // 창 없이 이미지로만 렌더링 (frame/canvas/displaySurface 모두 null)
+    private boolean firstFrameReported;
+    private boolean blitReportEnabled;              // 첫 프레임 뒤 타일 복사 속도 측정 (--blit-report, 기본 꺼짐)
+    private boolean playerInRegionRenders;          // renderRegion에 플레이어를 포함할지 (헤드리스 기본값: 제외)
     private final JFrame frame;
     private final TileMapCanvas canvas;
+    private final Component displaySurface;        // 실제로 화면에 붙는 컴포넌트 (수동: canvas, 능동: Canvas)
+    private final ActiveRenderLoop activeRenderLoop; // 능동 렌더링 모드가 아니면 null
     private final SpriteRenderer sprite;
     private final Camera camera;
     private final GrassRenderer grassRenderer;
 
     private String currentMapPath = "";
     private Layer collisionLayer = null;
+    private File mapCacheDirectory;     // null이 아니면 맵마다 컴파일된 .tmxb를 이 폴더에 두고 TMX 대신 읽는다
 
     private final List<PositionedObject> positionedObjects = new ArrayList<>();
+    // 배치 오브젝트 공간 색인 - 오브젝트가 추가되거나 맵 타일 크기가 바뀌면 다음 렌더링 전에 다시 만든다
+    private final ObjectGrid objectGrid = new ObjectGrid();
+    private final Map<String, BufferedImage> objectSprites = new HashMap<>();
+    private int[] objectLefts = new int[0], objectTops = new int[0], objectRights = new int[0], objectBottoms = new int[0];
+    private boolean objectGridDirty = false;
+    private int objectGridTileWidth, objectGridTileHeight;
+
+    private final StaticChunkCache staticChunkCache = new StaticChunkCache(this::paintStaticChunk, TILE_SCALE);
+    private boolean staticChunkCacheEnabled = true;
+
+    // 원본 해상도(1배) 프레임버퍼 모드: 월드를 작은 버퍼에 1배로 그린 뒤 화면에 한 번만 정수 배율로 확대
+    private final StaticChunkCache nativeChunkCache = new StaticChunkCache(this::paintStaticChunk, 1);
+    private boolean nativeResolutionEnabled = false;
+    private BufferedImage nativeFrameBuffer;
+    private boolean fullscreen = false;
+
+    // 현재 그리는 대상의 픽셀 배율 (기본 TILE_SCALE, 원본 해상도 프레임버퍼에 그릴 때만 1)
+    private int drawScale = TILE_SCALE;
+
+    // Java2D 대신 int[] 프레임버퍼에 직접 그리는 소프트웨어 렌더러 (처음 켤 때 생성, F9로 전환해 같은 장면 비교)
+    private SoftwareRasterizer softwareRasterizer;
+    private boolean softwareRenderingEnabled = false;
+    private SoftwareRasterizer rasterTarget;    // 소프트웨어 렌더러로 기록 중인 프레임에만 설정
+
+    // 단계별 프레임 시간 (F8로 CSV 기록 시작/중지)
+    private final FrameProfiler profiler = new FrameProfiler();
+
+    // 창이 뜬 뒤 맵/플레이어/렌더링 설정은 게임 스레드 하나만 바꾼다 (능동 렌더링: 렌더링 스레드, 수동: Swing Timer가 도는 EDT)
+    // 키 입력처럼 다른 스레드에서 오는 변경은 큐에 넣고, 게임 스레드가 다음 갱신을 시작할 때 순서대로 실행한다
+    private final Queue<Runnable> gameThreadTasks = new ConcurrentLinkedQueue<>();
+    private volatile Thread gameThread;         // 첫 갱신에서 정해진다 (그 전에는 설정 코드가 어느 스레드에서든 바로 실행)
+
+    // 플레이어/오브젝트/큰 타일(나무, 그루터기 등)을 발 Y 순서로 그리기 위한 프레임별 목록 (뒤 레이어 패스에서 채움)
+    private final DepthSortedDrawList depthSortedDrawList = new DepthSortedDrawList();
+
+    // 디버그 HUD 패널 - 표시 값이 바뀔 때만 이미지로 다시 그리고, 평소에는 패널당 한 번 복사
+    private static final Font HUD_FONT = new Font("Arial", Font.BOLD, 12);
+    private final HudPanel mainInfoPanel = new HudPanel(10, this::paintMainInfoPanel);
+    private final HudPanel mapDetailPanel = new HudPanel(19, this::paintMapDetailPanel);
+    private final HudPanel systemInfoPanel = new HudPanel(4, this::paintSystemInfoPanel);
+    // 매 프레임 바뀌는 측정값(스크롤 다시 그린 비율, 래스터라이저 명령 수/시간)은 이 간격으로만 읽어서 패널을 다시 그린다
+    private static final long HUD_SAMPLE_NANOS = 250_000_000L;
+    private long hudSampledAt = System.nanoTime() - HUD_SAMPLE_NANOS;     // 첫 프레임에서 바로 읽도록
+    private long hudScrollRepaintedPermille = 0;   // 0.1% 단위
+    private long hudRasterizeCommands = 0;
+    private long hudRasterizeCentimillis = 0;      // 0.01ms 단위
+    private int mapLoadCount = 0;               // 레이어 목록이 바뀐 것을 HUD가 알 수 있도록 맵을 불러올 때마다 증가
+    private volatile int keysVersion = 0;       // 눌린 키 집합이 바뀔 때마다 증가
+
+    // 카메라 이동 시 이전 프레임을 밀어서 재사용하는 정적 레이어 버퍼 (레이어 묶음마다 하나)
+    // 기본은 꺼 둔다 - cameraScroll 벤치마크에서 청크를 바로 그리는 쪽이 더 빨랐다 (--scroll-blit으로 켬)
+    private ScrollingLayerBuffer[] scrollBuffers = new ScrollingLayerBuffer[0];
+    private boolean scrollBlitEnabled = false;
+    private long[] scrollAnimationTicks = new long[0];          // 스크롤 버퍼별로 반영된 애니메이션 틱
+
+    // TMX <animation> 타일 - 전역 시계 하나로 진행하고, 프레임이 바뀐 셀만 청크/스크롤 버퍼에서 다시 그린다
+    private TileAnimation[] mapAnimations = new TileAnimation[0];      // 현재 맵 데이터에 실제로 쓰인 애니메이션
+    private final long animationClockStart = System.nanoTime();
+    private long animationTick = 0;                                     // 어떤 애니메이션이든 프레임이 바뀔 때마다 증가
+
+    // 애니메이션 셀 색인 - 청크(chunkY * chunkColumns + chunkX)별 구간, 구간 안은 타일 인덱스 오름차순
+    private int animatedChunkColumns = 0;
+    private int[] animatedCellStarts = new int[1];
+    private int[] animatedCells = new int[0];                   // 타일 인덱스 y * mapWidth + x
+    private int[] animatedCellLayers = new int[0];
+    private TileAnimation[] animatedCellAnimations = new TileAnimation[0];
+
+    // 패스(뒤/앞)별 그리기 순서 - 0 이상은 청크에 굽는 레이어 묶음, 음수(~layerIndex)는 그 레이어에서 하나씩 그리는 셀
+    // 커스터마이징 셀은 타일 밖으로 넘치므로 굽지 않고, 레이어의 나머지 셀을 구운 묶음 바로 뒤에서 셀 목록대로 그린다
+    // 행 순서로 그 뒤에 오면서 넘친 이미지 위를 덮던 같은 레이어의 일반 셀도 목록에 넣어 원래 그리기 순서를 지킨다
+    // (하나씩 그리는 셀이 있는 레이어에서 묶음을 끊으므로 다음 레이어는 그 위에 그려진다)
+    private int[][] passSteps = {new int[0], new int[0]};
+    private int[] layerBands = new int[0];                      // layerIndex -> 묶음 (구울 셀이 없거나 안 보이면 -1)
+    private int[][] layerDirectCells = new int[0][];            // layerIndex -> 하나씩 그리는 셀 인덱스 y * width + x (오름차순)
+    private int bandCount = 0;
+
+    // 능동 렌더링 보간용: 마지막 고정 갱신 직전의 플레이어 위치
+    private int previousPlayerX, previousPlayerY;
 
     public TmxParser() {
-        preloadAllPngImages();
+        this(false);
+    }
+
+    /// @param activeRendering true면 전용 스레드 + BufferStrategy로 그리고, false면 Swing Timer + repaint 사용
+    public TmxParser(boolean activeRendering) {
+        this(activeRendering, false);
+    }
+
+    /// 창/타이머 없이 맵을 불러와 BufferedImage로 렌더링하는 인스턴스 (java.awt.headless=true 환경용)
+    /// 타일 캐싱은 loadTMX 안에서 동기적으로 끝나므로 loadTMX 직후 바로 renderRegion을 호출할 수 있다
+    public static TmxParser createHeadless() {
+        return new TmxParser(false, true);
+    }
+
+    private TmxParser(boolean activeRendering, boolean headless) {
+        this.headless = headless;
+        this.playerInRegionRenders = !headless;
+        imageAssets = indexImages();
         camera = new Camera(1200, 780);
         sprite = new SpriteRenderer();
-        grassRenderer = new GrassRenderer(customPathImages);
+        grassRenderer = new GrassRenderer(customPathImages, scaledImageCache);
+
+        if (headless) {
+            frame = null;
+            canvas = null;
+            displaySurface = null;
+            activeRenderLoop = null;
+            return;
+        }
 
         frame = new JFrame("TMX 타일맵 뷰어 (부드러운 이동)");
         frame.setResizable(false);
@@ -153,37 +289,139 @@ public class TmxParser {
         canvas.setOpaque(true);
         canvas.setFocusable(true);
 
+        if (activeRendering) {
+            Canvas activeCanvas = new Canvas();
+            activeCanvas.setPreferredSize(new Dimension(1200, 780));
+            activeCanvas.setBackground(Color.BLACK);
+            activeCanvas.setIgnoreRepaint(true);
+            activeCanvas.setFocusable(true);
+            displaySurface = activeCanvas;
+            activeRenderLoop = new ActiveRenderLoop(activeCanvas, new ActiveRenderLoop.Callbacks() {
+                @Override
+                public void update() {
+                    runGameThreadTasks();
+                    previousPlayerX = sprite.getX();
+                    previousPlayerY = sprite.getY();
+                    profiler.begin(FrameProfiler.UPDATE);
+                    updateMovement();
+                    profiler.end(FrameProfiler.UPDATE);
+                }
+
+                @Override
+                public void render(Graphics2D g2d, double alpha) {
+                    renderInterpolatedFrame(g2d, alpha);
+                }
+            }, GAME_FPS);
+        } else {
+            displaySurface = canvas;
+            activeRenderLoop = null;
+        }
+
         setupKeyListener();
-        frame.add(canvas);
-        startGameLoop();
+        frame.add(displaySurface);
+        if (activeRenderLoop == null) {
+            startGameLoop();
+        } else {
+            // EXIT_ON_CLOSE로 창이 사라지기 전에 루프 스레드를 먼저 멈춘다
+            frame.addWindowListener(new java.awt.event.WindowAdapter() {
+                @Override
+                public void windowClosing(java.awt.event.WindowEvent e) {
+                    activeRenderLoop.stop();
+                }
+            });
+        }
     }
 
+    // 키 이벤트는 EDT에서 오므로 창 조작(F11)만 바로 하고, 게임 상태를 바꾸는 처리는 게임 스레드로 넘긴다
     private void setupKeyListener() {
-        canvas.addKeyListener(new java.awt.event.KeyAdapter() {
+        displaySurface.addKeyListener(new java.awt.event.KeyAdapter() {
             @Override
             public void keyPressed(java.awt.event.KeyEvent e) {
+                if (e.getKeyCode() == java.awt.event.KeyEvent.VK_F11 && nativeResolutionEnabled) {
+                    toggleFullscreen();
+                    return;
+                }
+                if (e.getKeyCode() == java.awt.event.KeyEvent.VK_F8) {
+                    runOnGameThread(TmxParser.this::toggleProfileCsv);
+                    return;
+                }
+                if (e.getKeyCode() == java.awt.event.KeyEvent.VK_F9) {
+                    runOnGameThread(() -> setSoftwareRenderingEnabled(!softwareRenderingEnabled));
+                    return;
+                }
                 String key = java.awt.event.KeyEvent.getKeyText(e.getKeyCode()).toLowerCase();
-                keysPressed.add(key);
-                sprite.handleKeyPressed(key);
+                runOnGameThread(() -> {
+                    if (keysPressed.add(key)) keysVersion++;
+                    sprite.handleKeyPressed(key);
+                });
             }
 
             @Override
             public void keyReleased(java.awt.event.KeyEvent e) {
                 String key = java.awt.event.KeyEvent.getKeyText(e.getKeyCode()).toLowerCase();
-                keysPressed.remove(key);
-                sprite.handleKeyReleased(key);
+                runOnGameThread(() -> {
+                    if (keysPressed.remove(key)) keysVersion++;
+                    sprite.handleKeyReleased(key);
+                });
             }
         });
     }
 
+    /// 게임 상태를 바꾸는 작업을 게임 스레드에서 실행한다 - 게임 스레드(또는 루프 시작 전)면 바로, 아니면 다음 갱신 때
+    public void runOnGameThread(Runnable task) {
+        Thread owner = gameThread;
+        if (owner == null || owner == Thread.currentThread()) {
+            task.run();
+        } else {
+            gameThreadTasks.add(task);
+        }
+    }
+
+    // 갱신 콜백의 맨 앞에서 호출 - 처음 부른 스레드가 게임 스레드가 된다
+    private void runGameThreadTasks() {
+        if (gameThread == null) {
+            gameThread = Thread.currentThread();
+        }
+        Runnable task;
+        while ((task = gameThreadTasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    // 맵 교체처럼 게임 스레드만 해야 하는 작업이 다른 스레드에서 불리면 바로 실패시킨다 (렌더링 도중 필드가 바뀌지 않도록)
+    private void checkGameThread(String action) {
+        Thread owner = gameThread;
+        if (owner != null && owner != Thread.currentThread()) {
+            throw new IllegalStateException(action + "은(는) 게임 스레드(" + owner.getName() + ")에서만 호출할 수 있습니다 - runOnGameThread 사용");
+        }
+    }
+
     private void startGameLoop() {
         Timer gameTimer = new Timer(1000 / GAME_FPS, e -> {
+            runGameThreadTasks();
+            profiler.begin(FrameProfiler.UPDATE);
             updateMovement();
+            profiler.end(FrameProfiler.UPDATE);
             canvas.repaint();
         });
         gameTimer.start();
     }
 
+    // 두 고정 갱신 사이의 위치로 플레이어(와 이를 따라가는 카메라)를 옮겨 그린 뒤 원래 위치로 되돌린다
+    // (그리다가 예외가 나도 보간 위치가 실제 위치로 남지 않도록 finally에서 되돌림)
+    private void renderInterpolatedFrame(Graphics2D g2d, double alpha) {
+        int currentX = sprite.getX();
+        int currentY = sprite.getY();
+
+        sprite.setPosition((int) Math.round(previousPlayerX + (currentX - previousPlayerX) * alpha),
+                (int) Math.round(previousPlayerY + (currentY - previousPlayerY) * alpha));
+        try {
+            renderTileMapWithCamera(g2d);
+        } finally {
+            sprite.setPosition(currentX, currentY);
+        }
+    }
+
     private void updateMovement() {
         if (keysPressed.isEmpty()) return;
 
@@ -210,9 +448,19 @@ public class TmxParser {
 
         if (moved) {
             validateAndSetPlayerPosition(newX, newY);
+            disturbGrassAtFeet();
+            prefetchNearbyTransitions();
         }
     }
 
+    // 발 히트박스(맵 좌표)에 조금 여유를 둔 영역의 풀잎만 흔든다
+    private void disturbGrassAtFeet() {
+        Rectangle feet = playerHitbox(sprite.getX() - mapOffsetX, sprite.getY() - mapOffsetY);
+        int margin = GRASS_DISTURB_MARGIN;
+        grassRenderer.disturb(feet.x - margin, feet.y - margin,
+                feet.x + feet.width + margin, feet.y + feet.height + margin);
+    }
+
     private void validateAndSetPlayerPosition(int newX, int newY) {
         int mapPixelWidth = mapWidth * tileWidth * TILE_SCALE;
         int mapPixelHeight = mapHeight * tileHeight * TILE_SCALE;
@@ -229,14 +477,36 @@ public class TmxParser {
     }
 
     private void calculateMapOffset() {
+        // 헤드리스 렌더링은 맵 좌표 그대로 그리므로 가운데 정렬 오프셋이 없다
+        if (headless) {
+            mapOffsetX = 0;
+            mapOffsetY = 0;
+            return;
+        }
+
         int mapPixelWidth = mapWidth * tileWidth * TILE_SCALE;
         int mapPixelHeight = mapHeight * tileHeight * TILE_SCALE;
 
-        mapOffsetX = mapPixelWidth < canvas.getWidth() ? (canvas.getWidth() - mapPixelWidth) / 2 : 0;
-        mapOffsetY = mapPixelHeight < canvas.getHeight() ? (canvas.getHeight() - mapPixelHeight) / 2 : 0;
+        int viewWidth = getLogicalViewWidth();
+        int viewHeight = getLogicalViewHeight();
+        mapOffsetX = mapPixelWidth < viewWidth ? (viewWidth - mapPixelWidth) / 2 : 0;
+        mapOffsetY = mapPixelHeight < viewHeight ? (viewHeight - mapPixelHeight) / 2 : 0;
+    }
+
+    // 월드가 그려지는 논리적 화면 크기 - 원본 해상도 모드에서는 창 크기와 무관하게 카메라 뷰포트 크기
+    private int getLogicalViewWidth() {
+        return nativeResolutionEnabled ? camera.getViewWidth() : displaySurface.getWidth();
+    }
+
+    private int getLogicalViewHeight() {
+        return nativeResolutionEnabled ? camera.getViewHeight() : displaySurface.getHeight();
     }
 
     public void show() {
+        if (headless) {
+            System.err.println("헤드리스 모드에서는 창을 표시할 수 없습니다");
+            return;
+        }
         frame.pack();
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
@@ -245,23 +515,49 @@ public class TmxParser {
             if (mapWidth > 0 && mapHeight > 0) {
                 calculateMapOffset();
             }
-            canvas.requestFocusInWindow();
-            canvas.repaint();
+            displaySurface.requestFocusInWindow();
+            if (activeRenderLoop != null) {
+                activeRenderLoop.start();
+            } else {
+                canvas.repaint();
+            }
         });
     }
 
-    private void preloadAllPngImages() {
-        preloadedImages.clear();
+    private ImageAssets indexImages() {
+        long start = System.nanoTime();
         File resourceDir = findResourceDirectory();
-        if (resourceDir == null) return;
+        ImageAssets assets = ImageAssets.index(resourceDir, IMAGE_CACHE_BYTES);
+        if (resourceDir == null) return assets;
 
-        System.out.println("resource 디렉토리에서 PNG 파일들을 재귀적으로 로드 중: " + resourceDir.getAbsolutePath());
+        System.out.printf("resource 디렉토리 PNG 색인: %d개 (%.1f ms, 처음 쓸 때 디코딩) - %s%n", assets.getFileCount(),
+                (System.nanoTime() - start) / 1e6, resourceDir.getAbsolutePath());
+        return assets;
+    }
+
+    /// 색인된 PNG를 지금 모두 디코딩한다 (예전 시작 방식 - 첫 프레임 시간 비교용)
+    public void preloadAllImages() {
+        long start = System.nanoTime();
+        imageAssets.loadAll();
+        System.out.printf("총 %d개의 PNG 파일을 미리 디코딩했습니다 (%.1f ms)%n",
+                imageAssets.getDecodeCount(), (System.nanoTime() - start) / 1e6);
+    }
 
-        List<File> pngFiles = new ArrayList<>();
-        collectPngFiles(resourceDir, pngFiles);
-        pngFiles.parallelStream().forEach(this::loadPngFile);
+    // 가장 큰 타일시트 하나로 ImageIO 원본 형식과 호환 형식의 타일 복사 속도를 비교해 출력
+    private void reportBlitThroughput(String imagePath) {
+        File sample = imageAssets.fileFor(imagePath);
+        if (sample == null) return;
 
-        System.out.println("총 " + pngFiles.size() + "개의 PNG 파일이 resource 디렉토리에서 로드되었습니다.");
+        try {
+            BufferedImage decoded = ImageIO.read(sample);
+            BufferedImage compatible = imageAssets.get(imagePath);
+            double before = CompatibleImages.measureBlitThroughput(decoded);
+            double after = CompatibleImages.measureBlitThroughput(compatible);
+            System.out.printf("타일 복사 속도 (%s): 변환 전 %.0f blits/ms (type %d) -> 변환 후 %.0f blits/ms (type %d)%n",
+                    sample.getName(), before, decoded.getType(), after, compatible.getType());
+        } catch (Exception e) {
+            System.err.println("복사 속도 측정 실패: " + e.getMessage());
+        }
     }
 
     private File findResourceDirectory() {
@@ -281,197 +577,296 @@ public class TmxParser {
         return null;
     }
 
-    private void collectPngFiles(File dir, List<File> pngFiles) {
-        File[] files = dir.listFiles();
-        if (files == null) return;
-
-        for (File file : files) {
-            if (file.isDirectory()) {
-                collectPngFiles(file, pngFiles);
-            } else if (file.getName().toLowerCase().endsWith(".png")) {
-                pngFiles.add(file);
-            }
-        }
+    private BufferedImage findImageByName(String imagePath) {
+        return imageAssets.get(imagePath);
     }
 
-    private void loadPngFile(File pngFile) {
+    /// 맵을 새로 읽어서 (맵 캐시에 있어도 다시 준비) 화면에 올린다
+    public boolean loadTMX(String tmxPath) {
+        checkGameThread("loadTMX");
         try {
-            BufferedImage image = ImageIO.read(pngFile);
-            String fileName = pngFile.getName();
-            String fileNameWithoutExt = fileName.substring(0, fileName.lastIndexOf('.'));
-
-            preloadedImages.put(fileName, image);
-            preloadedImages.put(fileNameWithoutExt, image);
-
+            PreparedMap map = mapLoader(tmxPath).call();
+            preparedMaps.put(tmxPath, map);
+            showPreparedMap(map);
+            return true;
         } catch (Exception e) {
-            System.err.println("PNG 파일 로드 실패: " + pngFile.getName() + " - " + e.getMessage());
+            reportLoadError(e);
+            return false;
         }
     }
 
-    private BufferedImage findImageByName(String imagePath) {
-        String fileName = new File(imagePath).getName();
-
-        BufferedImage image = preloadedImages.get(fileName);
-        if (image != null) return image;
+    private void reportLoadError(Exception e) {
+        e.printStackTrace();
+        if (headless) return;
+        // 능동 렌더링에서는 맵 전환이 렌더링 스레드에서 실패하므로 대화상자는 EDT로 넘긴다
+        String message = "TMX 파일 로드 중 오류 발생:\n" + e.getMessage();
+        SwingUtilities.invokeLater(() ->
+                JOptionPane.showMessageDialog(frame, message, "로드 오류", JOptionPane.ERROR_MESSAGE));
+    }
 
-        if (fileName.contains(".")) {
-            String nameWithoutExt = fileName.substring(0, fileName.lastIndexOf('.'));
-            image = preloadedImages.get(nameWithoutExt);
-            if (image != null) return image;
-        }
+    private void showPreparedMap(PreparedMap map) {
+        activateMap(map);
+        if (headless) return;
 
-        if (!fileName.contains(".")) {
-            return preloadedImages.get(fileName + ".png");
-        }
+        SwingUtilities.invokeLater(() -> {
+            canvas.revalidate();
+            canvas.repaint();
+            frame.pack();
+        });
+    }
 
-        return null;
+    /// 맵 준비 작업 - 지금 등록된 커스터마이징 GID를 복사해 두므로 다른 스레드에서 실행해도 된다
+    private Callable<PreparedMap> mapLoader(String tmxPath) {
+        Set<Integer> customizedGids = new HashSet<>(pathTileCustomizations.keySet());
+        customizedGids.addAll(treeTileCustomizations.keySet());
+        Set<Integer> grassGids = new HashSet<>();
+        pathTileCustomizations.forEach((gid, customization) -> {
+            if (customization.isGrass && !treeTileCustomizations.containsKey(gid)) grassGids.add(gid);
+        });
+        return () -> prepareMap(tmxPath, customizedGids, grassGids);
     }
 
-    public boolean loadTMX(String tmxPath) {
-        try {
-            clearExistingData();
+    // 파싱부터 타일 자르기, 애니메이션 색인, 풀잎 배치까지 - 파서 필드는 건드리지 않고 PreparedMap 하나로 돌려준다
+    private PreparedMap prepareMap(String tmxPath, Set<Integer> customizedGids, Set<Integer> grassGids) throws Exception {
+        TmxReader map = readMap(tmxPath);
+        for (Tileset tileset : map.tilesets) {
+            linkTilesetImage(tileset);
+            System.out.println("타일셋 추가됨: " + tileset.name + " (GID: " + tileset.firstGid + ")");
+        }
+        List<Layer> sortedLayers = sortLayers(map.layers);
 
-            File tmxFile = new File(tmxPath);
-            Document doc = parseXmlDocument(tmxFile);
+        // 타일셋이 덮는 최대 GID까지 배열을 만들고 타일셋/애니메이션을 GID 자리에 채운다
+        int maxGid = 0;
+        for (Tileset tileset : map.tilesets) {
+            maxGid = Math.max(maxGid, tileset.firstGid + tileset.tileCount - 1);
+        }
+        Tileset[] tilesetTable = new Tileset[maxGid + 1];
+        TileAnimation[] animationTable = new TileAnimation[maxGid + 1];
+        for (Tileset tileset : map.tilesets) {
+            Arrays.fill(tilesetTable, tileset.firstGid, tileset.firstGid + tileset.tileCount, tileset);
+            for (TileAnimation animation : tileset.animations) {
+                if (animation.gid <= maxGid) animationTable[animation.gid] = animation;
+            }
+        }
+        System.out.println("GID 테이블 구축 완료: " + maxGid + " gids");
+
+        // 애니메이션 셀 색인 - 맵을 불러올 때 한 번만 애니메이션 타일이 놓인 셀을 청크별로 모아 둔다 (매 프레임 전체 타일을 훑지 않도록)
+        int mapWidth = map.mapWidth;
+        int chunkTiles = StaticChunkCache.CHUNK_TILES;
+        int chunkColumns = (mapWidth + chunkTiles - 1) / chunkTiles;
+        int chunkRows = (map.mapHeight + chunkTiles - 1) / chunkTiles;
+        int[] starts = new int[chunkColumns * chunkRows + 1];
+        int cellCount = mapWidth * map.mapHeight;
+        boolean hasAnimations = map.tilesets.stream().anyMatch(tileset -> !tileset.animations.isEmpty());
+
+        if (hasAnimations) {
+            for (int cell = 0; cell < cellCount; cell++) {
+                for (Layer layer : sortedLayers) {
+                    if (layer.visible && cell < layer.data.length && animationAt(animationTable, layer.data[cell]) != null) {
+                        starts[animatedChunkOf(cell, mapWidth, chunkColumns) + 1]++;
+                    }
+                }
+            }
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
 
-            Element mapElement = doc.getDocumentElement();
-            parseMapProperties(mapElement);
-            parseTilesets(doc);
-            parseLayers(doc);
+        int total = starts[starts.length - 1];
+        int[] cells = new int[total];
+        int[] cellLayers = new int[total];
+        TileAnimation[] cellAnimations = new TileAnimation[total];
+        int[] cursors = Arrays.copyOf(starts, starts.length - 1);
+        Set<TileAnimation> usedAnimations = new LinkedHashSet<>();
+
+        for (int cell = 0; cell < cellCount && total > 0; cell++) {
+            for (int layerIndex = 0; layerIndex < sortedLayers.size(); layerIndex++) {
+                Layer layer = sortedLayers.get(layerIndex);
+                if (!layer.visible || cell >= layer.data.length) continue;
+
+                TileAnimation animation = animationAt(animationTable, layer.data[cell]);
+                if (animation == null) continue;
+
+                int index = cursors[animatedChunkOf(cell, mapWidth, chunkColumns)]++;
+                cells[index] = cell;
+                cellLayers[index] = layerIndex;
+                cellAnimations[index] = animation;
+                usedAnimations.add(animation);
+            }
+        }
+        TileAnimation[] usedAnimationArray = usedAnimations.toArray(new TileAnimation[0]);
+        if (total > 0) {
+            System.out.println("애니메이션 타일: " + usedAnimationArray.length + "종, " + total + "셀");
+        }
 
-            buildTilesetCache();
-            preloadTileImages();
-            setupCollisionLayer();
+        BufferedImage[] tileImages = new BufferedImage[maxGid + 1];
+        int cachedCount = cacheUsedTiles(sortedLayers, usedAnimationArray, tilesetTable, customizedGids, tileImages);
+        System.out.println("타일 이미지 캐싱 완료: " + cachedCount + " tiles");
+        ScaledTileTable[] scaledTables = scaleUsedTiles(tileImages, map.tileWidth, map.tileHeight);
 
-            SwingUtilities.invokeLater(() -> {
-                canvas.revalidate();
-                canvas.repaint();
-                frame.pack();
-            });
+        Layer collision = findCollisionLayer(sortedLayers);
+        GrassField grassField = grassRenderer.bakeField(extractMapName(tmxPath),
+                collectGrassGids(sortedLayers, map.mapWidth, map.mapHeight, grassGids),
+                map.mapWidth, map.mapHeight, map.tileWidth * TILE_SCALE, map.tileHeight * TILE_SCALE);
 
-            return true;
+        return new PreparedMap(tmxPath, map, sortedLayers, collision, tilesetTable, animationTable, tileImages, cachedCount,
+                scaledTables, chunkColumns, starts, cells, cellLayers, cellAnimations, usedAnimationArray, grassField);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
-            JOptionPane.showMessageDialog(frame,
-                    "TMX 파일 로드 중 오류 발생:\n" + e.getMessage(),
-                    "로드 오류", JOptionPane.ERROR_MESSAGE);
-            return false;
+    // 잘라 둔 일반 타일을 두 그리기 배율의 GID 표에 채운다 (원본 1배는 같은 이미지, TILE_SCALE은 확대한 사본)
+    private static ScaledTileTable[] scaleUsedTiles(BufferedImage[] tileImages, int tileWidth, int tileHeight) {
+        ScaledTileTable scaled = new ScaledTileTable(TILE_SCALE, tileImages.length);
+        ScaledTileTable original = new ScaledTileTable(1, tileImages.length);
+        for (int gid = 1; gid < tileImages.length; gid++) {
+            if (tileImages[gid] == null) continue;
+            scaled.images[gid] = scaleTile(tileImages[gid], tileWidth * TILE_SCALE, tileHeight * TILE_SCALE);
+            original.images[gid] = scaleTile(tileImages[gid], tileWidth, tileHeight);
         }
+        return new ScaledTileTable[]{scaled, original};
     }
 
-    private void clearExistingData() {
+    // 준비된 맵을 필드에 옮겨 담는다 - 화면을 그리는 스레드에서 호출하므로 다음 프레임부터 새 맵이 보인다
+    private void activateMap(PreparedMap map) {
+        mapWidth = map.mapWidth;
+        mapHeight = map.mapHeight;
+        tileWidth = map.tileWidth;
+        tileHeight = map.tileHeight;
         tilesets.clear();
+        tilesets.addAll(map.tilesets);
         layers.clear();
-        gidToTilesetCache.clear();
-        globalTileCache.clear();
-        grassRenderer.clearCache();
-    }
-
-    private Document parseXmlDocument(File tmxFile) throws Exception {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.parse(tmxFile);
-        doc.getDocumentElement().normalize();
-        return doc;
-    }
-
-    private void parseMapProperties(Element mapElement) {
-        mapWidth = Integer.parseInt(mapElement.getAttribute("width"));
-        mapHeight = Integer.parseInt(mapElement.getAttribute("height"));
-        tileWidth = Integer.parseInt(mapElement.getAttribute("tilewidth"));
-        tileHeight = Integer.parseInt(mapElement.getAttribute("tileheight"));
+        layers.addAll(map.layers);
+        collisionLayer = map.collisionLayer;
+
+        gidTilesets = map.gidTilesets;
+        gidAnimations = map.gidAnimations;
+        gidTileImages = map.tileImages.clone();     // 커스터마이징 타일은 그릴 때 이 배열에 채워 넣으므로 복사본
+        cachedTileCount = map.cachedTileCount;
+        scaledTiles = map.scaledTiles;
+        rebuildCustomizationTables();
+        loadCustomPathImages();                     // 처음 한 번만 실제로 읽는다 (나무 이미지 포함)
+
+        animatedChunkColumns = map.animatedChunkColumns;
+        animatedCellStarts = map.animatedCellStarts;
+        animatedCells = map.animatedCells;
+        animatedCellLayers = map.animatedCellLayers;
+        animatedCellAnimations = map.animatedCellAnimations;
+        mapAnimations = map.mapAnimations;
+        // 청크를 굽기 전에 현재 시각의 프레임으로 맞춰 둔다
+        long clockMillis = getAnimationClockMillis();
+        for (TileAnimation animation : mapAnimations) {
+            animation.advance(clockMillis, animationTick);
+        }
 
         calculateMapOffset();
-
-        int mapPixelWidth = mapWidth * tileWidth * TILE_SCALE;
-        int mapPixelHeight = mapHeight * tileHeight * TILE_SCALE;
-        camera.setMapBounds(mapPixelWidth, mapPixelHeight);
-
+        camera.setMapBounds(mapWidth * tileWidth * TILE_SCALE, mapHeight * tileHeight * TILE_SCALE);
         setPlayerStartPosition(10, 10);
-    }
 
-    private void parseTilesets(Document doc) {
-        NodeList tilesetNodes = doc.getElementsByTagName("tileset");
-        for (int i = 0; i < tilesetNodes.getLength(); i++) {
-            Element tilesetElement = (Element) tilesetNodes.item(i);
-            Tileset tileset = createTileset(tilesetElement);
-            tilesets.add(tileset);
-            System.out.println("타일셋 추가됨: " + tileset.name + " (GID: " + tileset.firstGid + ")");
+        staticChunkCache.reset(mapWidth, mapHeight, bandCount, tileWidth, tileHeight);
+        nativeChunkCache.reset(mapWidth, mapHeight, bandCount, tileWidth, tileHeight);
+        grassRenderer.useField(map.grassField);
+        mapLoadCount++;
+    }
+
+    // 컴파일된 맵(.tmxb)이 있고 원본과 같으면 그것을, 아니면 TMX를 파싱해서 (저장 폴더가 있으면) 컴파일해 둔다
+    private TmxReader readMap(String tmxPath) throws Exception {
+        long start = System.nanoTime();
+        File tmxFile = new File(tmxPath);
+        String mapName = extractMapName(tmxPath);
+        File compiledFile = mapCacheDirectory == null ? null : new File(mapCacheDirectory, mapName + CompiledMap.EXTENSION);
+
+        TmxReader map = compiledFile == null ? null : CompiledMap.read(compiledFile, tmxFile);
+        boolean compiled = map != null;
+        if (!compiled) {
+            map = TmxReader.read(tmxFile);
+            if (compiledFile != null) {
+                CompiledMap.write(compiledFile, tmxFile, map);
+            }
         }
+        System.out.printf("맵 %s %s: 레이어 %d, 타일셋 %d (%.1f ms)%n", mapName, compiled ? "읽음(컴파일됨)" : "파싱",
+                map.layers.size(), map.tilesets.size(), (System.nanoTime() - start) / 1e6);
+        return map;
     }
 
-    private Tileset createTileset(Element tilesetElement) {
-        Tileset tileset = new Tileset();
-        tileset.firstGid = Integer.parseInt(tilesetElement.getAttribute("firstgid"));
-        tileset.name = tilesetElement.getAttribute("name");
-        tileset.tileWidth = Integer.parseInt(tilesetElement.getAttribute("tilewidth"));
-        tileset.tileHeight = Integer.parseInt(tilesetElement.getAttribute("tileheight"));
-        tileset.tileCount = Integer.parseInt(tilesetElement.getAttribute("tilecount"));
-        tileset.columns = Integer.parseInt(tilesetElement.getAttribute("columns"));
-
-        NodeList imageNodes = tilesetElement.getElementsByTagName("image");
-        if (imageNodes.getLength() > 0) {
-            Element imageElement = (Element) imageNodes.item(0);
-            tileset.imagePath = imageElement.getAttribute("source");
-            tileset.image = findImageByName(tileset.imagePath);
+    // 보이는 레이어에서 잔디 커스터마이징 GID가 있는 셀을 모아 풀잎 배치를 미리 만든다 (첫 프레임에 생성하지 않도록)
+    private static int[] collectGrassGids(List<Layer> layers, int mapWidth, int mapHeight, Set<Integer> grassGids) {
+        int[] cellGids = new int[mapWidth * mapHeight];
+        if (grassGids.isEmpty()) return cellGids;
 
-            if (tileset.image != null) {
-                System.out.println("타일셋 이미지 연결됨: " + tileset.imagePath + " -> " + tileset.name);
-            } else {
-                System.err.println("타일셋 이미지를 찾을 수 없습니다: " + tileset.imagePath);
+        for (Layer layer : layers) {
+            if (!layer.visible) continue;
+            for (int y = 0; y < mapHeight; y++) {
+                for (int x = 0; x < mapWidth; x++) {
+                    int index = y * layer.width + x;
+                    if (index >= layer.data.length || cellGids[y * mapWidth + x] != 0) continue;
+                    int gid = layer.data[index];
+                    if (grassGids.contains(gid)) {
+                        cellGids[y * mapWidth + x] = gid;
+                    }
+                }
             }
         }
-
-        return tileset;
+        return cellGids;
     }
 
-    private void parseLayers(Document doc) {
-        NodeList layerNodes = doc.getElementsByTagName("layer");
-        for (int i = 0; i < layerNodes.getLength(); i++) {
-            Element layerElement = (Element) layerNodes.item(i);
-            Layer layer = createLayer(layerElement);
-            layers.add(layer);
-            System.out.println("레이어 추가됨: " + layer.name + " -> " + layer.layerType);
+    private void linkTilesetImage(Tileset tileset) {
+        if (tileset.imagePath == null) return;
+
+        tileset.image = findImageByName(tileset.imagePath);
+        if (tileset.image != null) {
+            System.out.println("타일셋 이미지 연결됨: " + tileset.imagePath + " -> " + tileset.name);
+        } else {
+            System.err.println("타일셋 이미지를 찾을 수 없습니다: " + tileset.imagePath);
         }
+    }
 
-        layers.sort(Comparator.comparingInt(layer -> layer.renderOrder));
-        System.out.println("레이어 정렬 완료");
+    private static int animatedChunkOf(int cell, int mapWidth, int chunkColumns) {
+        int chunkTiles = StaticChunkCache.CHUNK_TILES;
+        return (cell / mapWidth / chunkTiles) * chunkColumns + (cell % mapWidth) / chunkTiles;
     }
 
-    private Layer createLayer(Element layerElement) {
-        Layer layer = new Layer();
-        layer.name = layerElement.getAttribute("name");
-        layer.layerType = normalizeLayerName(layer.name);
-        layer.renderOrder = getLayerRenderOrder(layer.layerType);
-        layer.width = Integer.parseInt(layerElement.getAttribute("width"));
-        layer.height = Integer.parseInt(layerElement.getAttribute("height"));
+    private static TileAnimation animationAt(TileAnimation[] table, int gid) {
+        return gid > 0 && gid < table.length ? table[gid] : null;
+    }
 
-        String opacity = layerElement.getAttribute("opacity");
-        if (!opacity.isEmpty() && Float.parseFloat(opacity) == 0.0f) {
-            layer.visible = false;
-        }
+    // 헤드리스(오프라인 렌더링, 벤치마크)에서는 결과가 매번 같도록 시계를 0에 고정
+    private long getAnimationClockMillis() {
+        if (headless) return 0;
+        return (System.nanoTime() - animationClockStart) / 1_000_000;
+    }
 
-        NodeList dataNodes = layerElement.getElementsByTagName("data");
-        if (dataNodes.getLength() > 0) {
-            Element dataElement = (Element) dataNodes.item(0);
-            String encoding = dataElement.getAttribute("encoding");
+    /// 전역 시계로 모든 애니메이션의 프레임을 갱신 (프레임이 바뀌었으면 animationTick 증가)
+    private void advanceAnimations() {
+        if (mapAnimations.length == 0) return;
 
-            if ("csv".equals(encoding)) {
-                parseLayerData(layer, dataElement.getTextContent().trim());
-            }
+        long clockMillis = getAnimationClockMillis();
+        long nextTick = animationTick + 1;
+        boolean changed = false;
+        for (TileAnimation animation : mapAnimations) {
+            changed |= animation.advance(clockMillis, nextTick);
+        }
+        if (changed) {
+            animationTick = nextTick;
         }
-
-        return layer;
     }
 
-    private void parseLayerData(Layer layer, String csvData) {
-        String[] values = csvData.split(",");
-        layer.data = new int[values.length];
+    /// 애니메이션 타일이면 현재 프레임의 GID, 아니면 그대로
+    private int currentFrameGid(int gid) {
+        TileAnimation animation = animationFor(gid);
+        return animation == null ? gid : animation.currentGid();
+    }
 
-        for (int j = 0; j < values.length; j++) {
-            layer.data[j] = Integer.parseInt(values[j].trim());
+    private List<Layer> sortLayers(List<Layer> parsedLayers) {
+        List<Layer> sorted = new ArrayList<>(parsedLayers.size());
+        for (Layer layer : parsedLayers) {
+            layer.layerType = normalizeLayerName(layer.name);
+            layer.renderOrder = getLayerRenderOrder(layer.layerType);
+            sorted.add(layer);
+            System.out.println("레이어 추가됨: " + layer.name + " -> " + layer.layerType);
         }
+
+        sorted.sort(Comparator.comparingInt(layer -> layer.renderOrder));
+        System.out.println("레이어 정렬 완료");
+        return sorted;
     }
 
     private String normalizeLayerName(String layerName) {
@@ -483,63 +878,209 @@ public class TmxParser {
         return LAYER_ORDER.getOrDefault(normalizedLayerName, 999);
     }
 
-    private void buildTilesetCache() {
-        for (Tileset tileset : tilesets) {
-            for (int i = 0; i < tileset.tileCount; i++) {
-                int gid = tileset.firstGid + i;
-                gidToTilesetCache.put(gid, tileset);
+    // 커스터마이징은 맵과 무관하게 등록되므로, 맵을 불러오거나 새로 등록할 때 현재 테이블 크기에 맞춰 다시 채운다
+    private void rebuildCustomizationTables() {
+        PathTileCustomization[] pathTable = new PathTileCustomization[gidTilesets.length];
+        pathTileCustomizations.forEach((gid, customization) -> {
+            if (gid > 0 && gid < pathTable.length) pathTable[gid] = customization;
+        });
+        TreeTileCustomization[] treeTable = new TreeTileCustomization[gidTilesets.length];
+        treeTileCustomizations.forEach((gid, customization) -> {
+            if (gid > 0 && gid < treeTable.length) treeTable[gid] = customization;
+        });
+        gidPathCustomizations = pathTable;
+        gidTreeCustomizations = treeTable;
+        renderTable = TileRenderTable.compile(pathTable, treeTable, gidAnimations, tileWidth, tileHeight);
+        // 커스터마이징 GID는 잘라 낸 이미지와 상자 크기가 바뀌었을 수 있으므로 다음에 그릴 때 다시 만든다
+        for (int gid = 1; gid < pathTable.length; gid++) {
+            if (pathTable[gid] == null && treeTable[gid] == null) continue;
+            if (gid < gidTileImages.length) gidTileImages[gid] = null;
+            for (ScaledTileTable table : scaledTiles) {
+                table.clear(gid);
+            }
+        }
+        buildPassSteps();
+    }
+
+    private void buildPassSteps() {
+        int[] bands = new int[layers.size()];
+        Arrays.fill(bands, -1);
+        int[][] directCells = new int[layers.size()][];
+        int count = 0;
+        int[][] steps = new int[2][];
+        for (int pass = 0; pass < 2; pass++) {
+            List<Integer> passOrder = new ArrayList<>();
+            boolean bandOpen = false;
+            for (int layerIndex = 0; layerIndex < layers.size(); layerIndex++) {
+                Layer layer = layers.get(layerIndex);
+                if (!layer.visible || isFrontLayer(layer) != (pass == 1)) continue;
+
+                boolean[] direct = findDirectCells(layer, pass == 1);
+                // 새 묶음은 화면 전체를 한 번 더 합성하므로, 구울 셀이 청크를 듬성듬성 채우는 레이어는 전부 하나씩 그린다
+                if (!bandOpen && !fillsChunks(layer, direct)) {
+                    for (int index = 0; index < direct.length; index++) {
+                        direct[index] = layer.data[index] != 0;
+                    }
+                }
+
+                int[] cells = cellIndices(direct);
+                if (cells.length < countNonEmptyCells(layer)) {
+                    if (!bandOpen) {
+                        passOrder.add(count++);
+                        bandOpen = true;
+                    }
+                    bands[layerIndex] = count - 1;
+                }
+                if (cells.length > 0) {
+                    directCells[layerIndex] = cells;
+                    passOrder.add(~layerIndex);
+                    bandOpen = false;
+                }
+            }
+            steps[pass] = passOrder.stream().mapToInt(Integer::intValue).toArray();
+        }
+        layerBands = bands;
+        layerDirectCells = directCells;
+        passSteps = steps;
+        bandCount = count;
+    }
+
+    // 커스터마이징 셀과, 그 셀이 넘쳐 그리는 범위(렌더 테이블의 최대 넘침) 안에서 행 순서로 뒤에 오는 셀
+    // 뒤 레이어 패스의 발 Y 정렬 셀은 레이어 순서와 상관없이 나중에 그려지므로 뒤에 오는 셀을 덮지 않는다
+    private boolean[] findDirectCells(Layer layer, boolean frontPass) {
+        TileRenderTable table = renderTable;
+        int[] data = layer.data;
+        boolean[] direct = new boolean[data.length];
+        for (int index = 0; index < data.length; index++) {
+            int gid = data[index];
+            if (gid == 0 || !TileRenderTable.isCustomized(table.kind(gid))) continue;
+            direct[index] = true;
+            if (!frontPass && TileRenderTable.isDepthSorted(table.kind(gid))) continue;
+
+            int x = index % layer.width;
+            int y = index / layer.width;
+            for (int coveredY = y; coveredY <= y + table.overdrawBottom(); coveredY++) {
+                int startX = coveredY == y ? x + 1 : Math.max(0, x - table.overdrawLeft());
+                int endX = Math.min(layer.width - 1, x + table.overdrawRight());
+                for (int coveredX = startX; coveredX <= endX; coveredX++) {
+                    int covered = coveredY * layer.width + coveredX;
+                    if (covered < data.length && data[covered] != 0) direct[covered] = true;
+                }
+            }
+        }
+        return direct;
+    }
+
+    // 구울 셀이 있는 청크들을 평균 1/4 이상 채우는지
+    private boolean fillsChunks(Layer layer, boolean[] direct) {
+        int chunkTiles = StaticChunkCache.CHUNK_TILES;
+        int chunkColumns = (layer.width + chunkTiles - 1) / chunkTiles;
+        boolean[] touched = new boolean[chunkColumns * ((mapHeight + chunkTiles - 1) / chunkTiles)];
+        int bakedCells = 0, touchedChunks = 0;
+        for (int index = 0; index < layer.data.length; index++) {
+            if (layer.data[index] == 0 || direct[index]) continue;
+
+            int chunk = (index / layer.width / chunkTiles) * chunkColumns + (index % layer.width) / chunkTiles;
+            if (chunk >= touched.length) continue;
+            bakedCells++;
+            if (!touched[chunk]) {
+                touched[chunk] = true;
+                touchedChunks++;
             }
         }
-        System.out.println("타일셋 캐시 구축 완료: " + gidToTilesetCache.size() + " entries");
+        return bakedCells * 4 >= touchedChunks * chunkTiles * chunkTiles;
+    }
+
+    private static int[] cellIndices(boolean[] cells) {
+        int count = 0;
+        for (boolean cell : cells) {
+            if (cell) count++;
+        }
+        int[] indices = new int[count];
+        count = 0;
+        for (int index = 0; index < cells.length; index++) {
+            if (cells[index]) indices[count++] = index;
+        }
+        return indices;
+    }
+
+    private static int countNonEmptyCells(Layer layer) {
+        int count = 0;
+        for (int gid : layer.data) {
+            if (gid != 0) count++;
+        }
+        return count;
+    }
+
+    // 청크에 굽지 않고 renderDirectCells가 하나씩 그리는 셀인지
+    private boolean isDirectCell(int layerIndex, int index) {
+        int[] cells = layerDirectCells[layerIndex];
+        return cells != null && Arrays.binarySearch(cells, index) >= 0;
+    }
+
+    private PathTileCustomization pathCustomizationFor(int gid) {
+        PathTileCustomization[] table = gidPathCustomizations;
+        return gid > 0 && gid < table.length ? table[gid] : null;
+    }
+
+    private TreeTileCustomization treeCustomizationFor(int gid) {
+        TreeTileCustomization[] table = gidTreeCustomizations;
+        return gid > 0 && gid < table.length ? table[gid] : null;
     }
 
-    private void preloadTileImages() {
-        new Thread(() -> {
-            System.out.println("타일 이미지 캐싱 시작...");
-            loadCustomPathImages();
-            loadCustomTreeImages();  // 추가
-            int cachedCount = cacheAllVisibleTiles();
-            System.out.println("타일 이미지 캐싱 완료: " + cachedCount + " tiles");
-            SwingUtilities.invokeLater(canvas::repaint);
-        }).start();
+    private TileAnimation animationFor(int gid) {
+        TileAnimation[] table = gidAnimations;
+        return gid > 0 && gid < table.length ? table[gid] : null;
     }
 
-    private int cacheAllVisibleTiles() {
-        Set<Integer> uniqueGids = new HashSet<>();
+    // 보이는 레이어와 애니메이션 프레임에 쓰인 타일을 미리 잘라 둔다 (커스터마이징 GID는 그릴 때 getTileImage가 만든다)
+    private static int cacheUsedTiles(List<Layer> layers, TileAnimation[] animations, Tileset[] tilesetTable,
+                                      Set<Integer> customizedGids, BufferedImage[] tileImages) {
+        boolean[] used = new boolean[tileImages.length];
         for (Layer layer : layers) {
             if (!layer.visible) continue;
             for (int gid : layer.data) {
-                if (gid > 0) uniqueGids.add(gid);
+                if (gid > 0 && gid < used.length) used[gid] = true;
+            }
+        }
+        for (TileAnimation animation : animations) {
+            for (int frameGid : animation.frameGids) {
+                if (frameGid > 0 && frameGid < used.length) used[frameGid] = true;
             }
         }
 
         int cachedCount = 0;
-        for (int gid : uniqueGids) {
-            BufferedImage tileImage = createTileImage(gid);
+        for (int gid = 1; gid < used.length; gid++) {
+            if (!used[gid] || customizedGids.contains(gid)) continue;
+            Tileset tileset = tilesetTable[gid];
+            if (tileset == null || tileset.image == null) continue;
+
+            BufferedImage tileImage = tileset.tiles[gid - tileset.firstGid];
+            if (tileImage == null) tileImage = extractTileFromTileset(tileset, gid);
             if (tileImage != null) {
-                globalTileCache.put(gid, tileImage);
+                tileImages[gid] = tileImage;
                 cachedCount++;
             }
         }
-
         return cachedCount;
     }
 
     private Tileset findTilesetForGid(int gid) {
-        return gidToTilesetCache.get(gid);
+        Tileset[] table = gidTilesets;
+        return gid > 0 && gid < table.length ? table[gid] : null;
     }
 
     private BufferedImage createTileImage(int gid) {
         if (gid == 0) return null;
 
         // Check for path tile customizations
-        if (pathTileCustomizations.containsKey(gid)) {
+        if (pathCustomizationFor(gid) != null) {
             BufferedImage customTile = createCustomPathTileImage(gid);
             if (customTile != null) return customTile;
         }
 
         // Check for tree tile customizations - ADD THIS
-        if (treeTileCustomizations.containsKey(gid)) {
+        if (treeCustomizationFor(gid) != null) {
             // For tree tiles, we'll return a special marker or handle differently
             // since trees need special rendering (bottom + top parts)
             return createTreeTileImage(gid, true); // Return bottom part as default
@@ -548,21 +1089,21 @@ public class TmxParser {
         Tileset tileset = findTilesetForGid(gid);
         if (tileset == null || tileset.image == null) return null;
 
-        BufferedImage cachedTile = tileset.tileCache.get(gid);
+        BufferedImage cachedTile = tileset.tiles[gid - tileset.firstGid];
         if (cachedTile != null) return cachedTile;
 
         return extractTileFromTileset(tileset, gid);
     }
 
-    private BufferedImage extractTileFromTileset(Tileset tileset, int gid) {
+    private static BufferedImage extractTileFromTileset(Tileset tileset, int gid) {
         int tileId = gid - tileset.firstGid;
         int tilesPerRow = tileset.columns;
         int tileX = (tileId % tilesPerRow) * tileset.tileWidth;
         int tileY = (tileId / tilesPerRow) * tileset.tileHeight;
 
         try {
-            BufferedImage tileImage = tileset.image.getSubimage(tileX, tileY, tileset.tileWidth, tileset.tileHeight);
-            tileset.tileCache.put(gid, tileImage);
+            BufferedImage tileImage = CompatibleImages.copyRegion(tileset.image, tileX, tileY, tileset.tileWidth, tileset.tileHeight);
+            tileset.tiles[tileId] = tileImage;
             return tileImage;
         } catch (Exception e) {
             return null;
@@ -570,31 +1111,148 @@ public class TmxParser {
     }
 
     private BufferedImage getTileImage(int gid) {
-        if (gid == 0) return null;
-        BufferedImage cachedImage = globalTileCache.get(gid);
-        return cachedImage != null ? cachedImage : createTileImage(gid);
+        BufferedImage[] tileImages = gidTileImages;
+        if (gid <= 0 || gid >= tileImages.length) return null;
+
+        BufferedImage cachedImage = tileImages[gid];
+        if (cachedImage == null) {
+            cachedImage = createTileImage(gid);
+            tileImages[gid] = cachedImage;
+        }
+        return cachedImage;
     }
 
     private void renderTileMapWithCamera(Graphics g) {
         Graphics2D g2d = setupGraphics(g);
+        advanceAnimations();
+        grassRenderer.advance(getAnimationClockMillis());
+
+        if (nativeResolutionEnabled) {
+            renderNativeResolution(g2d);
+        } else if (softwareRenderingEnabled) {
+            renderWithSoftwareRasterizer(g2d);
+        } else if (isCameraModeRequired()) {
+            renderCameraMode(g2d);
+        } else {
+            renderFixedMode(g2d);
+        }
 
+        profiler.begin(FrameProfiler.HUD);
+        renderUI(g2d);
+        profiler.end(FrameProfiler.HUD);
+        profiler.endFrame();
+
+        if (!firstFrameReported) {
+            reportFirstFrame();
+        }
+    }
+
+    // 첫 화면이 그려지기까지 걸린 시간 (JVM 시작부터) - 이미지를 미리 전부 읽는 방식(--preload-images)과 비교할 때 본다
+    private void reportFirstFrame() {
+        firstFrameReported = true;
+        System.out.printf("첫 프레임: JVM 시작부터 %d ms (PNG %d/%d개 디코딩 %.1f ms, 이미지 캐시 %d KB)%n",
+                ManagementFactory.getRuntimeMXBean().getUptime(), imageAssets.getDecodeCount(),
+                imageAssets.getFileCount(), imageAssets.getDecodeNanos() / 1e6, imageAssets.getCachedBytes() / 1024);
+
+        // 복사 속도 측정은 첫 프레임을 늦추지 않도록 그린 뒤에 따로 (켰을 때만)
+        if (!blitReportEnabled) return;
+        tilesets.stream()
+                .filter(tileset -> tileset.image != null)
+                .max(Comparator.comparingLong(tileset -> (long) tileset.image.getWidth() * tileset.image.getHeight()))
+                .ifPresent(largest -> {
+                    Thread thread = new Thread(() -> reportBlitThroughput(largest.imagePath), "blit-benchmark");
+                    thread.setDaemon(true);
+                    thread.start();
+                });
+    }
+
+    // Java2D 경로와 같은 순서로 그리기 명령을 기록한 뒤, 띠 단위 병렬 래스터화 결과를 한 번에 화면에 복사
+    private void renderWithSoftwareRasterizer(Graphics2D g2d) {
+        softwareRasterizer.beginFrame(displaySurface.getWidth(), displaySurface.getHeight());
+        rasterTarget = softwareRasterizer;
+        grassRenderer.setRasterTarget(softwareRasterizer);
+        try {
+            if (isCameraModeRequired()) {
+                renderCameraMode(g2d);
+            } else {
+                renderFixedMode(g2d);
+            }
+        } finally {
+            rasterTarget = null;
+            grassRenderer.setRasterTarget(null);
+        }
+        g2d.drawImage(softwareRasterizer.finish(), 0, 0, null);
+    }
+
+    private boolean isCameraModeRequired() {
         int mapPixelWidth = mapWidth * tileWidth * TILE_SCALE;
         int mapPixelHeight = mapHeight * tileHeight * TILE_SCALE;
+        return mapPixelWidth > getLogicalViewWidth() || mapPixelHeight > getLogicalViewHeight();
+    }
 
-        if (mapPixelWidth > canvas.getWidth() || mapPixelHeight > canvas.getHeight()) {
-            renderCameraMode(g2d);
+    // 월드를 1배 프레임버퍼(뷰포트 / TILE_SCALE)에 그리고, 화면에는 최근접 이웃 정수 배율로 한 번만 확대
+    private void renderNativeResolution(Graphics2D g2d) {
+        int bufferWidth = camera.getViewWidth() / TILE_SCALE;
+        int bufferHeight = camera.getViewHeight() / TILE_SCALE;
+        if (nativeFrameBuffer == null || nativeFrameBuffer.getWidth() != bufferWidth
+                || nativeFrameBuffer.getHeight() != bufferHeight) {
+            nativeFrameBuffer = CompatibleImages.create(bufferWidth, bufferHeight, Transparency.OPAQUE);
+        }
+
+        Graphics2D bufferG2d = nativeFrameBuffer.createGraphics();
+        bufferG2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        bufferG2d.setColor(Color.BLACK);
+        bufferG2d.fillRect(0, 0, bufferWidth, bufferHeight);
+
+        // 카메라/플레이어는 계속 TILE_SCALE 좌표계로 움직이고, 그릴 때만 1배 좌표로 내림
+        // 고정 모드의 플레이어 좌표에는 가운데 정렬 오프셋이 이미 들어 있으므로 빼고 맵 기준으로 환산
+        Rectangle bounds;
+        int originX, originY, playerX, playerY;
+        if (isCameraModeRequired()) {
+            camera.followPlayer(sprite);
+            bounds = calculateVisibleTileBounds(tileWidth * TILE_SCALE, tileHeight * TILE_SCALE);
+            originX = -Math.floorDiv(camera.getX(), TILE_SCALE);
+            originY = -Math.floorDiv(camera.getY(), TILE_SCALE);
+            playerX = originX + Math.floorDiv(sprite.getX(), TILE_SCALE);
+            playerY = originY + Math.floorDiv(sprite.getY(), TILE_SCALE);
         } else {
-            renderFixedMode(g2d);
+            bounds = new Rectangle(0, 0, mapWidth, mapHeight);
+            originX = Math.floorDiv(mapOffsetX, TILE_SCALE);
+            originY = Math.floorDiv(mapOffsetY, TILE_SCALE);
+            playerX = originX + Math.floorDiv(sprite.getX() - mapOffsetX, TILE_SCALE);
+            playerY = originY + Math.floorDiv(sprite.getY() - mapOffsetY, TILE_SCALE);
         }
 
-        renderUI(g2d);
+        drawScale = 1;
+        try {
+            nativeChunkCache.beginFrame();
+            renderStaticPass(bufferG2d, nativeChunkCache, bounds, originX, originY, tileWidth, tileHeight, false);
+            renderDepthSorted(bufferG2d, originX, originY, tileWidth, tileHeight, bufferWidth, bufferHeight, true, playerX, playerY, 1);
+            renderStaticPass(bufferG2d, nativeChunkCache, bounds, originX, originY, tileWidth, tileHeight, true);
+        } finally {
+            drawScale = TILE_SCALE;
+            bufferG2d.dispose();
+        }
+
+        int surfaceWidth = displaySurface.getWidth();
+        int surfaceHeight = displaySurface.getHeight();
+        int scale = Math.max(1, Math.min(surfaceWidth / bufferWidth, surfaceHeight / bufferHeight));
+        int scaledWidth = bufferWidth * scale;
+        int scaledHeight = bufferHeight * scale;
+        g2d.drawImage(nativeFrameBuffer, (surfaceWidth - scaledWidth) / 2, (surfaceHeight - scaledHeight) / 2,
+                scaledWidth, scaledHeight, null);
+    }
+
+    // TILE_SCALE 기준 화면 픽셀로 지정된 오프셋을 현재 그리기 배율로 환산
+    private int scaleOffset(int offset) {
+        return offset * drawScale / TILE_SCALE;
     }
 
     private Graphics2D setupGraphics(Graphics g) {
         Graphics2D g2d = (Graphics2D) g;
         g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
         g2d.setColor(Color.BLACK);
-        g2d.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        g2d.fillRect(0, 0, displaySurface.getWidth(), displaySurface.getHeight());
         return g2d;
     }
 
@@ -605,17 +1263,76 @@ public class TmxParser {
         int scaledTileHeight = tileHeight * TILE_SCALE;
 
         Rectangle visibleBounds = calculateVisibleTileBounds(scaledTileWidth, scaledTileHeight);
+        Rectangle overdrawBounds = withOverdraw(visibleBounds);
+
+        if (staticChunkCacheEnabled) {
+            int originX = camera.worldToScreenX(0);
+            int originY = camera.worldToScreenY(0);
+            staticChunkCache.beginFrame();
+            reserveChunks(staticChunkCache, visibleBounds);
+
+            // 스크롤 버퍼는 내용이 계속 바뀌므로 소프트웨어 렌더러(원본을 변환해 캐싱)에는 넘기지 않는다
+            if (scrollBlitEnabled && rasterTarget == null) {
+                ensureScrollBuffers();
+                profiler.begin(FrameProfiler.BACK_LAYERS);
+                for (int step : passSteps[0]) {
+                    if (step >= 0) {
+                        drawScrollingStaticLayer(g2d, step);
+                    } else {
+                        renderDirectCells(g2d, ~step, overdrawBounds, originX, originY, scaledTileWidth, scaledTileHeight, false);
+                    }
+                }
+                profiler.end(FrameProfiler.BACK_LAYERS);
+                renderDepthSortedWithCamera(g2d, originX, originY, scaledTileWidth, scaledTileHeight);
+                profiler.begin(FrameProfiler.FRONT_LAYERS);
+                for (int step : passSteps[1]) {
+                    if (step >= 0) {
+                        drawScrollingStaticLayer(g2d, step);
+                    } else {
+                        renderDirectCells(g2d, ~step, overdrawBounds, originX, originY, scaledTileWidth, scaledTileHeight, true);
+                    }
+                }
+                profiler.end(FrameProfiler.FRONT_LAYERS);
+                return;
+            }
+
+            renderStaticPass(g2d, staticChunkCache, visibleBounds, originX, originY, scaledTileWidth, scaledTileHeight, false);
+            renderDepthSortedWithCamera(g2d, originX, originY, scaledTileWidth, scaledTileHeight);
+            renderStaticPass(g2d, staticChunkCache, visibleBounds, originX, originY, scaledTileWidth, scaledTileHeight, true);
+            return;
+        }
 
-        renderLayersWithCamera(g2d, visibleBounds, scaledTileWidth, scaledTileHeight, false);
-        renderPlayerWithCamera(g2d);
-        renderLayersWithCamera(g2d, visibleBounds, scaledTileWidth, scaledTileHeight, true);
+        renderLayersWithCamera(g2d, overdrawBounds, scaledTileWidth, scaledTileHeight, false);
+        renderDepthSortedWithCamera(g2d, camera.worldToScreenX(0), camera.worldToScreenY(0), scaledTileWidth, scaledTileHeight);
+        renderLayersWithCamera(g2d, overdrawBounds, scaledTileWidth, scaledTileHeight, true);
     }
 
+    // 카메라 화면에 걸친 타일 범위 (청크용 - 커스터마이징 셀은 withOverdraw로 넓혀서 그린다)
     private Rectangle calculateVisibleTileBounds(int scaledTileWidth, int scaledTileHeight) {
-        int startTileX = Math.max(0, camera.getX() / scaledTileWidth - 1);
-        int startTileY = Math.max(0, camera.getY() / scaledTileHeight - 1);
-        int endTileX = Math.min(mapWidth - 1, (camera.getX() + camera.getViewWidth()) / scaledTileWidth + 2);
-        int endTileY = Math.min(mapHeight - 1, (camera.getY() + camera.getViewHeight()) / scaledTileHeight + 2);
+        return tileBoundsOf(camera.getX(), camera.getY(), camera.getViewWidth(), camera.getViewHeight(),
+                scaledTileWidth, scaledTileHeight);
+    }
+
+    // 픽셀 영역 [x, x + width) x [y, y + height)에 걸친 타일 범위 (맵 밖은 잘라냄)
+    private Rectangle tileBoundsOf(int x, int y, int width, int height, int scaledTileWidth, int scaledTileHeight) {
+        int startTileX = Math.max(0, Math.floorDiv(x, scaledTileWidth));
+        int startTileY = Math.max(0, Math.floorDiv(y, scaledTileHeight));
+        int endTileX = Math.min(mapWidth - 1, Math.floorDiv(x + width - 1, scaledTileWidth));
+        int endTileY = Math.min(mapHeight - 1, Math.floorDiv(y + height - 1, scaledTileHeight));
+
+        return new Rectangle(startTileX, startTileY, endTileX - startTileX + 1, endTileY - startTileY + 1);
+    }
+
+    // 화면 밖 셀이 넘쳐 그리는 이미지(나무 잎, 그루터기, 잔디)까지 포함하도록 렌더 테이블의 최대 넘침만큼 넓힌다
+    // 잎은 위로 넘치므로 화면 아래쪽으로 overdrawTop 타일만큼 더 본다
+    private Rectangle withOverdraw(Rectangle bounds) {
+        if (bounds.width <= 0 || bounds.height <= 0) return bounds;
+
+        TileRenderTable table = renderTable;
+        int startTileX = Math.max(0, bounds.x - table.overdrawRight());
+        int startTileY = Math.max(0, bounds.y - table.overdrawBottom());
+        int endTileX = Math.min(mapWidth - 1, bounds.x + bounds.width - 1 + table.overdrawLeft());
+        int endTileY = Math.min(mapHeight - 1, bounds.y + bounds.height - 1 + table.overdrawTop());
 
         return new Rectangle(startTileX, startTileY, endTileX - startTileX + 1, endTileY - startTileY + 1);
     }
@@ -624,46 +1341,275 @@ public class TmxParser {
         int scaledTileWidth = tileWidth * TILE_SCALE;
         int scaledTileHeight = tileHeight * TILE_SCALE;
 
+        if (staticChunkCacheEnabled) {
+            Rectangle fullBounds = new Rectangle(0, 0, mapWidth, mapHeight);
+            staticChunkCache.beginFrame();
+            renderStaticPass(g2d, staticChunkCache, fullBounds, mapOffsetX, mapOffsetY, scaledTileWidth, scaledTileHeight, false);
+            renderDepthSorted(g2d, mapOffsetX, mapOffsetY, scaledTileWidth, scaledTileHeight,
+                    displaySurface.getWidth(), displaySurface.getHeight(), true, sprite.getX(), sprite.getY(), TILE_SCALE);
+            renderStaticPass(g2d, staticChunkCache, fullBounds, mapOffsetX, mapOffsetY, scaledTileWidth, scaledTileHeight, true);
+            return;
+        }
+
         renderLayersFixed(g2d, scaledTileWidth, scaledTileHeight, false);
-        sprite.render(g2d);
+        renderDepthSorted(g2d, mapOffsetX, mapOffsetY, scaledTileWidth, scaledTileHeight,
+                displaySurface.getWidth(), displaySurface.getHeight(), true, sprite.getX(), sprite.getY(), TILE_SCALE);
         renderLayersFixed(g2d, scaledTileWidth, scaledTileHeight, true);
     }
 
+    // 레이어 순서대로 - 구워진 묶음은 화면에 걸친 청크만, 하나씩 그리는 셀은 셀 밖으로 넘치는 만큼 넓힌 범위 안의 것만
+    private void renderStaticPass(Graphics2D g2d, StaticChunkCache cache, Rectangle bounds, int originX, int originY,
+                                  int scaledTileWidth, int scaledTileHeight, boolean frontPass) {
+        int phase = frontPass ? FrameProfiler.FRONT_LAYERS : FrameProfiler.BACK_LAYERS;
+        profiler.begin(phase);
+        Rectangle overdrawBounds = withOverdraw(bounds);
+        boolean cached = reserveChunks(cache, bounds);
+        for (int step : passSteps[frontPass ? 1 : 0]) {
+            if (step >= 0) {
+                drawStaticChunks(g2d, cache, bounds, originX, originY, scaledTileWidth, scaledTileHeight, step, cached);
+            } else {
+                renderDirectCells(g2d, ~step, overdrawBounds, originX, originY, scaledTileWidth, scaledTileHeight, frontPass);
+            }
+        }
+        profiler.end(phase);
+    }
+
+    // 레이어 묶음 수가 바뀌면 (맵/커스터마이징 변경) 스크롤 버퍼를 묶음 수만큼 다시 만든다
+    private void ensureScrollBuffers() {
+        if (scrollBuffers.length == bandCount) return;
+
+        scrollBuffers = new ScrollingLayerBuffer[bandCount];
+        for (int band = 0; band < bandCount; band++) {
+            scrollBuffers[band] = new ScrollingLayerBuffer();
+        }
+        scrollAnimationTicks = new long[bandCount];
+    }
+
+    // 묶음의 스크롤 버퍼를 카메라 위치로 갱신(새로 드러난 띠만 청크에서 복사)한 뒤 화면에 한 번 그린다
+    private void drawScrollingStaticLayer(Graphics2D g2d, int band) {
+        ScrollingLayerBuffer buffer = scrollBuffers[band];
+        int scaledTileWidth = tileWidth * TILE_SCALE;
+        int scaledTileHeight = tileHeight * TILE_SCALE;
+        int originX = camera.worldToScreenX(0);
+        int originY = camera.worldToScreenY(0);
+
+        ScrollingLayerBuffer.RegionPainter painter = (bufferG2d, x, y, width, height) -> {
+            Rectangle region = new Rectangle(
+                    Math.max(0, (x - originX) / scaledTileWidth),
+                    Math.max(0, (y - originY) / scaledTileHeight), 0, 0);
+            region.width = Math.min(mapWidth, (x + width - originX - 1) / scaledTileWidth + 1) - region.x;
+            region.height = Math.min(mapHeight, (y + height - originY - 1) / scaledTileHeight + 1) - region.y;
+            drawStaticChunks(bufferG2d, staticChunkCache, region, originX, originY, scaledTileWidth, scaledTileHeight, band, true);
+        };
+        Image image = buffer.update(camera.getX(), camera.getY(),
+                camera.getViewWidth(), camera.getViewHeight(), staticChunkCache.getGeneration(), painter);
+
+        if (scrollAnimationTicks[band] != animationTick) {
+            repaintAnimatedCells(buffer, painter, scrollAnimationTicks[band], band, originX, originY,
+                    scaledTileWidth, scaledTileHeight);
+            scrollAnimationTicks[band] = animationTick;
+        }
+        g2d.drawImage(image, 0, 0, null);
+    }
+
+    // 화면에 보이는 청크의 애니메이션 셀 중 프레임이 바뀐 것만 스크롤 버퍼에서 다시 그린다 (같은 행의 연속된 셀은 한 번에)
+    private void repaintAnimatedCells(ScrollingLayerBuffer buffer, ScrollingLayerBuffer.RegionPainter painter,
+                                      long syncedTick, int band, int originX, int originY,
+                                      int scaledTileWidth, int scaledTileHeight) {
+        if (animatedCells.length == 0) return;
+
+        Rectangle bounds = calculateVisibleTileBounds(scaledTileWidth, scaledTileHeight);
+        int chunkTiles = StaticChunkCache.CHUNK_TILES;
+        for (int chunkY = bounds.y / chunkTiles; chunkY <= (bounds.y + bounds.height - 1) / chunkTiles; chunkY++) {
+            for (int chunkX = bounds.x / chunkTiles; chunkX <= (bounds.x + bounds.width - 1) / chunkTiles; chunkX++) {
+                int slot = chunkY * animatedChunkColumns + chunkX;
+                int runStart = -1, runEnd = -1;
+
+                for (int i = animatedCellStarts[slot]; i < animatedCellStarts[slot + 1]; i++) {
+                    if (animatedCellAnimations[i].lastChangeTick <= syncedTick) continue;
+                    if (layerBands[animatedCellLayers[i]] != band) continue;
+
+                    int cell = animatedCells[i];
+                    if (cell == runEnd || (cell == runEnd + 1 && cell % mapWidth != 0)) {
+                        runEnd = cell;
+                        continue;
+                    }
+                    repaintCellRun(buffer, painter, runStart, runEnd, originX, originY, scaledTileWidth, scaledTileHeight);
+                    runStart = cell;
+                    runEnd = cell;
+                }
+                repaintCellRun(buffer, painter, runStart, runEnd, originX, originY, scaledTileWidth, scaledTileHeight);
+            }
+        }
+    }
+
+    private void repaintCellRun(ScrollingLayerBuffer buffer, ScrollingLayerBuffer.RegionPainter painter,
+                                int runStart, int runEnd, int originX, int originY,
+                                int scaledTileWidth, int scaledTileHeight) {
+        if (runStart < 0) return;
+        buffer.repaintArea(originX + (runStart % mapWidth) * scaledTileWidth, originY + (runStart / mapWidth) * scaledTileHeight,
+                (runEnd - runStart + 1) * scaledTileWidth, scaledTileHeight, painter);
+    }
+
+    // 청크 캐시가 이 범위를 다 담을 수 있는지 - 담지 못하면(맵 전체 렌더링) Java2D로 바로 그릴 때만 캐시 없이 굽는다
+    private boolean reserveChunks(StaticChunkCache cache, Rectangle bounds) {
+        if (bounds.width <= 0 || bounds.height <= 0) return true;
+
+        int chunkTiles = StaticChunkCache.CHUNK_TILES;
+        int chunksWide = (bounds.x + bounds.width - 1) / chunkTiles - bounds.x / chunkTiles + 1;
+        int chunksHigh = (bounds.y + bounds.height - 1) / chunkTiles - bounds.y / chunkTiles + 1;
+        return cache.reserve(chunksWide, chunksHigh) || rasterTarget != null;
+    }
+
+    private void drawStaticChunks(Graphics2D g2d, StaticChunkCache cache, Rectangle bounds, int originX, int originY,
+                                  int scaledTileWidth, int scaledTileHeight, int band, boolean cached) {
+        if (bounds.width <= 0 || bounds.height <= 0) return;
+
+        int chunkTiles = StaticChunkCache.CHUNK_TILES;
+        int startChunkX = bounds.x / chunkTiles;
+        int startChunkY = bounds.y / chunkTiles;
+        int endChunkX = (bounds.x + bounds.width - 1) / chunkTiles;
+        int endChunkY = (bounds.y + bounds.height - 1) / chunkTiles;
+
+        for (int chunkY = startChunkY; chunkY <= endChunkY; chunkY++) {
+            for (int chunkX = startChunkX; chunkX <= endChunkX; chunkX++) {
+                StaticChunkCache.Chunk chunk = cached
+                        ? cache.getChunk(chunkX, chunkY, band)
+                        : cache.getTransientChunk(chunkX, chunkY, band);
+                if (chunk == null || chunk.image == null) continue;
+                if (chunk.animationTick != animationTick) {
+                    syncAnimatedCells(chunk);
+                }
+                blit(g2d, chunk.image, originX + chunk.tileX * scaledTileWidth,
+                        originY + chunk.tileY * scaledTileHeight);
+            }
+        }
+    }
+
+    // 청크 하나에 해당하는 일반 타일을 청크 캐시의 배율(TILE_SCALE 또는 원본 1배)로 굽는다
+    private boolean paintStaticChunk(Graphics2D g2d, StaticChunkCache.Chunk chunk) {
+        int scaledTileWidth = tileWidth * chunk.pixelScale;
+        int scaledTileHeight = tileHeight * chunk.pixelScale;
+        ScaledTileTable scaledTiles = scaledTilesFor(chunk.pixelScale);
+        chunk.animationTick = animationTick;
+        boolean painted = false;
+
+        for (int layerIndex = 0; layerIndex < layers.size(); layerIndex++) {
+            if (layerBands[layerIndex] != chunk.band) continue;
+            Layer layer = layers.get(layerIndex);
+
+            for (int y = chunk.tileY; y < chunk.tileY + chunk.tilesHigh; y++) {
+                for (int x = chunk.tileX; x < chunk.tileX + chunk.tilesWide; x++) {
+                    int index = y * layer.width + x;
+                    if (index >= layer.data.length) continue;
+
+                    int gid = layer.data[index];
+                    if (gid == 0 || isDirectCell(layerIndex, index)) continue;
+
+                    bakeTile(g2d, scaledTiles, currentFrameGid(gid), (x - chunk.tileX) * scaledTileWidth,
+                            (y - chunk.tileY) * scaledTileHeight, scaledTileWidth, scaledTileHeight);
+                    painted = true;
+                }
+            }
+        }
+        return painted;
+    }
+
+    // 청크를 구운 뒤 프레임이 바뀐 애니메이션 셀만 청크 이미지에서 지우고 그 셀의 레이어들을 다시 그린다
+    private void syncAnimatedCells(StaticChunkCache.Chunk chunk) {
+        long syncedTick = chunk.animationTick;
+        chunk.animationTick = animationTick;
+
+        int slot = chunk.chunkY * animatedChunkColumns + chunk.chunkX;
+        if (slot + 1 >= animatedCellStarts.length) return;
+
+        Graphics2D g2d = null;
+        int paintedCell = -1;
+        for (int i = animatedCellStarts[slot]; i < animatedCellStarts[slot + 1]; i++) {
+            int cell = animatedCells[i];
+            if (cell == paintedCell) continue;     // 같은 셀에 애니메이션 레이어가 여러 개면 한 번만
+            if (animatedCellAnimations[i].lastChangeTick <= syncedTick) continue;
+            if (layerBands[animatedCellLayers[i]] != chunk.band) continue;
+
+            if (g2d == null) {
+                g2d = chunk.image.createGraphics();
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            }
+            paintBakedCell(g2d, chunk, cell % mapWidth, cell / mapWidth);
+            paintedCell = cell;
+        }
+
+        if (g2d != null) {
+            g2d.dispose();
+            if (softwareRasterizer != null) {
+                softwareRasterizer.invalidate(chunk.image);
+            }
+        }
+    }
+
+    // 청크 이미지의 셀 하나를 비우고 paintStaticChunk와 같은 규칙으로 그 셀의 레이어들을 순서대로 다시 굽는다
+    private void paintBakedCell(Graphics2D g2d, StaticChunkCache.Chunk chunk, int x, int y) {
+        int scaledTileWidth = tileWidth * chunk.pixelScale;
+        int scaledTileHeight = tileHeight * chunk.pixelScale;
+        int cellX = (x - chunk.tileX) * scaledTileWidth;
+        int cellY = (y - chunk.tileY) * scaledTileHeight;
+        ScaledTileTable scaledTiles = scaledTilesFor(chunk.pixelScale);
+
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(cellX, cellY, scaledTileWidth, scaledTileHeight);
+        g2d.setComposite(AlphaComposite.SrcOver);
+
+        for (int layerIndex = 0; layerIndex < layers.size(); layerIndex++) {
+            if (layerBands[layerIndex] != chunk.band) continue;
+            Layer layer = layers.get(layerIndex);
+
+            int index = y * layer.width + x;
+            if (index >= layer.data.length) continue;
+
+            int gid = layer.data[index];
+            if (gid == 0 || isDirectCell(layerIndex, index)) continue;
+
+            bakeTile(g2d, scaledTiles, currentFrameGid(gid), cellX, cellY, scaledTileWidth, scaledTileHeight);
+        }
+    }
+
+    private static boolean isFrontLayer(Layer layer) {
+        return layer.layerType.equals("FRONT") || layer.layerType.equals("ALWAYSFRONT");
+    }
+
     private void renderLayersWithCamera(Graphics2D g2d, Rectangle bounds, int scaledTileWidth,
                                         int scaledTileHeight, boolean frontLayersOnly) {
+        int phase = frontLayersOnly ? FrameProfiler.FRONT_LAYERS : FrameProfiler.BACK_LAYERS;
+        profiler.begin(phase);
         for (Layer layer : layers) {
             if (!layer.visible) continue;
 
-            boolean isFrontLayer = layer.layerType.equals("FRONT") || layer.layerType.equals("ALWAYSFRONT");
-            if (frontLayersOnly != isFrontLayer) continue;
-
-            renderLayerTiles(g2d, layer, bounds, scaledTileWidth, scaledTileHeight, true);
-        }
+            if (frontLayersOnly != isFrontLayer(layer)) continue;
 
-        if (!frontLayersOnly) {
-            renderPositionedObjects(g2d, scaledTileWidth, scaledTileHeight, true);
+            renderLayerTiles(g2d, layer, bounds, camera.worldToScreenX(0), camera.worldToScreenY(0),
+                    scaledTileWidth, scaledTileHeight, frontLayersOnly);
         }
+        profiler.end(phase);
     }
 
     private void renderLayersFixed(Graphics2D g2d, int scaledTileWidth, int scaledTileHeight, boolean frontLayersOnly) {
         Rectangle fullBounds = new Rectangle(0, 0, mapWidth, mapHeight);
 
+        int phase = frontLayersOnly ? FrameProfiler.FRONT_LAYERS : FrameProfiler.BACK_LAYERS;
+        profiler.begin(phase);
         for (Layer layer : layers) {
             if (!layer.visible) continue;
 
-            boolean isFrontLayer = layer.layerType.equals("FRONT") || layer.layerType.equals("ALWAYSFRONT");
-            if (frontLayersOnly != isFrontLayer) continue;
+            if (frontLayersOnly != isFrontLayer(layer)) continue;
 
-            renderLayerTiles(g2d, layer, fullBounds, scaledTileWidth, scaledTileHeight, false);
-        }
-
-        if (!frontLayersOnly) {
-            renderPositionedObjects(g2d, scaledTileWidth, scaledTileHeight, true);
+            renderLayerTiles(g2d, layer, fullBounds, mapOffsetX, mapOffsetY, scaledTileWidth, scaledTileHeight, frontLayersOnly);
         }
+        profiler.end(phase);
     }
 
-    private void renderLayerTiles(Graphics2D g2d, Layer layer, Rectangle bounds,
-                                  int scaledTileWidth, int scaledTileHeight, boolean useCamera) {
+    // 뒤 레이어 패스에서는 발 Y로 정렬할 큰 타일을 바로 그리지 않고 depthSortedDrawList에 모은다
+    private void renderLayerTiles(Graphics2D g2d, Layer layer, Rectangle bounds, int originX, int originY,
+                                  int scaledTileWidth, int scaledTileHeight, boolean frontPass) {
         for (int y = bounds.y; y < bounds.y + bounds.height && y < mapHeight; y++) {
             for (int x = bounds.x; x < bounds.x + bounds.width && x < mapWidth; x++) {
                 int index = y * layer.width + x;
@@ -672,139 +1618,283 @@ public class TmxParser {
                 int gid = layer.data[index];
                 if (gid == 0) continue;
 
-                int screenX, screenY;
-                if (useCamera) {
-                    screenX = camera.worldToScreenX(x * scaledTileWidth);
-                    screenY = camera.worldToScreenY(y * scaledTileHeight);
-                } else {
-                    screenX = mapOffsetX + x * scaledTileWidth;
-                    screenY = mapOffsetY + y * scaledTileHeight;
-                }
-
-                // 나무 타일 특별 처리
-                if (treeTileCustomizations.containsKey(gid)) {
-                    renderTreeTile(g2d, screenX, screenY, scaledTileWidth, scaledTileHeight, gid);
-                    continue; // 일반 렌더링 건너뛰기
-                }
-
-                BufferedImage tileImage = globalTileCache.get(gid);
-                if (tileImage == null) continue;
-
-                if (pathTileCustomizations.containsKey(gid)) {
-                    renderCustomPathTile(g2d, tileImage, screenX, screenY,
-                            scaledTileWidth, scaledTileHeight, gid, x, y);
-                } else {
-                    g2d.drawImage(tileImage, screenX, screenY, scaledTileWidth, scaledTileHeight, null);
-                }
+                renderCell(g2d, gid, x, y, originX, originY, scaledTileWidth, scaledTileHeight, frontPass);
             }
         }
     }
 
-    private void renderCustomPathTile(Graphics2D g2d, BufferedImage tileImage,
-                                      int screenX, int screenY, int tileWidth, int tileHeight,
-                                      int gid, int tileX, int tileY) {
-        // Path 커스터마이징 처리
-        if (pathTileCustomizations.containsKey(gid)) {
-            PathTileCustomization customization = pathTileCustomizations.get(gid);
-            if (customization.isGrass) {
-                grassRenderer.renderGrassTile(g2d, screenX, screenY, tileWidth, tileHeight, gid, tileX, tileY, customization);
-                return;
+    // 레이어에서 하나씩 그리는 셀 중 범위 안의 것만 - 행마다 셀 목록에서 그 행의 시작 위치를 이진 탐색한다
+    private void renderDirectCells(Graphics2D g2d, int layerIndex, Rectangle bounds, int originX, int originY,
+                                       int scaledTileWidth, int scaledTileHeight, boolean frontPass) {
+        Layer layer = layers.get(layerIndex);
+        int[] cells = layerDirectCells[layerIndex];
+        for (int y = bounds.y; y < bounds.y + bounds.height && y < mapHeight; y++) {
+            int rowStart = y * layer.width + bounds.x;
+            int rowEnd = y * layer.width + Math.min(bounds.x + bounds.width, mapWidth);
+            int i = Arrays.binarySearch(cells, rowStart);
+            if (i < 0) i = ~i;
+
+            for (; i < cells.length && cells[i] < rowEnd; i++) {
+                int index = cells[i];
+                renderCell(g2d, layer.data[index], index % layer.width, y, originX, originY,
+                        scaledTileWidth, scaledTileHeight, frontPass);
             }
-            renderCustomTileWithMode(g2d, tileImage, screenX, screenY, tileWidth, tileHeight, customization, gid);
-            return;
         }
+    }
 
-        // Tree 커스터마이징 처리
-        if (treeTileCustomizations.containsKey(gid)) {
-            renderTreeTile(g2d, screenX, screenY, tileWidth, tileHeight, gid);
+    private void renderCell(Graphics2D g2d, int gid, int x, int y, int originX, int originY,
+                            int scaledTileWidth, int scaledTileHeight, boolean frontPass) {
+        int screenX = originX + x * scaledTileWidth;
+        int screenY = originY + y * scaledTileHeight;
+
+        if (!frontPass && isDepthSortedGid(gid)) {
+            addDepthSortedCell(gid, x, y, screenX, screenY);
             return;
         }
-
-        // 기본 타일 렌더링
-        g2d.drawImage(tileImage, screenX, screenY, tileWidth, tileHeight, null);
+        renderTileAt(g2d, gid, x, y, screenX, screenY, scaledTileWidth, scaledTileHeight);
     }
 
-    private void renderCustomTileWithMode(Graphics2D g2d, BufferedImage tileImage,
-                                          int screenX, int screenY, int tileWidth, int tileHeight,
-                                          PathTileCustomization customization, int gid) {
-        int originalWidth = tileImage.getWidth();
-        int originalHeight = tileImage.getHeight();
+    // 셀 크기(scaledTileWidth/Height)는 항상 tileWidth/tileHeight * drawScale - 커스터마이징 상자는 그 기준으로 미리 계산됨
+    private void renderTileAt(Graphics2D g2d, int gid, int x, int y, int screenX, int screenY,
+                              int scaledTileWidth, int scaledTileHeight) {
+        TileRenderTable table = renderTable;
+        ScaledTileTable scaled = scaledTilesFor(drawScale);
+        int base = gid * TileRenderTable.BOX_STRIDE;
 
-        int renderX = screenX + customization.offsetX;
-        int renderY = screenY + customization.offsetY;
-        int renderWidth = tileWidth;
-        int renderHeight = tileHeight;
+        switch (table.kind(gid)) {
+            case TileRenderTable.PLAIN:
+                drawTile(g2d, scaled, gid, screenX, screenY, scaledTileWidth, scaledTileHeight);
+                break;
 
-        switch (customization.renderMode) {
-            case STRETCH:
-                g2d.drawImage(tileImage, renderX, renderY, renderWidth, renderHeight, null);
+            case TileRenderTable.ANIMATED:
+                drawTile(g2d, scaled, currentFrameGid(gid), screenX, screenY, scaledTileWidth, scaledTileHeight);
                 break;
 
-            case ASPECT_FIT:
-                double scale = Math.min((double) tileWidth / originalWidth, (double) tileHeight / originalHeight);
-                renderWidth = (int) (originalWidth * scale);
-                renderHeight = (int) (originalHeight * scale);
-                renderX = screenX + (tileWidth - renderWidth) / 2 + customization.offsetX;
-                renderY = screenY + (tileHeight - renderHeight) / 2 + customization.offsetY;
-                g2d.drawImage(tileImage, renderX, renderY, renderWidth, renderHeight, null);
+            case TileRenderTable.GRASS:
+                profiler.begin(FrameProfiler.GRASS);
+                grassRenderer.renderGrassTile(g2d, screenX, screenY, scaledTileWidth, scaledTileHeight, gid, x, y,
+                        pathCustomizationFor(gid), TILE_SCALE / drawScale);
+                profiler.end(FrameProfiler.GRASS);
                 break;
 
-            case ASPECT_FILL:
-                scale = Math.max((double) tileWidth / originalWidth, (double) tileHeight / originalHeight);
-                renderWidth = (int) (originalWidth * scale);
-                renderHeight = (int) (originalHeight * scale);
-                renderX = screenX + customization.offsetX;
-                renderY = screenY + tileHeight - renderHeight + customization.offsetY;
-                g2d.drawImage(tileImage, renderX, renderY, renderWidth, renderHeight, null);
+            case TileRenderTable.PATH:
+            case TileRenderTable.TALL_PATH: {
+                int[] boxes = table.boxes(drawScale);
+                drawTile(g2d, scaled, gid, screenX + boxes[base], screenY + boxes[base + 1],
+                        boxes[base + 2], boxes[base + 3]);
                 break;
+            }
 
-            case ORIGINAL_SIZE:
-                renderWidth = customization.tileWidth * TILE_SCALE;
-                renderHeight = customization.tileHeight * TILE_SCALE;
-                if(gid == 85 || gid == 86){ // 나무, 돌
-                    renderX = screenX + customization.offsetX;
-                    renderY = screenY + customization.offsetY;
+            case TileRenderTable.TREE: {
+                int[] boxes = table.boxes(drawScale);
+                if (!scaled.contains(gid)) break;
+                if (scaled.images[gid] == null) {
+                    BufferedImage[] halves = getTreeTileImages(gid, treeCustomizationFor(gid));
+                    scaled.images[gid] = scaleTile(halves[0], boxes[base + 2], boxes[base + 3]);
+                    scaled.treeTops[gid] = scaleTile(halves[1], boxes[base + 6], boxes[base + 7]);
                 }
-                else {
-                    renderX = screenX + customization.offsetX;
-                    renderY = screenY + tileHeight - renderHeight + customization.offsetY;
+                // 하단(줄기) -> 상단(잎사귀, 한 타일 위)
+                if (rasterTarget != null) {
+                    if (scaled.sources[gid] == null && scaled.images[gid] != null) {
+                        scaled.sources[gid] = rasterTarget.source(scaled.images[gid]);
+                    }
+                    if (scaled.treeTopSources[gid] == null && scaled.treeTops[gid] != null) {
+                        scaled.treeTopSources[gid] = rasterTarget.source(scaled.treeTops[gid]);
+                    }
+                    rasterTarget.draw(scaled.sources[gid], screenX + boxes[base], screenY + boxes[base + 1]);
+                    rasterTarget.draw(scaled.treeTopSources[gid], screenX + boxes[base + 4], screenY + boxes[base + 5]);
+                    break;
                 }
-
-                g2d.drawImage(tileImage, renderX, renderY, renderWidth, renderHeight, null);
+                blitTile(g2d, scaled.images[gid], screenX + boxes[base], screenY + boxes[base + 1]);
+                blitTile(g2d, scaled.treeTops[gid], screenX + boxes[base + 4], screenY + boxes[base + 5]);
                 break;
+            }
+        }
+    }
 
-            case CENTER:
-                renderWidth = originalWidth;
-                renderHeight = originalHeight;
-                renderX = screenX + (tileWidth - renderWidth) / 2 + customization.offsetX;
-                renderY = screenY + (tileHeight - renderHeight) / 2 + customization.offsetY;
-                g2d.drawImage(tileImage, renderX, renderY, renderWidth, renderHeight, null);
-                break;
+    private ScaledTileTable scaledTilesFor(int pixelScale) {
+        return scaledTiles[pixelScale == 1 ? 1 : 0];
+    }
+
+    // GID 자리에 확대해 둔 타일 (비어 있으면 이번에 width x height로 확대해서 채운다)
+    private BufferedImage scaledTile(ScaledTileTable table, int gid, int width, int height) {
+        if (!table.contains(gid)) return null;
+
+        BufferedImage image = table.images[gid];
+        if (image == null) {
+            image = scaleTile(getTileImage(gid), width, height);
+            table.images[gid] = image;
+        }
+        return image;
+    }
+
+    // 이미 그 크기인 타일(원본 1배)은 그대로 쓰고, 아니면 표에 따로 보관할 사본을 만든다
+    private static BufferedImage scaleTile(BufferedImage image, int width, int height) {
+        if (image == null || width <= 0 || height <= 0) return null;
+        if (image.getWidth() == width && image.getHeight() == height) return image;
+        return ScaledImageCache.createScaledCopy(image, width, height);
+    }
+
+    // 소프트웨어 렌더러로 기록 중이면 표에 변환해 둔 원본을 넘겨 명령마다 이미지로 조회하지 않는다
+    private void drawTile(Graphics2D g2d, ScaledTileTable table, int gid, int x, int y, int width, int height) {
+        if (rasterTarget == null) {
+            blitTile(g2d, scaledTile(table, gid, width, height), x, y);
+            return;
+        }
+        if (!table.contains(gid)) return;
+
+        SoftwareRasterizer.RasterSource source = table.sources[gid];
+        if (source == null) {
+            BufferedImage image = scaledTile(table, gid, width, height);
+            if (image == null) return;
+            source = rasterTarget.source(image);
+            table.sources[gid] = source;
         }
+        rasterTarget.draw(source, x, y);
+    }
+
+    private void blitTile(Graphics2D g2d, BufferedImage image, int x, int y) {
+        if (image != null) blit(g2d, image, x, y);
+    }
+
+    // 청크 이미지에 구울 때는 소프트웨어 렌더러로 기록 중인 프레임이라도 Java2D로 바로 그린다
+    private void bakeTile(Graphics2D g2d, ScaledTileTable table, int gid, int x, int y, int width, int height) {
+        BufferedImage image = scaledTile(table, gid, width, height);
+        if (image != null) g2d.drawImage(image, x, y, null);
+    }
+
+    // 미리 확대해 둔 이미지를 스케일 없이 복사
+    private void drawScaled(Graphics2D g2d, BufferedImage image, int x, int y, int width, int height) {
+        if (image == null || width <= 0 || height <= 0) return;
+        blit(g2d, scaledImageCache.get(image, width, height), x, y);
+    }
+
+    // 그리기 대상 분기 - 소프트웨어 렌더러로 기록 중이면 명령으로 쌓고, 아니면 Java2D로 바로 그린다
+    private void blit(Graphics2D g2d, BufferedImage image, int x, int y) {
+        if (rasterTarget != null) {
+            rasterTarget.draw(image, x, y);
+        } else {
+            g2d.drawImage(image, x, y, null);
+        }
+    }
+
+    // 플레이어를 주어진 화면 좌표에 그린다 (스프라이트 좌표는 월드 좌표이므로 그리는 동안만 바꿨다가 되돌림)
+    private void renderPlayerAt(Graphics2D g2d, int screenX, int screenY, int pixelScale) {
+        int originalX = sprite.getX();
+        int originalY = sprite.getY();
+
+        sprite.setPosition(screenX, screenY);
+        profiler.begin(FrameProfiler.PLAYER);
+        if (rasterTarget != null) {
+            sprite.render(rasterTarget::draw, pixelScale);
+        } else {
+            sprite.render(g2d, pixelScale);
+        }
+        profiler.end(FrameProfiler.PLAYER);
+        sprite.setPosition(originalX, originalY);
     }
 
     public void addPathTileCustomization(int gid, String imagePath, int targetTileIndex,
                                          int tileWidth, int tileHeight,
                                          PathTileCustomization.RenderMode renderMode,
                                          int offsetX, int offsetY, int startY, boolean isGrass) {
+        addPathTileCustomization(gid, imagePath, targetTileIndex, tileWidth, tileHeight, renderMode,
+                offsetX, offsetY, startY, isGrass, false);
+    }
+
+    /// @param topAligned ORIGINAL_SIZE 이미지를 셀 위쪽에 맞출지 (기본은 아래쪽)
+    public void addPathTileCustomization(int gid, String imagePath, int targetTileIndex,
+                                         int tileWidth, int tileHeight,
+                                         PathTileCustomization.RenderMode renderMode,
+                                         int offsetX, int offsetY, int startY, boolean isGrass, boolean topAligned) {
 
         pathTileCustomizations.put(gid, new PathTileCustomization(imagePath, targetTileIndex,
-                tileWidth, tileHeight, renderMode, offsetX, offsetY, startY, isGrass));
+                tileWidth, tileHeight, renderMode, offsetX, offsetY, startY, isGrass, topAligned));
+        rebuildCustomizationTables();
+        invalidateChunkCaches();
+        preparedMaps.clear();                       // 미리 준비한 맵은 이전 커스터마이징 기준
         System.out.println("Path 타일 커스터마이징 추가: GID " + gid + " -> " + imagePath +
-                " [모드: " + renderMode + ", 오프셋: (" + offsetX + "," + offsetY + "), 시작Y: " + startY + ", 잔디: " + isGrass + "]");
+                " [모드: " + renderMode + ", 오프셋: (" + offsetX + "," + offsetY + "), 시작Y: " + startY + ", 잔디: " + isGrass + (topAligned ? ", 위쪽 맞춤" : "") + "]");
+    }
+
+
+    private void renderDepthSortedWithCamera(Graphics2D g2d, int originX, int originY,
+                                             int scaledTileWidth, int scaledTileHeight) {
+        renderDepthSorted(g2d, originX, originY, scaledTileWidth, scaledTileHeight,
+                camera.getViewWidth(), camera.getViewHeight(), true,
+                camera.worldToScreenX(sprite.getX()), camera.worldToScreenY(sprite.getY()), TILE_SCALE);
+    }
+
+    /// 발 Y로 정렬해 그릴 타일 - 나무 커스터마이징과 잔디가 아닌 ORIGINAL_SIZE Path 타일(그루터기, 바위, 큰 덤불)
+    private boolean isDepthSortedGid(int gid) {
+        return TileRenderTable.isDepthSorted(renderTable.kind(gid));
     }
 
+    // 발 Y는 실제로 그려지는 이미지(나무는 줄기)의 아래쪽
+    private void addDepthSortedCell(int gid, int x, int y, int screenX, int screenY) {
+        int[] boxes = renderTable.boxes(drawScale);
+        int base = gid * TileRenderTable.BOX_STRIDE;
+        int footY = screenY + boxes[base + 1] + boxes[base + 3];
+        depthSortedDrawList.add(footY, DepthSortedDrawList.CELL, gid, x, y, screenX, screenY);
+    }
 
-    private void renderPlayerWithCamera(Graphics2D g2d) {
-        int playerScreenX = camera.worldToScreenX(sprite.getX());
-        int playerScreenY = camera.worldToScreenY(sprite.getY());
+    // 뒤 레이어 패스에서 모아 둔 큰 타일에 배치 오브젝트와 플레이어를 더해 발 Y 순서로 그린다
+    // 발 Y가 같으면 타일 -> 오브젝트 -> 플레이어 순서 (추가 순서)
+    // 배치 오브젝트는 공간 색인에서 화면(0, 0, viewWidth, viewHeight)과 겹치는 것만 꺼낸다
+    private void renderDepthSorted(Graphics2D g2d, int originX, int originY, int scaledTileWidth, int scaledTileHeight,
+                                   int viewWidth, int viewHeight,
+                                   boolean includePlayer, int playerScreenX, int playerScreenY, int pixelScale) {
+        profiler.begin(FrameProfiler.OBJECTS);
+        DepthSortedDrawList drawList = depthSortedDrawList;
 
-        int originalX = sprite.getX();
-        int originalY = sprite.getY();
+        ensureObjectGrid();
+        // 화면 영역을 원본 픽셀 좌표로 환산 (경계에 걸친 픽셀까지 포함하도록 바깥쪽으로 올림)
+        int viewLeft = Math.floorDiv(-originX, drawScale);
+        int viewTop = Math.floorDiv(-originY, drawScale);
+        int viewRight = viewLeft + (viewWidth + drawScale - 1) / drawScale + 1;
+        int viewBottom = viewTop + (viewHeight + drawScale - 1) / drawScale + 1;
 
-        sprite.setPosition(playerScreenX, playerScreenY);
-        sprite.render(g2d);
-        sprite.setPosition(originalX, originalY);
+        int candidates = objectGrid.query(viewLeft, viewTop, viewRight, viewBottom);
+        for (int c = 0; c < candidates; c++) {
+            int i = objectGrid.result(c);
+            if (objectRights[i] <= viewLeft || objectLefts[i] >= viewRight
+                    || objectBottoms[i] <= viewTop || objectTops[i] >= viewBottom) continue;
+
+            PositionedObject obj = positionedObjects.get(i);
+            int screenX = originX + obj.tileX * scaledTileWidth;
+            int screenY = originY + obj.tileY * scaledTileHeight;
+            drawList.add(screenY + scaledTileHeight + scaleOffset(obj.offsetY), DepthSortedDrawList.OBJECT, i,
+                    obj.tileX, obj.tileY, screenX, screenY);
+        }
+        if (includePlayer) {
+            drawList.add(playerScreenY + sprite.getHeight() * pixelScale / TILE_SCALE, DepthSortedDrawList.PLAYER, 0,
+                    0, 0, playerScreenX, playerScreenY);
+        }
+
+        drawList.sort();
+        for (int order = 0; order < drawList.size(); order++) {
+            int entry = drawList.entry(order);
+            int screenX = drawList.screenX(entry);
+            int screenY = drawList.screenY(entry);
+
+            switch (drawList.kind(entry)) {
+                case DepthSortedDrawList.CELL:
+                    renderTileAt(g2d, drawList.id(entry), drawList.tileX(entry), drawList.tileY(entry),
+                            screenX, screenY, scaledTileWidth, scaledTileHeight);
+                    break;
+                case DepthSortedDrawList.OBJECT:
+                    renderObjectWithMode(g2d, positionedObjects.get(drawList.id(entry)), screenX, screenY, scaledTileHeight);
+                    break;
+                case DepthSortedDrawList.PLAYER:
+                    profiler.end(FrameProfiler.OBJECTS);
+                    renderPlayerAt(g2d, screenX, screenY, pixelScale);
+                    profiler.begin(FrameProfiler.OBJECTS);
+                    break;
+            }
+        }
+
+        drawList.clear();
+        profiler.end(FrameProfiler.OBJECTS);
     }
 
     public void setPlayerStartPosition(int tileX, int tileY) {
@@ -825,74 +1915,222 @@ public class TmxParser {
         pixelY = Math.max(minY, Math.min(maxY, pixelY));
 
         sprite.setPosition(pixelX, pixelY);
+        previousPlayerX = pixelX;
+        previousPlayerY = pixelY;
         System.out.println("플레이어 위치 설정: 타일(" + tileX + ", " + tileY + ") -> 픽셀(" + pixelX + ", " + pixelY + ")");
     }
 
-    private void renderUI(Graphics2D g2d) {
-        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-        g2d.setFont(new Font("Arial", Font.BOLD, 12));
+    public void setPlayerInRegionRenders(boolean include) {
+        this.playerInRegionRenders = include;
+    }
+
+    /// 맵 전체를 한 장의 이미지로 렌더링
+    /// @param pixelScale TILE_SCALE(게임 화면과 같은 배율) 또는 1(원본 해상도)
+    public BufferedImage renderWholeMap(int pixelScale) {
+        return renderRegion(0, 0, mapWidth * tileWidth * pixelScale, mapHeight * tileHeight * pixelScale, pixelScale);
+    }
+
+    /// 맵의 임의 영역을 게임과 같은 순서(뒤 레이어 -> 발 Y로 정렬한 오브젝트/큰 타일/플레이어 -> 앞 레이어)와 커스터마이징으로 렌더링
+    /// 창 모드에서는 렌더링 스레드(EDT 또는 능동 렌더링 루프)에서만 호출해야 한다
+    /// @param x 영역 좌상단 X (pixelScale 배율의 맵 픽셀 좌표)
+    /// @param y 영역 좌상단 Y (pixelScale 배율의 맵 픽셀 좌표)
+    /// @param pixelScale TILE_SCALE 또는 1
+    public BufferedImage renderRegion(int x, int y, int width, int height, int pixelScale) {
+        if (mapWidth <= 0 || mapHeight <= 0 || width <= 0 || height <= 0) return null;
+
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            renderRegion(g2d, x, y, width, height, pixelScale);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
 
+    /// renderRegion과 같지만 호출하는 쪽이 준 Graphics에 (0, 0)부터 그린다 (같은 대상 이미지를 반복 재사용할 때)
+    public void renderRegion(Graphics2D g2d, int x, int y, int width, int height, int pixelScale) {
+        if (mapWidth <= 0 || mapHeight <= 0 || width <= 0 || height <= 0) return;
+        if (pixelScale != 1 && pixelScale != TILE_SCALE) {
+            System.err.println("지원하지 않는 렌더링 배율: " + pixelScale + " (1 또는 " + TILE_SCALE + "만 가능)");
+            return;
+        }
+
+        StaticChunkCache cache = pixelScale == 1 ? nativeChunkCache : staticChunkCache;
+        int scaledTileWidth = tileWidth * pixelScale;
+        int scaledTileHeight = tileHeight * pixelScale;
+
+        // 커스터마이징 타일이 셀 밖으로 넘치는 여유는 각 패스에서 withOverdraw로 더한다
+        Rectangle bounds = tileBoundsOf(x, y, width, height, scaledTileWidth, scaledTileHeight);
+
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(0, 0, width, height);
+
+        int originX = -x;
+        int originY = -y;
+        int previousDrawScale = drawScale;
+        drawScale = pixelScale;
+        try {
+            cache.beginFrame();
+            renderRegionPass(g2d, cache, bounds, originX, originY, scaledTileWidth, scaledTileHeight, false);
+            // 플레이어 좌표(TILE_SCALE 배율 + 맵 오프셋)를 렌더링 영역 좌표로 환산
+            renderDepthSorted(g2d, originX, originY, scaledTileWidth, scaledTileHeight, width, height, playerInRegionRenders,
+                    originX + Math.floorDiv((sprite.getX() - mapOffsetX) * pixelScale, TILE_SCALE),
+                    originY + Math.floorDiv((sprite.getY() - mapOffsetY) * pixelScale, TILE_SCALE), pixelScale);
+            renderRegionPass(g2d, cache, bounds, originX, originY, scaledTileWidth, scaledTileHeight, true);
+        } finally {
+            drawScale = previousDrawScale;
+        }
+    }
+
+    // 청크 캐시를 끄면 게임과 마찬가지로 타일을 하나씩 그린다 (벤치마크에서 두 경로 비교용)
+    private void renderRegionPass(Graphics2D g2d, StaticChunkCache cache, Rectangle bounds, int originX, int originY,
+                                  int scaledTileWidth, int scaledTileHeight, boolean frontPass) {
+        if (staticChunkCacheEnabled) {
+            renderStaticPass(g2d, cache, bounds, originX, originY, scaledTileWidth, scaledTileHeight, frontPass);
+            return;
+        }
+
+        Rectangle overdrawBounds = withOverdraw(bounds);
+        for (Layer layer : layers) {
+            if (!layer.visible || frontPass != isFrontLayer(layer)) continue;
+            renderLayerTiles(g2d, layer, overdrawBounds, originX, originY, scaledTileWidth, scaledTileHeight, frontPass);
+        }
+    }
+
+    private void renderUI(Graphics2D g2d) {
         renderMainInfoPanel(g2d);
         renderMapDetailPanel(g2d);
         renderSystemInfoPanel(g2d);
     }
 
     private void renderMainInfoPanel(Graphics2D g2d) {
-        renderPanel(g2d, 10, 10, 280, 100, () -> {
-            int yOffset = 25;
-            final int lineHeight = 16;
+        long[] state = mainInfoPanel.state();
+        state[0] = sprite.getX();
+        state[1] = sprite.getY();
+        state[2] = camera.getX();
+        state[3] = camera.getY();
+        state[4] = mapWidth;
+        state[5] = mapHeight;
+        state[6] = tileWidth;
+        state[7] = tileHeight;
+        state[8] = mapOffsetX;
+        state[9] = mapOffsetY;
+        mainInfoPanel.draw(g2d, 10, 10, 280, 100);
+    }
 
-            g2d.setColor(Color.WHITE);
-            g2d.drawString(String.format("Player Position: (%d, %d)", sprite.getX(), sprite.getY()), 15, yOffset);
-            yOffset += lineHeight;
+    private void paintMainInfoPanel(Graphics2D g2d, int width, int height) {
+        int yOffset = 15;
+        final int lineHeight = 16;
 
-            int playerTileX = (sprite.getX() - mapOffsetX) / (tileWidth * TILE_SCALE);
-            int playerTileY = (sprite.getY() - mapOffsetY) / (tileHeight * TILE_SCALE);
-            g2d.drawString(String.format("Player Tile: (%d, %d)", playerTileX, playerTileY), 15, yOffset);
-            yOffset += lineHeight;
+        g2d.setFont(HUD_FONT);
+        g2d.setColor(Color.WHITE);
+        g2d.drawString(String.format("Player Position: (%d, %d)", sprite.getX(), sprite.getY()), 5, yOffset);
+        yOffset += lineHeight;
 
-            g2d.drawString(String.format("Camera: (%d, %d)", camera.getX(), camera.getY()), 15, yOffset);
-            yOffset += lineHeight;
+        int playerTileX = (sprite.getX() - mapOffsetX) / (tileWidth * TILE_SCALE);
+        int playerTileY = (sprite.getY() - mapOffsetY) / (tileHeight * TILE_SCALE);
+        g2d.drawString(String.format("Player Tile: (%d, %d)", playerTileX, playerTileY), 5, yOffset);
+        yOffset += lineHeight;
 
-            g2d.drawString(String.format("Map Size: %d x %d tiles", mapWidth, mapHeight), 15, yOffset);
-            yOffset += lineHeight;
+        g2d.drawString(String.format("Camera: (%d, %d)", camera.getX(), camera.getY()), 5, yOffset);
+        yOffset += lineHeight;
 
-            g2d.drawString(String.format("Tile Size: %dx%d pixels", tileWidth, tileHeight), 15, yOffset);
-        });
+        g2d.drawString(String.format("Map Size: %d x %d tiles", mapWidth, mapHeight), 5, yOffset);
+        yOffset += lineHeight;
+
+        g2d.drawString(String.format("Tile Size: %dx%d pixels", tileWidth, tileHeight), 5, yOffset);
     }
 
     private void renderMapDetailPanel(Graphics2D g2d) {
+        long[] state = mapDetailPanel.state();
+        state[0] = mapWidth;
+        state[1] = mapHeight;
+        state[2] = tileWidth;
+        state[3] = tileHeight;
+        state[4] = displaySurface.getWidth();
+        state[5] = displaySurface.getHeight();
+        state[6] = mapOffsetX;
+        state[7] = mapOffsetY;
+        state[8] = (nativeResolutionEnabled ? 1 : 0) | (staticChunkCacheEnabled ? 2 : 0)
+                | (scrollBlitEnabled ? 4 : 0) | (softwareRenderingEnabled ? 8 : 0);
+        state[9] = mapLoadCount;
+        state[10] = gidTilesets.length;
+        state[11] = cachedTileCount;
+        state[12] = staticChunkCache.getResidentCount();
+        state[13] = staticChunkCache.getBakedCount();
+        sampleHudMeasurements();
+        state[14] = hudScrollRepaintedPermille;
+        state[15] = scaledImageCache.getImageCount();
+        state[16] = scaledImageCache.getMemoryBytes() / 1024;
+        state[17] = softwareRenderingEnabled ? hudRasterizeCommands : 0;
+        state[18] = softwareRenderingEnabled ? hudRasterizeCentimillis : 0;
+
         int panelWidth = 300;
-        int panelHeight = 120;
-        int panelX = canvas.getWidth() - panelWidth - 10;
+        mapDetailPanel.draw(g2d, displaySurface.getWidth() - panelWidth - 10, 10, panelWidth, 176);
+    }
 
-        renderPanel(g2d, panelX, 10, panelWidth, panelHeight, () -> {
-            int yOffset = 25;
-            final int lineHeight = 14;
+    private void sampleHudMeasurements() {
+        long now = System.nanoTime();
+        if (now - hudSampledAt < HUD_SAMPLE_NANOS) return;
+        hudSampledAt = now;
+        hudScrollRepaintedPermille = Math.round(backScrollRepaintedFraction() * 1000);
+        if (softwareRenderingEnabled) {
+            hudRasterizeCommands = softwareRasterizer.getCommandCount();
+            hudRasterizeCentimillis = Math.round(softwareRasterizer.getLastRasterizeMillis() * 100);
+        }
+    }
 
-            int mapPixelWidth = mapWidth * tileWidth * TILE_SCALE;
-            int mapPixelHeight = mapHeight * tileHeight * TILE_SCALE;
+    private void paintMapDetailPanel(Graphics2D g2d, int width, int height) {
+        int yOffset = 15;
+        final int lineHeight = 14;
 
-            g2d.setColor(Color.CYAN);
-            g2d.drawString(String.format("Map Pixel Size: %dx%d", mapPixelWidth, mapPixelHeight), panelX + 5, yOffset);
-            yOffset += lineHeight;
+        int mapPixelWidth = mapWidth * tileWidth * TILE_SCALE;
+        int mapPixelHeight = mapHeight * tileHeight * TILE_SCALE;
 
-            g2d.drawString(String.format("Canvas Size: %dx%d", canvas.getWidth(), canvas.getHeight()), panelX + 5, yOffset);
-            yOffset += lineHeight;
+        g2d.setFont(HUD_FONT);
+        g2d.setColor(Color.CYAN);
+        g2d.drawString(String.format("Map Pixel Size: %dx%d", mapPixelWidth, mapPixelHeight), 5, yOffset);
+        yOffset += lineHeight;
 
-            g2d.drawString(String.format("Map Offset: X=%d, Y=%d", mapOffsetX, mapOffsetY), panelX + 5, yOffset);
-            yOffset += lineHeight;
+        g2d.drawString(String.format("Canvas Size: %dx%d (%s)", displaySurface.getWidth(), displaySurface.getHeight(),
+                activeRenderLoop != null ? "active" : "passive"), 5, yOffset);
+        yOffset += lineHeight;
 
-            g2d.drawString(String.format("Tile Scale: x%d", TILE_SCALE), panelX + 5, yOffset);
-            yOffset += lineHeight;
+        g2d.drawString(String.format("Map Offset: X=%d, Y=%d", mapOffsetX, mapOffsetY), 5, yOffset);
+        yOffset += lineHeight;
 
-            g2d.setColor(Color.YELLOW);
-            g2d.drawString(String.format("Tilesets: %d, Layers: %d", tilesets.size(), layers.size()), panelX + 5, yOffset);
-            yOffset += lineHeight;
+        g2d.drawString(String.format("Tile Scale: x%d%s", TILE_SCALE,
+                nativeResolutionEnabled ? " (native framebuffer)" : ""), 5, yOffset);
+        yOffset += lineHeight;
 
-            g2d.setColor(Color.LIGHT_GRAY);
-            g2d.drawString(String.format("Cache: %d tilesets, %d tiles", gidToTilesetCache.size(), globalTileCache.size()), panelX + 5, yOffset);
-        });
+        g2d.setColor(Color.YELLOW);
+        g2d.drawString(String.format("Tilesets: %d, Layers: %d", tilesets.size(), layers.size()), 5, yOffset);
+        yOffset += lineHeight;
+
+        g2d.setColor(Color.LIGHT_GRAY);
+        g2d.drawString(String.format("Cache: %d gid slots, %d tiles", gidTilesets.length, cachedTileCount), 5, yOffset);
+        yOffset += lineHeight;
+
+        g2d.drawString(String.format("Chunks: %d resident, %d baked (%s)", staticChunkCache.getResidentCount(),
+                staticChunkCache.getBakedCount(), staticChunkCacheEnabled ? "on" : "off"), 5, yOffset);
+        yOffset += lineHeight;
+
+        g2d.drawString(String.format("Scroll Blit: %s, repainted %.1f%%", scrollBlitEnabled ? "on" : "off",
+                hudScrollRepaintedPermille / 10.0), 5, yOffset);
+        yOffset += lineHeight;
+
+        g2d.drawString(String.format("Scaled Cache: %d images, %d KB", scaledImageCache.getImageCount(),
+                scaledImageCache.getMemoryBytes() / 1024), 5, yOffset);
+        yOffset += lineHeight;
+
+        if (softwareRenderingEnabled) {
+            g2d.drawString(String.format("Backend: Software, %d cmds, %.2f ms", hudRasterizeCommands,
+                    hudRasterizeCentimillis / 100.0), 5, yOffset);
+        } else {
+            g2d.drawString("Backend: Java2D (F9: Software)", 5, yOffset);
+        }
     }
 
     private void renderSystemInfoPanel(Graphics2D g2d) {
@@ -900,56 +2138,72 @@ public class TmxParser {
         int baseHeight = 40;
         int layerHeight = layers.size() * lineHeight;
         int keyHeight = keysPressed.isEmpty() ? 0 : lineHeight + 5;
+        int profileHeight = (FrameProfiler.PHASE_COUNT + 1) * lineHeight + 5;
 
         int panelWidth = 400;
-        int panelHeight = baseHeight + layerHeight + keyHeight;
-        int panelY = canvas.getHeight() - panelHeight - 10;
+        int panelHeight = baseHeight + layerHeight + keyHeight + profileHeight;
 
-        renderPanel(g2d, 10, panelY, panelWidth, panelHeight, () -> {
-            int yOffset = panelY + 15;
+        long[] state = systemInfoPanel.state();
+        state[0] = mapLoadCount;
+        state[1] = keysVersion;
+        state[2] = profiler.getStatsVersion();
+        state[3] = profiler.isCsvRecording() ? 1 : 0;
+        systemInfoPanel.draw(g2d, 10, displaySurface.getHeight() - panelHeight - 10, panelWidth, panelHeight);
+    }
 
-            if (!layers.isEmpty()) {
-                g2d.setColor(Color.ORANGE);
-                g2d.drawString("Layer Order (rendering sequence):", 15, yOffset);
-                yOffset += lineHeight;
+    private void paintSystemInfoPanel(Graphics2D g2d, int width, int height) {
+        final int lineHeight = 14;
+        int yOffset = 15;
 
-                for (Layer layer : layers) {
-                    g2d.setColor(Color.WHITE);
-                    g2d.drawString(String.format("  %s (%s) - Order: %d",
-                            layer.name, layer.layerType, layer.renderOrder), 20, yOffset);
-                    yOffset += lineHeight;
-                }
-            }
+        g2d.setFont(HUD_FONT);
+        if (!layers.isEmpty()) {
+            g2d.setColor(Color.ORANGE);
+            g2d.drawString("Layer Order (rendering sequence):", 5, yOffset);
+            yOffset += lineHeight;
 
-            if (!keysPressed.isEmpty()) {
-                yOffset += 5;
-                g2d.setColor(Color.GREEN);
-                g2d.drawString("Keys Pressed: " + String.join(", ", keysPressed), 15, yOffset);
+            for (Layer layer : layers) {
+                g2d.setColor(Color.WHITE);
+                g2d.drawString(String.format("  %s (%s) - Order: %d",
+                        layer.name, layer.layerType, layer.renderOrder), 10, yOffset);
+                yOffset += lineHeight;
             }
-        });
-    }
-
-    private void renderPanel(Graphics2D g2d, int x, int y, int width, int height, Runnable contentRenderer) {
-        g2d.setColor(new Color(0, 0, 0, 150));
-        g2d.fillRect(x, y, width, height);
+        }
 
-        g2d.setColor(new Color(100, 100, 100));
-        g2d.drawRect(x, y, width, height);
+        if (!keysPressed.isEmpty()) {
+            yOffset += 5;
+            g2d.setColor(Color.GREEN);
+            g2d.drawString("Keys Pressed: " + String.join(", ", keysPressed), 5, yOffset);
+            yOffset += lineHeight;
+        }
 
-        contentRenderer.run();
+        yOffset += 5;
+        g2d.setColor(Color.ORANGE);
+        g2d.drawString(String.format("Frame Phases (ms)     p50     p95     p99     max%s",
+                profiler.isCsvRecording() ? "   [CSV]" : ""), 5, yOffset);
+        yOffset += lineHeight;
+
+        g2d.setColor(Color.WHITE);
+        for (int phase = 0; phase < FrameProfiler.PHASE_COUNT; phase++) {
+            g2d.drawString(String.format("  %-8s", FrameProfiler.PHASE_NAMES[phase]), 10, yOffset);
+            for (int stat = 0; stat < 4; stat++) {
+                g2d.drawString(String.format("%6.2f", profiler.getMillis(phase, stat)), 140 + stat * 56, yOffset);
+            }
+            yOffset += lineHeight;
+        }
     }
 
-    private void setupCollisionLayer() {
-        collisionLayer = layers.stream()
+    private static Layer findCollisionLayer(List<Layer> layers) {
+        Layer collision = layers.stream()
                 .filter(layer -> "BUILDINGS".equals(layer.layerType))
                 .findFirst()
                 .orElse(null);
 
-        if (collisionLayer != null) {
-            System.out.println("충돌 레이어 설정됨: " + collisionLayer.name);
+        if (collision != null) {
+            System.out.println("충돌 레이어 설정됨: " + collision.name);
         } else {
             System.out.println("충돌 레이어를 찾을 수 없습니다.");
         }
+        return collision;
     }
 
     private boolean isTileBlocked(int tileX, int tileY) {
@@ -980,25 +2234,35 @@ public class TmxParser {
     private boolean isValidPlayerPosition(int newX, int newY) {
         if (collisionLayer == null) return true;
 
-        int playerWidth = sprite.getWidth();
-        int playerHeight = sprite.getHeight();
-
-        int[] hitboxOffsets = {4, playerWidth - 4, playerHeight - 23, playerHeight - 1};
+        Rectangle hitbox = playerHitbox(newX, newY);
+        int left = hitbox.x;
+        int right = hitbox.x + hitbox.width;
+        int top = hitbox.y;
+        int bottom = hitbox.y + hitbox.height;
 
         int[][] corners = {
-                {newX + hitboxOffsets[0], newY + hitboxOffsets[3]},
-                {newX + hitboxOffsets[1], newY + hitboxOffsets[3]},
-                {newX + hitboxOffsets[0], newY + hitboxOffsets[2]},
-                {newX + hitboxOffsets[1], newY + hitboxOffsets[2]}
+                {left, bottom},
+                {right, bottom},
+                {left, top},
+                {right, top}
         };
 
         return Arrays.stream(corners).noneMatch(corner -> isPixelBlocked(corner[0], corner[1]));
     }
 
+    /// 플레이어가 (x, y)에 있을 때의 발 충돌 상자 - 네 모서리 (x, y) ~ (x + width, y + height)가 모두 판정 점
+    private Rectangle playerHitbox(int x, int y) {
+        int left = x + HITBOX_INSET_X;
+        int top = y + sprite.getHeight() - HITBOX_TOP_FROM_BOTTOM;
+        int right = x + sprite.getWidth() - HITBOX_INSET_X;
+        int bottom = y + sprite.getHeight() - HITBOX_BOTTOM_FROM_BOTTOM;
+        return new Rectangle(left, top, right - left, bottom - top);
+    }
+
     // Map transition methods
     public void addMapTransition(String fromMap, int triggerX, int triggerY,
                                  String toMap, int destX, int destY) {
-        mapTransitions.add(new MapTransition(toMap, triggerX, triggerY, destX, destY));
+        mapTransitions.add(new MapTransition(fromMap, toMap, triggerX, triggerY, destX, destY));
         System.out.println("맵 전환 추가: " + fromMap + "(" + triggerX + "," + triggerY +
                 ") -> " + toMap + "(" + destX + "," + destY + ")");
     }
@@ -1008,6 +2272,7 @@ public class TmxParser {
         int playerTileY = (playerY - mapOffsetY) / (tileHeight * TILE_SCALE);
 
         mapTransitions.stream()
+                .filter(transition -> transition.sourceMapPath.equals(currentMapPath))
                 .filter(transition -> playerTileX == transition.triggerTileX && playerTileY == transition.triggerTileY)
                 .findFirst()
                 .ifPresent(transition -> {
@@ -1017,25 +2282,57 @@ public class TmxParser {
                 });
     }
 
-    private void switchToMap(String targetMapPath, int destinationTileX, int destinationTileY) {
-        System.out.println("맵 전환 시작: " + currentMapPath + " -> " + targetMapPath);
+    /// 미리 준비한 맵을 모두 버린다 (다음 전환은 처음부터 준비)
+    void clearPreparedMaps() {
+        preparedMaps.clear();
+    }
 
-        if (loadTMX(targetMapPath)) {
-            currentMapPath = targetMapPath;
-            setPlayerStartPosition(destinationTileX, destinationTileY);
+    // 전환 트리거 근처에 오면 도착할 맵을 백그라운드에서 미리 준비해 둔다 (밟았을 때는 필드만 바꿔 끼움)
+    private void prefetchNearbyTransitions() {
+        if (mapTransitions.isEmpty() || tileWidth == 0 || tileHeight == 0) return;
 
-            String mapName = extractMapName(targetMapPath);
-            frame.setTitle("TMX 타일맵 뷰어 - " + mapName);
+        int playerTileX = (sprite.getX() - mapOffsetX) / (tileWidth * TILE_SCALE);
+        int playerTileY = (sprite.getY() - mapOffsetY) / (tileHeight * TILE_SCALE);
+        for (MapTransition transition : mapTransitions) {
+            if (!transition.sourceMapPath.equals(currentMapPath)) continue;
+            if (Math.abs(playerTileX - transition.triggerTileX) > PREFETCH_DISTANCE_TILES
+                    || Math.abs(playerTileY - transition.triggerTileY) > PREFETCH_DISTANCE_TILES) continue;
+            if (preparedMaps.contains(transition.targetMapPath)) continue;
 
-            System.out.println("맵 전환 완료: " + mapName);
+            preparedMaps.prefetch(transition.targetMapPath, mapLoader(transition.targetMapPath));
+        }
+    }
 
-            SwingUtilities.invokeLater(() -> {
-                canvas.revalidate();
-                canvas.repaint();
-            });
-        } else {
+    void switchToMap(String targetMapPath, int destinationTileX, int destinationTileY) {
+        checkGameThread("switchToMap");
+        System.out.println("맵 전환 시작: " + currentMapPath + " -> " + targetMapPath);
+
+        PreparedMap map;
+        boolean cached = preparedMaps.contains(targetMapPath);
+        try {
+            map = preparedMaps.take(targetMapPath, mapLoader(targetMapPath));
+        } catch (Exception e) {
+            reportLoadError(e);
             System.err.println("맵 전환 실패: " + targetMapPath);
+            return;
         }
+
+        long start = System.nanoTime();
+        activateMap(map);
+        currentMapPath = targetMapPath;
+        setPlayerStartPosition(destinationTileX, destinationTileY);
+
+        String mapName = extractMapName(targetMapPath);
+        System.out.printf("맵 전환 완료: %s (%s, 교체 %.2f ms)%n", mapName,
+                cached ? "미리 준비됨" : "새로 준비함", (System.nanoTime() - start) / 1e6);
+        if (headless) return;
+
+        SwingUtilities.invokeLater(() -> frame.setTitle("TMX 타일맵 뷰어 - " + mapName));
+
+        SwingUtilities.invokeLater(() -> {
+            canvas.revalidate();
+            canvas.repaint();
+        });
     }
 
     private void loadCustomPathImages() {
@@ -1065,7 +2362,7 @@ public class TmxParser {
     }
 
     private BufferedImage createCustomPathTileImage(int gid) {
-        PathTileCustomization customization = pathTileCustomizations.get(gid);
+        PathTileCustomization customization = pathCustomizationFor(gid);
         if (customization == null) return null;
 
         BufferedImage sourceImage = customPathImages.get(customization.imagePath);
@@ -1076,7 +2373,7 @@ public class TmxParser {
             int tileX = (customization.targetTileIndex % tilesPerRow) * customization.tileWidth;
             int tileY = (customization.targetTileIndex / tilesPerRow) * customization.tileHeight + customization.startY;
 
-            BufferedImage customTile = sourceImage.getSubimage(tileX, tileY, customization.tileWidth, customization.tileHeight);
+            BufferedImage customTile = CompatibleImages.copyRegion(sourceImage, tileX, tileY, customization.tileWidth, customization.tileHeight);
             System.out.println("커스텀 Path 타일 생성됨: GID " + gid + " (startY: " + customization.startY + ")");
             return customTile;
 
@@ -1122,62 +2419,93 @@ public class TmxParser {
         return fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
     }
 
-    // renderLayerTiles 메서드 끝에 추가하거나
-    private void renderPositionedObjects(Graphics2D g2d, int scaledTileWidth, int scaledTileHeight, boolean useCamera) {
-        for (PositionedObject obj : positionedObjects) {
-            BufferedImage objImage = createPositionedObjectImage(obj);
-            if (objImage == null) continue;
-
-            int screenX, screenY;
-            if (useCamera) {
-                screenX = camera.worldToScreenX(obj.tileX * scaledTileWidth);
-                screenY = camera.worldToScreenY(obj.tileY * scaledTileHeight);
-            } else {
-                screenX = mapOffsetX + obj.tileX * scaledTileWidth;
-                screenY = mapOffsetY + obj.tileY * scaledTileHeight;
-            }
-
-            renderObjectWithMode(g2d, objImage, screenX, screenY, scaledTileWidth, scaledTileHeight, obj);
-        }
-    }
-
+    // 오브젝트 이미지는 배치할 때 한 번만 잘라 두고, 같은 원본 영역을 쓰는 오브젝트(울타리 등)끼리 공유한다
+    // 확대 캐시가 원본 동일성으로 조회하므로 공유하면 확대 이미지도 하나만 생긴다
     private BufferedImage createPositionedObjectImage(PositionedObject obj) {
         BufferedImage sourceImage = customPathImages.get(obj.imagePath);
         if (sourceImage == null) return null;
 
+        String key = obj.imagePath + "#" + obj.targetTileIndex + ":" + obj.tileWidth + "x" + obj.tileHeight + "+" + obj.startY;
+        BufferedImage cached = objectSprites.get(key);
+        if (cached != null) return cached;
+
         try {
             int tilesPerRow = sourceImage.getWidth() / obj.tileWidth;
             int tileX = (obj.targetTileIndex % tilesPerRow) * obj.tileWidth;
             int tileY = (obj.targetTileIndex / tilesPerRow) * obj.tileHeight + obj.startY;
 
-            return sourceImage.getSubimage(tileX, tileY, obj.tileWidth, obj.tileHeight);
+            BufferedImage objImage = CompatibleImages.copyRegion(sourceImage, tileX, tileY, obj.tileWidth, obj.tileHeight);
+            objectSprites.put(key, objImage);
+            return objImage;
         } catch (Exception e) {
+            System.err.println("오브젝트 이미지 생성 실패: " + obj.imagePath + " (인덱스 " + obj.targetTileIndex + ") - " + e.getMessage());
             return null;
         }
     }
 
-    private void renderObjectWithMode(Graphics2D g2d, BufferedImage objImage, int screenX, int screenY,
-                                      int tileWidth, int tileHeight, PositionedObject obj) {
-        int renderX = screenX + obj.offsetX;
-        int renderY = screenY + obj.offsetY;
+    private void renderObjectWithMode(Graphics2D g2d, PositionedObject obj, int screenX, int screenY, int tileHeight) {
+        if (obj.sprite == null) return;
+        int offsetX = scaleOffset(obj.offsetX);
+        int offsetY = scaleOffset(obj.offsetY);
+        int renderX = screenX + offsetX;
+        int renderY = screenY + offsetY;
 
         switch (obj.renderMode) {
             case ORIGINAL_SIZE:
-                int renderWidth = obj.tileWidth * TILE_SCALE;
-                int renderHeight = obj.tileHeight * TILE_SCALE;
-                renderY = screenY + tileHeight - renderHeight + obj.offsetY;
-                g2d.drawImage(objImage, renderX, renderY, renderWidth, renderHeight, null);
+                int renderWidth = obj.tileWidth * drawScale;
+                int renderHeight = obj.tileHeight * drawScale;
+                renderY = screenY + tileHeight - renderHeight + offsetY;
+                if (rasterTarget != null) {
+                    // 소프트웨어 렌더러는 래스터화하면서 최근접 이웃으로 확대하므로 원본을 그대로 넘긴다
+                    if (obj.spriteSource == null) obj.spriteSource = rasterTarget.source(obj.sprite);
+                    rasterTarget.draw(obj.spriteSource, renderX, renderY, renderWidth, renderHeight);
+                } else {
+                    drawScaled(g2d, obj.sprite, renderX, renderY, renderWidth, renderHeight);
+                }
                 break;
             // 다른 모드들도 필요시 추가
         }
     }
 
+    // 오브젝트가 추가됐거나 맵 타일 크기가 바뀌었으면 그려지는 영역(원본 픽셀)을 다시 계산해 색인을 만든다
+    private void ensureObjectGrid() {
+        if (!objectGridDirty && objectGridTileWidth == tileWidth && objectGridTileHeight == tileHeight) return;
+
+        int count = positionedObjects.size();
+        objectLefts = new int[count];
+        objectTops = new int[count];
+        objectRights = new int[count];
+        objectBottoms = new int[count];
+        for (int i = 0; i < count; i++) {
+            PositionedObject obj = positionedObjects.get(i);
+            int cellX = obj.tileX * tileWidth;
+            int cellY = obj.tileY * tileHeight;
+            if (obj.renderMode == PathTileCustomization.RenderMode.ORIGINAL_SIZE) {
+                // 셀 아래쪽에 맞춰 위로 솟는 원본 크기 이미지 - 오프셋 환산의 내림 오차만큼 1픽셀 여유
+                objectLefts[i] = cellX + Math.floorDiv(obj.offsetX, TILE_SCALE) - 1;
+                objectBottoms[i] = cellY + tileHeight + Math.floorDiv(obj.offsetY, TILE_SCALE) + 1;
+                objectRights[i] = objectLefts[i] + obj.tileWidth + 2;
+                objectTops[i] = objectBottoms[i] - obj.tileHeight - 2;
+            } else {
+                objectLefts[i] = cellX;
+                objectTops[i] = cellY;
+                objectRights[i] = cellX + tileWidth;
+                objectBottoms[i] = cellY + tileHeight;
+            }
+        }
+
+        objectGrid.rebuild(count, objectLefts, objectTops, objectRights, objectBottoms);
+        objectGridTileWidth = tileWidth;
+        objectGridTileHeight = tileHeight;
+        objectGridDirty = false;
+    }
+
     public void addObjectAtPosition(int tileX, int tileY, String imagePath,
                                     int targetTileIndex, int tileWidth, int tileHeight,
                                     PathTileCustomization.RenderMode renderMode,
                                     int offsetX, int offsetY, int startY) {
-        positionedObjects.add(new PositionedObject(tileX, tileY, imagePath, targetTileIndex,
-                tileWidth, tileHeight, renderMode, offsetX, offsetY, startY));
+        PositionedObject obj = new PositionedObject(tileX, tileY, imagePath, targetTileIndex,
+                tileWidth, tileHeight, renderMode, offsetX, offsetY, startY);
 
         if (!customPathImages.containsKey(imagePath)) {
             BufferedImage image = findImageByName(imagePath);
@@ -1185,6 +2513,9 @@ public class TmxParser {
                 customPathImages.put(imagePath, image);
             }
         }
+        obj.sprite = createPositionedObjectImage(obj);
+        positionedObjects.add(obj);
+        objectGridDirty = true;
 
         System.out.println("오브젝트 추가: (" + tileX + "," + tileY + ") -> " + imagePath);
     }
@@ -1198,6 +2529,7 @@ public class TmxParser {
         final int topOffsetX, topOffsetY;
         final int startY;
         final PathTileCustomization.RenderMode renderMode;  // 기존 RenderMode 사용
+        BufferedImage[] halves;                             // 한 번 잘라낸 하단/상단 이미지
 
         TreeTileCustomization(String imagePath, int bottomTileIndex, int topTileIndex,
                               int bottomTileWidth, int bottomTileHeight,
@@ -1238,25 +2570,16 @@ public class TmxParser {
                 topTileWidth, topTileHeight, renderMode,
                 bottomOffsetX, bottomOffsetY,
                 topOffsetX, topOffsetY, startY));
+        rebuildCustomizationTables();
+        invalidateChunkCaches();
+        preparedMaps.clear();                       // 미리 준비한 맵은 이전 커스터마이징 기준
 
         System.out.println("Tree 타일 커스터마이징 추가: GID " + gid + " -> " + imagePath +
                 " [Bottom: " + bottomTileIndex + ", Top: " + topTileIndex + "]");
     }
 
-    private void loadCustomTreeImages() {
-        treeTileCustomizations.values().forEach(customization -> {
-            if (!customTreeImages.containsKey(customization.imagePath)) {
-                BufferedImage image = findImageByName(customization.imagePath);
-                if (image != null) {
-                    customTreeImages.put(customization.imagePath, image);
-                    System.out.println("Tree 이미지 로드됨: " + customization.imagePath);
-                }
-            }
-        });
-    }
-
     private BufferedImage createTreeTileImage(int gid, boolean isBottom) {
-        TreeTileCustomization customization = treeTileCustomizations.get(gid);
+        TreeTileCustomization customization = treeCustomizationFor(gid);
         if (customization == null) return null;
 
         BufferedImage sourceImage = customTreeImages.get(customization.imagePath);
@@ -1292,89 +2615,110 @@ public class TmxParser {
                 return null;
             }
 
-            return sourceImage.getSubimage(tileX, tileY, tileWidth, tileHeight);
+            return CompatibleImages.copyRegion(sourceImage, tileX, tileY, tileWidth, tileHeight);
         } catch (Exception e) {
             System.err.println("Tree 타일 생성 실패: GID " + gid + " (isBottom: " + isBottom + ") - " + e.getMessage());
             return null;
         }
     }
 
-    private void renderTreeTile(Graphics2D g2d, int screenX, int screenY,
-                                int tileWidth, int tileHeight, int gid) {
-        TreeTileCustomization customization = treeTileCustomizations.get(gid);
-        if (customization == null) return;
+    // 나무 하단/상단 이미지를 한 번만 잘라서 재사용 (확대 캐시가 원본 동일성으로 조회하므로 필요)
+    private BufferedImage[] getTreeTileImages(int gid, TreeTileCustomization customization) {
+        if (customization.halves == null) {
+            customization.halves = new BufferedImage[] { createTreeTileImage(gid, true), createTreeTileImage(gid, false) };
+        }
+        return customization.halves;
+    }
+
+    public void setStaticChunkCacheEnabled(boolean enabled) {
+        this.staticChunkCacheEnabled = enabled;
+        invalidateChunkCaches();
+    }
+
+    /// 맵별 풀잎 배치를 저장/재사용할 폴더 (null이면 맵을 불러올 때마다 새로 생성)
+    public void setGrassBakeDirectory(File directory) {
+        grassRenderer.setBakeDirectory(directory);
+    }
+
+    /// 컴파일된 맵(.tmxb) 저장 폴더 (null이면 매번 TMX를 파싱)
+    public void setMapCacheDirectory(File directory) {
+        this.mapCacheDirectory = directory;
+    }
 
-        // 하단 타일 렌더링 (줄기)
-        BufferedImage bottomTile = createTreeTileImage(gid, true);
-        if (bottomTile != null) {
-            renderTreeTileWithOffset(g2d, bottomTile, screenX, screenY,
-                    tileWidth, tileHeight, customization, true);
+    /// 단계별 프레임 시간 CSV 기록 시작 (null이면 중지)
+    public void setProfileCsvFile(File file) {
+        if (file == null) {
+            profiler.stopCsv();
+        } else if (profiler.startCsv(file)) {
+            System.out.println("프로파일 CSV 기록 시작: " + file.getAbsolutePath());
         }
+    }
 
-        // 상단 타일 렌더링 (잎사귀) - 한 타일 위쪽
-        BufferedImage topTile = createTreeTileImage(gid, false);
-        if (topTile != null) {
-            int topScreenY = screenY - tileHeight;
-            renderTreeTileWithOffset(g2d, topTile, screenX, topScreenY,
-                    tileWidth, tileHeight, customization, false);
+    private void toggleProfileCsv() {
+        if (profiler.isCsvRecording()) {
+            setProfileCsvFile(null);
+        } else {
+            setProfileCsvFile(new File("frame_profile_" + System.currentTimeMillis() + ".csv"));
         }
     }
 
-    private void renderTreeTileWithOffset(Graphics2D g2d, BufferedImage tileImage,
-                                          int screenX, int screenY, int tileWidth, int tileHeight,
-                                          TreeTileCustomization customization, boolean isBottom) {
+    /// Java2D / 소프트웨어 렌더러 전환 (원본 해상도 프레임버퍼 모드에서는 Java2D만 사용)
+    public void setSoftwareRenderingEnabled(boolean enabled) {
+        if (enabled && softwareRasterizer == null) {
+            softwareRasterizer = new SoftwareRasterizer();
+        }
+        this.softwareRenderingEnabled = enabled;
+        System.out.println("렌더링 백엔드: " + (enabled ? "Software (" + softwareRasterizer.getBandCount() + " bands)" : "Java2D"));
+    }
 
-        int offsetX = isBottom ? customization.bottomOffsetX : customization.topOffsetX;
-        int offsetY = isBottom ? customization.bottomOffsetY : customization.topOffsetY;
-        int sourceTileWidth = isBottom ? customization.bottomTileWidth : customization.topTileWidth;
-        int sourceTileHeight = isBottom ? customization.bottomTileHeight : customization.topTileHeight;
+    // 커스터마이징이 바뀌면 레이어 묶음도 달라질 수 있으므로 묶음 수로 다시 만든다
+    private void invalidateChunkCaches() {
+        staticChunkCache.reset(mapWidth, mapHeight, bandCount, tileWidth, tileHeight);
+        nativeChunkCache.reset(mapWidth, mapHeight, bandCount, tileWidth, tileHeight);
+    }
 
-        int renderX = screenX + offsetX;
-        int renderY = screenY + offsetY;
-        int renderWidth = tileWidth;
-        int renderHeight = tileHeight;
+    /// 원본 해상도 프레임버퍼 모드 전환 - 켜면 창 크기 조절과 F11 전체화면이 가능해진다
+    public void setNativeResolutionEnabled(boolean enabled) {
+        this.nativeResolutionEnabled = enabled;
+        if (headless) return;
+        frame.setResizable(enabled);
+        if (!enabled && fullscreen) {
+            toggleFullscreen();
+        }
+    }
 
-        switch (customization.renderMode) {
-            case STRETCH:
-                g2d.drawImage(tileImage, renderX, renderY, renderWidth, renderHeight, null);
-                break;
+    private void toggleFullscreen() {
+        GraphicsDevice device = frame.getGraphicsConfiguration().getDevice();
+        if (!device.isFullScreenSupported()) return;
 
-            case ASPECT_FIT:
-                double scale = Math.min((double) tileWidth / sourceTileWidth, (double) tileHeight / sourceTileHeight);
-                renderWidth = (int) (sourceTileWidth * scale);
-                renderHeight = (int) (sourceTileHeight * scale);
-                renderX = screenX + (tileWidth - renderWidth) / 2 + offsetX;
-                renderY = screenY + (tileHeight - renderHeight) / 2 + offsetY;
-                g2d.drawImage(tileImage, renderX, renderY, renderWidth, renderHeight, null);
-                break;
+        fullscreen = !fullscreen;
+        device.setFullScreenWindow(fullscreen ? frame : null);
+        displaySurface.requestFocusInWindow();
+    }
 
-            case ASPECT_FILL:
-                scale = Math.max((double) tileWidth / sourceTileWidth, (double) tileHeight / sourceTileHeight);
-                renderWidth = (int) (sourceTileWidth * scale);
-                renderHeight = (int) (sourceTileHeight * scale);
-                renderX = screenX + offsetX;
-                renderY = screenY + tileHeight - renderHeight + offsetY;
-                g2d.drawImage(tileImage, renderX, renderY, renderWidth, renderHeight, null);
-                break;
+    /// 첫 프레임 뒤에 가장 큰 타일시트로 변환 전/후 복사 속도를 재서 출력할지 (측정하는 동안 CPU를 쓰므로 기본은 꺼짐)
+    public void setBlitReportEnabled(boolean enabled) {
+        this.blitReportEnabled = enabled;
+    }
 
-            case ORIGINAL_SIZE:
-                renderWidth = sourceTileWidth * TILE_SCALE;
-                renderHeight = sourceTileHeight * TILE_SCALE;
-                renderX = screenX + offsetX;
-                renderY = screenY + tileHeight - renderHeight + offsetY;
-                g2d.drawImage(tileImage, renderX, renderY, renderWidth, renderHeight, null);
-                break;
+    /// 플레이어를 (x, y)로 옮기고 카메라 모드의 맵 화면(HUD 제외)을 g2d에 그린다 - 스크롤 경로 벤치마크용
+    void renderCameraFrame(Graphics2D g2d, int playerX, int playerY) {
+        sprite.setPosition(playerX, playerY);
+        renderCameraMode(g2d);
+    }
 
-            case CENTER:
-                renderWidth = sourceTileWidth;
-                renderHeight = sourceTileHeight;
-                renderX = screenX + (tileWidth - renderWidth) / 2 + offsetX;
-                renderY = screenY + (tileHeight - renderHeight) / 2 + offsetY;
-                g2d.drawImage(tileImage, renderX, renderY, renderWidth, renderHeight, null);
-                break;
+    public void setScrollBlitEnabled(boolean enabled) {
+        this.scrollBlitEnabled = enabled;
+        for (ScrollingLayerBuffer buffer : scrollBuffers) {
+            buffer.invalidate();
         }
     }
 
+    // HUD용 - 가장 아래 묶음(뒤 패스 첫 묶음) 스크롤 버퍼에서 다시 그린 비율
+    private double backScrollRepaintedFraction() {
+        return scrollBuffers.length == 0 ? 0 : scrollBuffers[0].getRepaintedFraction();
+    }
+
     public Camera getCamera() { return camera; }
     public SpriteRenderer getSprite() { return sprite; }
     public int getMapWidth() { return mapWidth; }
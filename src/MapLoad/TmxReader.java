@@ -0,0 +1,324 @@
+package MapLoad;
+
+import MapLoad.TmxParser.Layer;
+import MapLoad.TmxParser.Tileset;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * TMX 파일을 StAX로 처음부터 끝까지 한 번 훑어 맵 크기, 타일셋(애니메이션 포함), 레이어를 읽는다.
+ * DOM을 만들지 않고, 레이어 CSV는 파서의 문자 버퍼에서 바로 숫자로 바꿔 Layer.data에 채운다 (값마다 문자열을 만들지 않음).
+ * 타일셋 이미지 연결, 레이어 이름 정규화/정렬 같은 게임 쪽 처리는 TmxParser가 한다.
+ */
+class TmxReader {
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    int mapWidth, mapHeight, tileWidth, tileHeight;
+    final List<Tileset> tilesets = new ArrayList<>();
+    final List<Layer> layers = new ArrayList<>();      /// 파일에 나온 순서 그대로
+
+    // <tile> 안의 <frame>을 모으는 중인 애니메이션
+    private int tileId = -1;
+    private int[] frameTileIds = new int[8];
+    private int[] frameDurations = new int[8];
+    private int frameCount = 0;
+
+    // base64 레이어 본문 (레이어끼리 재사용)
+    private byte[] base64Text = new byte[0];
+    private int base64Length = 0;
+
+    TmxReader() {}
+
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    static TmxReader read(File tmxFile) throws IOException, XMLStreamException {
+        try (InputStream input = new BufferedInputStream(new FileInputStream(tmxFile))) {
+            XMLStreamReader reader;
+            synchronized (INPUT_FACTORY) {
+                reader = INPUT_FACTORY.createXMLStreamReader(input);
+            }
+            try {
+                TmxReader map = new TmxReader();
+                map.readDocument(reader);
+                return map;
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    private void readDocument(XMLStreamReader reader) throws IOException, XMLStreamException {
+        Tileset tileset = null;
+        Layer layer = null;
+        boolean layerHasData = false;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "map":
+                        mapWidth = intAttribute(reader, "width");
+                        mapHeight = intAttribute(reader, "height");
+                        tileWidth = intAttribute(reader, "tilewidth");
+                        tileHeight = intAttribute(reader, "tileheight");
+                        break;
+
+                    case "tileset":
+                        tileset = startTileset(reader);
+                        break;
+
+                    case "image":
+                        // 타일셋 자체 이미지는 첫 번째 <image> (타일별 이미지는 무시)
+                        if (tileset != null && tileset.imagePath == null) {
+                            tileset.imagePath = reader.getAttributeValue(null, "source");
+                        }
+                        break;
+
+                    case "tile":
+                        if (tileset != null) {
+                            tileId = intAttribute(reader, "id");
+                            frameCount = 0;
+                        }
+                        break;
+
+                    case "frame":
+                        if (tileset != null && tileId >= 0) {
+                            addFrame(intAttribute(reader, "tileid"), intAttribute(reader, "duration"));
+                        }
+                        break;
+
+                    case "layer":
+                        layer = startLayer(reader);
+                        layerHasData = false;
+                        break;
+
+                    case "data":
+                        // 레이어의 첫 번째 <data>만
+                        if (layer != null && !layerHasData) {
+                            layerHasData = true;
+                            layer.data = readData(reader, layer);
+                        }
+                        break;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "tileset":
+                        if (tileset != null) tilesets.add(tileset);
+                        tileset = null;
+                        break;
+
+                    case "tile":
+                        if (tileset != null && tileId >= 0 && frameCount > 0) {
+                            tileset.animations.add(createAnimation(tileset.firstGid));
+                        }
+                        tileId = -1;
+                        break;
+
+                    case "layer":
+                        if (layer != null) layers.add(layer);
+                        layer = null;
+                        break;
+                }
+            }
+        }
+    }
+
+    private static Tileset startTileset(XMLStreamReader reader) throws XMLStreamException {
+        Tileset tileset = new Tileset();
+        tileset.firstGid = intAttribute(reader, "firstgid");
+        tileset.name = reader.getAttributeValue(null, "name");
+        tileset.tileWidth = intAttribute(reader, "tilewidth");
+        tileset.tileHeight = intAttribute(reader, "tileheight");
+        tileset.tileCount = intAttribute(reader, "tilecount");
+        tileset.columns = intAttribute(reader, "columns");
+        tileset.tiles = new BufferedImage[tileset.tileCount];
+        return tileset;
+    }
+
+    private static Layer startLayer(XMLStreamReader reader) throws XMLStreamException {
+        Layer layer = new Layer();
+        layer.name = reader.getAttributeValue(null, "name");
+        layer.width = intAttribute(reader, "width");
+        layer.height = intAttribute(reader, "height");
+
+        String opacity = reader.getAttributeValue(null, "opacity");
+        if (opacity != null && !opacity.isEmpty() && Float.parseFloat(opacity) == 0.0f) {
+            layer.visible = false;
+        }
+        return layer;
+    }
+
+    private void addFrame(int frameTileId, int duration) {
+        if (frameCount == frameTileIds.length) {
+            frameTileIds = Arrays.copyOf(frameTileIds, frameCount * 2);
+            frameDurations = Arrays.copyOf(frameDurations, frameCount * 2);
+        }
+        frameTileIds[frameCount] = frameTileId;
+        frameDurations[frameCount] = duration;
+        frameCount++;
+    }
+
+    // <tile id><animation><frame tileid duration/></animation></tile> -> GID 기준 프레임/시간 배열
+    private TileAnimation createAnimation(int firstGid) {
+        int[] frameGids = new int[frameCount];
+        for (int i = 0; i < frameCount; i++) {
+            frameGids[i] = firstGid + frameTileIds[i];
+        }
+        return new TileAnimation(firstGid + tileId, frameGids, Arrays.copyOf(frameDurations, frameCount));
+    }
+
+    /// TMX가 지원하는 인코딩: csv, base64 (무압축/zlib/gzip), 인코딩 속성 없는 <tile gid> 목록
+    private int[] readData(XMLStreamReader reader, Layer layer) throws IOException, XMLStreamException {
+        String encoding = reader.getAttributeValue(null, "encoding");
+        String compression = reader.getAttributeValue(null, "compression");
+        int cellCount = layer.width * layer.height;
+
+        if (encoding == null || encoding.isEmpty()) {
+            return readTileElements(reader, cellCount, layer.name);
+        }
+        switch (encoding) {
+            case "csv":
+                return readCsv(reader, cellCount, layer.name);
+            case "base64":
+                return LayerDataDecoder.decode(readBase64Text(reader), base64Length, compression, cellCount, layer.name);
+            default:
+                throw new XMLStreamException("지원하지 않는 레이어 인코딩: " + encoding + " (" + layer.name + ")", reader.getLocation());
+        }
+    }
+
+    // base64 본문을 (공백을 빼고) ASCII 바이트로 모은다
+    private byte[] readBase64Text(XMLStreamReader reader) throws XMLStreamException {
+        base64Length = 0;
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) break;
+            if (event != XMLStreamConstants.CHARACTERS && event != XMLStreamConstants.CDATA
+                    && event != XMLStreamConstants.SPACE) {
+                continue;
+            }
+
+            char[] text = reader.getTextCharacters();
+            int end = reader.getTextStart() + reader.getTextLength();
+            if (base64Length + reader.getTextLength() > base64Text.length) {
+                base64Text = Arrays.copyOf(base64Text, Math.max(base64Length + reader.getTextLength(), base64Text.length * 2));
+            }
+            for (int i = reader.getTextStart(); i < end; i++) {
+                char c = text[i];
+                if (!Character.isWhitespace(c)) {
+                    base64Text[base64Length++] = (byte) c;
+                }
+            }
+        }
+        return base64Text;
+    }
+
+    private static int[] readTileElements(XMLStreamReader reader, int expectedCount, String layerName)
+            throws XMLStreamException {
+        int[] values = new int[Math.max(expectedCount, 16)];
+        int count = 0;
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                if ("tile".equals(reader.getLocalName())) {
+                    String gid = reader.getAttributeValue(null, "gid");
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, count * 2);
+                    }
+                    values[count++] = gid == null ? 0 : Integer.parseUnsignedInt(gid.trim());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return checkCellCount(values, count, expectedCount, layerName, reader);
+    }
+
+    /// </data>까지의 텍스트를 파서 내부 버퍼에서 직접 읽어 GID 배열로 만든다
+    /// 텍스트가 여러 이벤트로 나뉘어 와도 숫자 하나가 경계에 걸칠 수 있으므로 진행 중인 값을 이어서 센다
+    private static int[] readCsv(XMLStreamReader reader, int expectedCount, String layerName) throws XMLStreamException {
+        int[] values = new int[Math.max(expectedCount, 16)];
+        int count = 0;
+        long value = 0;
+        boolean inValue = false;
+
+        while (true) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) break;
+            if (event != XMLStreamConstants.CHARACTERS && event != XMLStreamConstants.CDATA
+                    && event != XMLStreamConstants.SPACE) {
+                continue;
+            }
+
+            char[] text = reader.getTextCharacters();
+            int end = reader.getTextStart() + reader.getTextLength();
+            for (int i = reader.getTextStart(); i < end; i++) {
+                char c = text[i];
+                if (c >= '0' && c <= '9') {
+                    // GID는 부호 없는 32비트 (상위 비트는 뒤집기 플래그)
+                    value = value * 10 + (c - '0');
+                    if (value > 0xFFFFFFFFL) {
+                        throw new XMLStreamException("CSV 값이 너무 큽니다", reader.getLocation());
+                    }
+                    inValue = true;
+                } else if (c == ',') {
+                    if (!inValue) {
+                        throw new XMLStreamException("빈 CSV 값", reader.getLocation());
+                    }
+                    if (count == values.length) {
+                        values = Arrays.copyOf(values, count * 2);
+                    }
+                    values[count++] = (int) value;
+                    value = 0;
+                    inValue = false;
+                } else if (!Character.isWhitespace(c)) {
+                    throw new XMLStreamException("잘못된 CSV 문자: '" + c + "'", reader.getLocation());
+                }
+            }
+        }
+
+        if (inValue) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count + 1);
+            }
+            values[count++] = (int) value;
+        }
+        return checkCellCount(values, count, expectedCount, layerName, reader);
+    }
+
+    // base64 경로(LayerDataDecoder)와 마찬가지로 셀 수가 width * height와 다르면 레이어 이름을 붙여 실패
+    private static int[] checkCellCount(int[] values, int count, int expectedCount, String layerName,
+                                        XMLStreamReader reader) throws XMLStreamException {
+        if (count != expectedCount) {
+            throw new XMLStreamException(String.format("레이어 %s: 타일 수가 맞지 않습니다 (%d개, 필요 %d개)",
+                    layerName, count, expectedCount), reader.getLocation());
+        }
+        return count == values.length ? values : Arrays.copyOf(values, count);
+    }
+
+    private static int intAttribute(XMLStreamReader reader, String name) throws XMLStreamException {
+        String value = reader.getAttributeValue(null, name);
+        if (value == null) {
+            throw new XMLStreamException("<" + reader.getLocalName() + "> " + name + " 속성이 없습니다", reader.getLocation());
+        }
+        return Integer.parseInt(value.trim());
+    }
+}